@@ -59,9 +59,13 @@ public interface EventConstants {
   // journal events
   String POST_JOURNAL_ENTRY = "post-journal-entry";
   String RELEASE_JOURNAL_ENTRY = "release-journal-entry";
+  String POST_JOURNAL_ENTRIES = "post-journal-entries";
+  String RELEASE_JOURNAL_ENTRIES = "release-journal-entries";
 
   String SELECTOR_POST_JOURNAL_ENTRY = SELECTOR_NAME + " = '" + POST_JOURNAL_ENTRY + "'";
   String SELECTOR_RELEASE_JOURNAL_ENTRY = SELECTOR_NAME + " = '" + RELEASE_JOURNAL_ENTRY + "'";
+  String SELECTOR_POST_JOURNAL_ENTRIES = SELECTOR_NAME + " = '" + POST_JOURNAL_ENTRIES + "'";
+  String SELECTOR_RELEASE_JOURNAL_ENTRIES = SELECTOR_NAME + " = '" + RELEASE_JOURNAL_ENTRIES + "'";
 
   String POST_TX_TYPE = "post-tx-type";
   String SELECTOR_POST_TX_TYPE = SELECTOR_NAME + " = '" + POST_TX_TYPE + "'";
@@ -19,12 +19,19 @@
 package org.apache.fineract.cn.accounting.api.v1.client;
 
 import org.apache.fineract.cn.accounting.api.v1.domain.Account;
+import org.apache.fineract.cn.accounting.api.v1.domain.AccountBalance;
 import org.apache.fineract.cn.accounting.api.v1.domain.AccountCommand;
 import org.apache.fineract.cn.accounting.api.v1.domain.AccountEntry;
 import org.apache.fineract.cn.accounting.api.v1.domain.AccountEntryPage;
+import org.apache.fineract.cn.accounting.api.v1.domain.AccountEntrySlice;
 import org.apache.fineract.cn.accounting.api.v1.domain.AccountPage;
+import org.apache.fineract.cn.accounting.api.v1.domain.AccountStatementBalance;
 import org.apache.fineract.cn.accounting.api.v1.domain.ChartOfAccountEntry;
 import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntry;
+import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntryAggregate;
+import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntryPage;
+import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntryResult;
+import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntrySummary;
 import org.apache.fineract.cn.accounting.api.v1.domain.Ledger;
 import org.apache.fineract.cn.accounting.api.v1.domain.LedgerPage;
 import org.apache.fineract.cn.accounting.api.v1.domain.TransactionType;
@@ -37,6 +44,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.stream.Stream;
 import javax.validation.Valid;
+import feign.Response;
 import org.apache.fineract.cn.api.annotation.ThrowsException;
 import org.apache.fineract.cn.api.annotation.ThrowsExceptions;
 import org.apache.fineract.cn.api.util.CustomFeignClientsConfiguration;
@@ -210,6 +218,55 @@ public interface LedgerManager {
                                        @RequestParam(value = "sortColumn", required = false) final String sortColumn,
                                        @RequestParam(value = "sortDirection", required = false) final String sortDirection);
 
+  /**
+   * Streams all entries of the range, one JSON document per line or, with format csv, as CSV. The body is not
+   * buffered, so the caller has to close the response. Errors are not mapped to exceptions, check the status first.
+   */
+  @RequestMapping(
+      value = "/accounts/{identifier}/entries/export",
+      method = RequestMethod.GET,
+      produces = {MediaType.ALL_VALUE},
+      consumes = {MediaType.APPLICATION_JSON_VALUE}
+  )
+  Response exportAccountEntries(@PathVariable("identifier") final String identifier,
+                                @RequestParam(value = "dateRange", required = false) final String dateRange,
+                                @RequestParam(value = "message", required = false) final String message,
+                                @RequestParam(value = "format", required = false) final String format);
+
+  @RequestMapping(
+      value = "/accounts/{identifier}/entries/slice",
+      method = RequestMethod.GET,
+      produces = {MediaType.ALL_VALUE},
+      consumes = {MediaType.APPLICATION_JSON_VALUE}
+  )
+  @ThrowsException(status = HttpStatus.NOT_FOUND, exception = AccountNotFoundException.class)
+  AccountEntrySlice fetchAccountEntrySlice(@PathVariable("identifier") final String identifier,
+                                           @RequestParam(value = "dateRange", required = false) final String dateRange,
+                                           @RequestParam(value = "message", required = false) final String message,
+                                           @RequestParam(value = "cursor", required = false) final String cursor,
+                                           @RequestParam(value = "size", required = false) final Integer size,
+                                           @RequestParam(value = "sortDirection", required = false) final String sortDirection);
+
+  @RequestMapping(
+      value = "/accounts/{identifier}/balance",
+      method = RequestMethod.GET,
+      produces = {MediaType.ALL_VALUE},
+      consumes = {MediaType.APPLICATION_JSON_VALUE}
+  )
+  @ThrowsException(status = HttpStatus.NOT_FOUND, exception = AccountNotFoundException.class)
+  AccountBalance fetchAccountBalance(@PathVariable("identifier") final String identifier,
+                                     @RequestParam(value = "date", required = false) final String date);
+
+  @RequestMapping(
+      value = "/accounts/{identifier}/statement",
+      method = RequestMethod.GET,
+      produces = {MediaType.ALL_VALUE},
+      consumes = {MediaType.APPLICATION_JSON_VALUE}
+  )
+  @ThrowsException(status = HttpStatus.NOT_FOUND, exception = AccountNotFoundException.class)
+  AccountStatementBalance fetchAccountStatementBalance(@PathVariable("identifier") final String identifier,
+                                                       @RequestParam(value = "dateRange", required = false) final String dateRange);
+
   // These helper functions are implemented here rather than in the client because it is easier to test
   // and mock if it's part of the accounting interface, rather than part of the client calling it.
     default Stream<Account> streamAccountsOfLedger(
@@ -303,10 +360,23 @@ public interface LedgerManager {
   )
   @ThrowsExceptions({
       @ThrowsException(status = HttpStatus.BAD_REQUEST, exception = JournalEntryValidationException.class),
-      @ThrowsException(status = HttpStatus.CONFLICT, exception = JournalEntryAlreadyExistsException.class)
+      @ThrowsException(status = HttpStatus.CONFLICT, exception = JournalEntryAlreadyExistsException.class),
+      @ThrowsException(status = HttpStatus.TOO_MANY_REQUESTS, exception = BookingCapacityExceededException.class)
   })
   void createJournalEntry(@RequestBody final JournalEntry journalEntry);
 
+  @RequestMapping(
+      value = "/journal/batch",
+      method = RequestMethod.POST,
+      produces = {MediaType.APPLICATION_JSON_VALUE},
+      consumes = {MediaType.APPLICATION_JSON_VALUE}
+  )
+  @ThrowsExceptions({
+      @ThrowsException(status = HttpStatus.BAD_REQUEST, exception = JournalEntryValidationException.class),
+      @ThrowsException(status = HttpStatus.TOO_MANY_REQUESTS, exception = BookingCapacityExceededException.class)
+  })
+  List<JournalEntryResult> createJournalEntries(@RequestBody final List<JournalEntry> journalEntries);
+
   @RequestMapping(
       value = "/journal",
       method = RequestMethod.GET,
@@ -317,6 +387,38 @@ public interface LedgerManager {
                                          @RequestParam(value = "account", required = false) final String accountNumber,
                                          @RequestParam(value = "amount", required = false) final BigDecimal amount);
 
+  @RequestMapping(
+      value = "/journal/summaries",
+      method = RequestMethod.GET,
+      produces = {MediaType.ALL_VALUE},
+      consumes = {MediaType.APPLICATION_JSON_VALUE}
+  )
+  List<JournalEntrySummary> fetchJournalEntrySummaries(@RequestParam(value = "dateRange", required = false) final String dateRange,
+                                                       @RequestParam(value = "account", required = false) final String accountNumber);
+
+  @RequestMapping(
+      value = "/journal/aggregates",
+      method = RequestMethod.GET,
+      produces = {MediaType.ALL_VALUE},
+      consumes = {MediaType.APPLICATION_JSON_VALUE}
+  )
+  List<JournalEntryAggregate> fetchJournalEntryAggregates(@RequestParam(value = "dateRange", required = false) final String dateRange,
+                                                          @RequestParam(value = "account", required = false) final String accountNumber);
+
+  @RequestMapping(
+      value = "/journal/pages",
+      method = RequestMethod.GET,
+      produces = {MediaType.ALL_VALUE},
+      consumes = {MediaType.APPLICATION_JSON_VALUE}
+  )
+  @ThrowsExceptions({
+      @ThrowsException(status = HttpStatus.BAD_REQUEST, exception = JournalEntryValidationException.class)
+  })
+  JournalEntryPage fetchJournalEntryPage(@RequestParam(value = "dateRange", required = false) final String dateRange,
+                                         @RequestParam(value = "account", required = false) final String accountNumber,
+                                         @RequestParam(value = "pageToken", required = false) final String pageToken,
+                                         @RequestParam(value = "size", required = false) final Integer size);
+
   @RequestMapping(
       value = "/journal/{transactionIdentifier}",
       method = RequestMethod.GET,
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.api.v1.domain;
+
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class AccountStatementBalance {
+  private String dateRange;
+  private Double openingBalance;
+  private Double closingBalance;
+
+  public AccountStatementBalance() {
+    super();
+  }
+
+  public String getDateRange() {
+    return this.dateRange;
+  }
+
+  public void setDateRange(final String dateRange) {
+    this.dateRange = dateRange;
+  }
+
+  /**
+   * @return the balance at the end of the day before the range
+   */
+  public Double getOpeningBalance() {
+    return this.openingBalance;
+  }
+
+  public void setOpeningBalance(final Double openingBalance) {
+    this.openingBalance = openingBalance;
+  }
+
+  /**
+   * @return the balance at the end of the last day of the range
+   */
+  public Double getClosingBalance() {
+    return this.closingBalance;
+  }
+
+  public void setClosingBalance(final Double closingBalance) {
+    this.closingBalance = closingBalance;
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.api.v1.domain;
+
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class JournalEntryAggregate {
+  private String transactionType;
+  private Long entryCount;
+  private String volume;
+
+  public JournalEntryAggregate() {
+    super();
+  }
+
+  public String getTransactionType() {
+    return this.transactionType;
+  }
+
+  public void setTransactionType(final String transactionType) {
+    this.transactionType = transactionType;
+  }
+
+  public Long getEntryCount() {
+    return this.entryCount;
+  }
+
+  public void setEntryCount(final Long entryCount) {
+    this.entryCount = entryCount;
+  }
+
+  /**
+   * @return the sum of all debtor amounts, or if aggregated for an account, the sum of all amounts booked on it
+   */
+  public String getVolume() {
+    return this.volume;
+  }
+
+  public void setVolume(final String volume) {
+    this.volume = volume;
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.api.v1.domain;
+
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class JournalEntrySummary {
+  private String transactionIdentifier;
+  private String transactionDate;
+  private String transactionType;
+  private JournalEntry.State state;
+  private String totalAmount;
+
+  public JournalEntrySummary() {
+    super();
+  }
+
+  public String getTransactionIdentifier() {
+    return this.transactionIdentifier;
+  }
+
+  public void setTransactionIdentifier(final String transactionIdentifier) {
+    this.transactionIdentifier = transactionIdentifier;
+  }
+
+  public String getTransactionDate() {
+    return this.transactionDate;
+  }
+
+  public void setTransactionDate(final String transactionDate) {
+    this.transactionDate = transactionDate;
+  }
+
+  public String getTransactionType() {
+    return this.transactionType;
+  }
+
+  public void setTransactionType(final String transactionType) {
+    this.transactionType = transactionType;
+  }
+
+  public String getState() {
+    return this.state.name();
+  }
+
+  public void setState(final String state) {
+    this.state = JournalEntry.State.valueOf(state);
+  }
+
+  /**
+   * @return the sum of all debtor amounts
+   */
+  public String getTotalAmount() {
+    return this.totalAmount;
+  }
+
+  public void setTotalAmount(final String totalAmount) {
+    this.totalAmount = totalAmount;
+  }
+}
@@ -50,6 +50,10 @@ public class StressTestJournalEntry extends AbstractAccountingTest {
     this.writeJournalEntries(16, numberOfJournalEntries, preparedAccountsAsArray);
     this.writeJournalEntries(24, numberOfJournalEntries, preparedAccountsAsArray);
     this.writeJournalEntries(32, numberOfJournalEntries, preparedAccountsAsArray);
+
+    this.writeJournalEntriesInBatches(4, numberOfJournalEntries, 64, preparedAccountsAsArray);
+    this.writeJournalEntriesInBatches(8, numberOfJournalEntries, 256, preparedAccountsAsArray);
+    this.writeJournalEntriesInBatches(16, numberOfJournalEntries, 512, preparedAccountsAsArray);
   }
 
   private void writeJournalEntries(final int numberOfThreads, final int numberOfJournalEntries, final Account[] preparedAccountsAsArray) {
@@ -92,6 +96,49 @@ public class StressTestJournalEntry extends AbstractAccountingTest {
     this.logger.error("Average processing time for one journal entry: {}ms", processingTime / numberOfProcessedJournalEntries);
   }
 
+  private void writeJournalEntriesInBatches(final int numberOfThreads, final int numberOfJournalEntries,
+                                            final int batchSize, final Account[] preparedAccountsAsArray) {
+    final List<Future<?>> futures = new ArrayList<>(numberOfThreads);
+    final ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads);
+    final AtomicLong totalExecutionTime = new AtomicLong(0L);
+
+    for (int t = 0; t < numberOfThreads; t++) {
+      final Future<?> future = executorService.submit(
+          () -> {
+            long executionTime = 0L;
+            int randomBound = preparedAccountsAsArray.length;
+            for (int i = 0; i < numberOfJournalEntries; i += batchSize) {
+              final List<JournalEntry> journalEntries = new ArrayList<>(batchSize);
+              for (int j = i; j < Math.min(i + batchSize, numberOfJournalEntries); j++) {
+                final Account debtorAccount = preparedAccountsAsArray[RandomUtils.nextInt(randomBound)];
+                final Account creditorAccount = preparedAccountsAsArray[RandomUtils.nextInt(randomBound)];
+                journalEntries.add(
+                    JournalEntryGenerator.createRandomJournalEntry(debtorAccount, "50.00", creditorAccount, "50.00"));
+              }
+              final long start = System.currentTimeMillis();
+              this.testSubject.createJournalEntries(journalEntries);
+              executionTime += (System.currentTimeMillis() - start);
+            }
+            totalExecutionTime.addAndGet(executionTime);
+          }
+      );
+      futures.add(future);
+    }
+
+    futures.forEach(future -> {
+      try {
+        future.get();
+      } catch (Exception e) {
+        e.printStackTrace();
+      }
+    });
+
+    final long numberOfProcessedJournalEntries = numberOfJournalEntries * numberOfThreads;
+    final long processingTime = totalExecutionTime.get();
+    this.logger.error("Added {} journal entries in batches of {} in {}s.", numberOfProcessedJournalEntries, batchSize, (processingTime / 1000L));
+    this.logger.error("Average processing time for one journal entry: {}ms", processingTime / numberOfProcessedJournalEntries);
+  }
+
   private Account[] prepareData(int numberOfLedgers, int numberOfAccounts) throws Exception {
     final ArrayList<Account> createdAccounts = new ArrayList<>(numberOfLedgers * numberOfAccounts);
     final AtomicLong preparationTime = new AtomicLong(0L);
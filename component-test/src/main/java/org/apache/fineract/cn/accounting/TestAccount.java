@@ -25,15 +25,25 @@ import org.apache.fineract.cn.accounting.api.v1.client.AccountReferenceException
 import org.apache.fineract.cn.accounting.api.v1.domain.Account;
 import org.apache.fineract.cn.accounting.api.v1.domain.AccountCommand;
 import org.apache.fineract.cn.accounting.api.v1.domain.AccountEntry;
+import org.apache.fineract.cn.accounting.api.v1.domain.AccountEntrySlice;
 import org.apache.fineract.cn.accounting.api.v1.domain.AccountPage;
+import org.apache.fineract.cn.accounting.api.v1.domain.AccountStatementBalance;
 import org.apache.fineract.cn.accounting.api.v1.domain.AccountType;
 import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntry;
 import org.apache.fineract.cn.accounting.api.v1.domain.Ledger;
 import org.apache.fineract.cn.accounting.util.AccountGenerator;
 import org.apache.fineract.cn.accounting.util.JournalEntryGenerator;
 import org.apache.fineract.cn.accounting.util.LedgerGenerator;
+import feign.Response;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.Clock;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -387,6 +397,155 @@ public class TestAccount extends AbstractAccountingTest {
     Assert.assertEquals(accountEntriesBackward, accountEntriesForward);
   }
 
+  @Test
+  public void shouldSliceAccountEntriesWithCursor() throws InterruptedException {
+    final Ledger ledger = LedgerGenerator.createRandomLedger();
+    this.testSubject.createLedger(ledger);
+    this.eventRecorder.wait(EventConstants.POST_LEDGER, ledger.getIdentifier());
+
+    final Account debtorAccount = AccountGenerator.createRandomAccount(ledger.getIdentifier());
+    this.testSubject.createAccount(debtorAccount);
+    this.eventRecorder.wait(EventConstants.POST_ACCOUNT, debtorAccount.getIdentifier());
+
+    final Account creditorAccount = AccountGenerator.createRandomAccount(ledger.getIdentifier());
+    this.testSubject.createAccount(creditorAccount);
+    this.eventRecorder.wait(EventConstants.POST_ACCOUNT, creditorAccount.getIdentifier());
+
+    final int journalEntryCount = 7;
+    final Set<String> journalEntryMessages = new HashSet<>();
+    for (int i = 0; i < journalEntryCount; i++) {
+      final JournalEntry journalEntry =
+          JournalEntryGenerator.createRandomJournalEntry(debtorAccount, "50.00", creditorAccount, "50.00");
+      journalEntryMessages.add(journalEntry.getMessage());
+      this.testSubject.createJournalEntry(journalEntry);
+      this.eventRecorder.wait(EventConstants.RELEASE_JOURNAL_ENTRY, journalEntry.getTransactionIdentifier());
+    }
+
+    final LocalDate today = LocalDate.now(Clock.systemUTC());
+    final String todayDateRange = new DateRange(today, today).toString();
+
+    final List<AccountEntry> accountEntriesForward = new ArrayList<>();
+    String cursor = null;
+    int sliceCount = 0;
+    do {
+      final AccountEntrySlice accountEntrySlice = this.testSubject.fetchAccountEntrySlice(
+          creditorAccount.getIdentifier(), todayDateRange, null, cursor, 3, "ASC");
+      Assert.assertTrue(accountEntrySlice.getAccountEntries().size() <= 3);
+      accountEntriesForward.addAll(accountEntrySlice.getAccountEntries());
+      cursor = accountEntrySlice.getNextCursor();
+      sliceCount++;
+    } while (cursor != null);
+
+    Assert.assertEquals(3, sliceCount);
+    Assert.assertEquals(journalEntryMessages,
+        accountEntriesForward.stream().map(AccountEntry::getMessage).collect(Collectors.toSet()));
+    Assert.assertEquals(journalEntryCount, accountEntriesForward.size());
+
+    final List<AccountEntry> accountEntriesBackward = new ArrayList<>();
+    cursor = null;
+    do {
+      final AccountEntrySlice accountEntrySlice = this.testSubject.fetchAccountEntrySlice(
+          creditorAccount.getIdentifier(), todayDateRange, null, cursor, 3, "DESC");
+      accountEntriesBackward.addAll(accountEntrySlice.getAccountEntries());
+      cursor = accountEntrySlice.getNextCursor();
+    } while (cursor != null);
+
+    Collections.reverse(accountEntriesBackward);
+    Assert.assertEquals(accountEntriesForward, accountEntriesBackward);
+  }
+
+  @Test
+  public void shouldFetchBalancesOfPastDays() throws InterruptedException {
+    final Ledger ledger = LedgerGenerator.createRandomLedger();
+    this.testSubject.createLedger(ledger);
+    this.eventRecorder.wait(EventConstants.POST_LEDGER, ledger.getIdentifier());
+
+    final Account debtorAccount = AccountGenerator.createRandomAccount(ledger.getIdentifier());
+    this.testSubject.createAccount(debtorAccount);
+    this.eventRecorder.wait(EventConstants.POST_ACCOUNT, debtorAccount.getIdentifier());
+
+    final Account creditorAccount = AccountGenerator.createRandomAccount(ledger.getIdentifier());
+    this.testSubject.createAccount(creditorAccount);
+    this.eventRecorder.wait(EventConstants.POST_ACCOUNT, creditorAccount.getIdentifier());
+
+    final JournalEntry journalEntryOne =
+        JournalEntryGenerator.createRandomJournalEntry(debtorAccount, "50.00", creditorAccount, "50.00");
+    journalEntryOne.setTransactionDate(OffsetDateTime.of(1982, 6, 24, 1, 0, 0, 0, ZoneOffset.UTC)
+        .format(DateTimeFormatter.ISO_ZONED_DATE_TIME));
+    this.testSubject.createJournalEntry(journalEntryOne);
+    this.eventRecorder.wait(EventConstants.RELEASE_JOURNAL_ENTRY, journalEntryOne.getTransactionIdentifier());
+
+    final JournalEntry journalEntryTwo =
+        JournalEntryGenerator.createRandomJournalEntry(debtorAccount, "30.00", creditorAccount, "30.00");
+    journalEntryTwo.setTransactionDate(OffsetDateTime.of(1982, 6, 26, 1, 0, 0, 0, ZoneOffset.UTC)
+        .format(DateTimeFormatter.ISO_ZONED_DATE_TIME));
+    this.testSubject.createJournalEntry(journalEntryTwo);
+    this.eventRecorder.wait(EventConstants.RELEASE_JOURNAL_ENTRY, journalEntryTwo.getTransactionIdentifier());
+
+    Assert.assertEquals(0.00D,
+        this.testSubject.fetchAccountBalance(debtorAccount.getIdentifier(), "1982-06-23Z").getBalance(), 0.0D);
+    Assert.assertEquals(50.00D,
+        this.testSubject.fetchAccountBalance(debtorAccount.getIdentifier(), "1982-06-25Z").getBalance(), 0.0D);
+    Assert.assertEquals(80.00D,
+        this.testSubject.fetchAccountBalance(debtorAccount.getIdentifier(), "1982-06-26Z").getBalance(), 0.0D);
+    Assert.assertEquals(80.00D,
+        this.testSubject.fetchAccountBalance(debtorAccount.getIdentifier(), null).getBalance(), 0.0D);
+
+    final AccountStatementBalance accountStatementBalance = this.testSubject.fetchAccountStatementBalance(
+        debtorAccount.getIdentifier(),
+        new DateRange(LocalDate.of(1982, 6, 25), LocalDate.of(1982, 6, 26)).toString());
+    Assert.assertEquals(50.00D, accountStatementBalance.getOpeningBalance(), 0.0D);
+    Assert.assertEquals(80.00D, accountStatementBalance.getClosingBalance(), 0.0D);
+  }
+
+  @Test
+  public void shouldExportAccountEntries() throws Exception {
+    final Ledger ledger = LedgerGenerator.createRandomLedger();
+    this.testSubject.createLedger(ledger);
+    this.eventRecorder.wait(EventConstants.POST_LEDGER, ledger.getIdentifier());
+
+    final Account debtorAccount = AccountGenerator.createRandomAccount(ledger.getIdentifier());
+    this.testSubject.createAccount(debtorAccount);
+    this.eventRecorder.wait(EventConstants.POST_ACCOUNT, debtorAccount.getIdentifier());
+
+    final Account creditorAccount = AccountGenerator.createRandomAccount(ledger.getIdentifier());
+    this.testSubject.createAccount(creditorAccount);
+    this.eventRecorder.wait(EventConstants.POST_ACCOUNT, creditorAccount.getIdentifier());
+
+    final JournalEntry journalEntryOne =
+        JournalEntryGenerator.createRandomJournalEntry(debtorAccount, "50.00", creditorAccount, "50.00");
+    this.testSubject.createJournalEntry(journalEntryOne);
+    this.eventRecorder.wait(EventConstants.RELEASE_JOURNAL_ENTRY, journalEntryOne.getTransactionIdentifier());
+
+    final JournalEntry journalEntryTwo =
+        JournalEntryGenerator.createRandomJournalEntry(debtorAccount, "30.00", creditorAccount, "30.00");
+    this.testSubject.createJournalEntry(journalEntryTwo);
+    this.eventRecorder.wait(EventConstants.RELEASE_JOURNAL_ENTRY, journalEntryTwo.getTransactionIdentifier());
+
+    final LocalDate today = LocalDate.now(Clock.systemUTC());
+    final String dateRange = new DateRange(today.minusDays(1L), today.plusDays(1L)).toString();
+
+    final List<String> csvLines = this.exportLines(debtorAccount.getIdentifier(), dateRange, "csv");
+    Assert.assertEquals(3, csvLines.size());
+    Assert.assertEquals("transactionDate,type,amount,balance,message", csvLines.get(0));
+    final String csvEntries = String.join("\n", csvLines.subList(1, csvLines.size()));
+    Assert.assertTrue(csvEntries.contains(journalEntryOne.getMessage()));
+    Assert.assertTrue(csvEntries.contains(journalEntryTwo.getMessage()));
+
+    final List<String> jsonLines = this.exportLines(debtorAccount.getIdentifier(), dateRange, null);
+    Assert.assertEquals(2, jsonLines.size());
+    jsonLines.forEach(jsonLine -> Assert.assertTrue(jsonLine.startsWith("{")));
+
+    try (final Response response =
+             this.testSubject.exportAccountEntries(debtorAccount.getIdentifier(), dateRange, null, "xml")) {
+      Assert.assertEquals(400, response.status());
+    }
+    try (final Response response =
+             this.testSubject.exportAccountEntries(RandomStringUtils.randomAlphanumeric(8), dateRange, null, null)) {
+      Assert.assertEquals(404, response.status());
+    }
+  }
+
   @Test
   public void shouldCloseAccount() throws Exception {
     final Ledger randomLedger = LedgerGenerator.createRandomLedger();
@@ -665,4 +824,14 @@ public class TestAccount extends AbstractAccountingTest {
     Assert.assertEquals("alt-account-10001", account.getIdentifier());
     Assert.assertEquals("08154711", account.getAlternativeAccountNumber());
   }
+
+  private List<String> exportLines(final String identifier, final String dateRange, final String format)
+      throws Exception {
+    try (final Response response = this.testSubject.exportAccountEntries(identifier, dateRange, null, format)) {
+      Assert.assertEquals(200, response.status());
+      final BufferedReader reader =
+          new BufferedReader(new InputStreamReader(response.body().asInputStream(), StandardCharsets.UTF_8));
+      return reader.lines().collect(Collectors.toList());
+    }
+  }
 }
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting;
+
+import org.apache.fineract.cn.accounting.service.internal.repository.AccountEntryPartitions;
+import org.apache.fineract.cn.accounting.service.internal.repository.ProvisionedTenants;
+import org.apache.fineract.cn.accounting.service.internal.service.AccountEntryPartitionMaintainer;
+import java.time.Clock;
+import java.time.YearMonth;
+import java.util.SortedSet;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+public class TestAccountEntryPartitions extends AbstractAccountingTest {
+
+  @Autowired
+  private ProvisionedTenants provisionedTenants;
+  @Autowired
+  private AccountEntryPartitions accountEntryPartitions;
+  @Autowired
+  private AccountEntryPartitionMaintainer accountEntryPartitionMaintainer;
+
+  @Test
+  public void shouldMaintainPartitionsOfProvisionedTenant() throws Exception {
+    final String tenantIdentifier = TenantContextHolder.checkedGetIdentifier();
+    Assert.assertTrue(this.provisionedTenants.findAll().contains(tenantIdentifier));
+    Assert.assertTrue(this.accountEntryPartitions.isPartitioned());
+
+    // nothing has been booked for the tenant, the scheduled pass has to visit it anyway
+    try {
+      this.accountEntryPartitionMaintainer.maintainPartitions();
+    } finally {
+      TenantContextHolder.setIdentifier(tenantIdentifier);
+    }
+
+    final SortedSet<YearMonth> months = this.accountEntryPartitions.findMonths();
+    final YearMonth currentMonth = YearMonth.now(Clock.systemUTC());
+    Assert.assertTrue(months.contains(currentMonth));
+    Assert.assertTrue(months.contains(currentMonth.plusMonths(2L)));
+
+    try {
+      Assert.assertEquals(0, this.accountEntryPartitionMaintainer.maintain(tenantIdentifier));
+    } finally {
+      TenantContextHolder.setIdentifier(tenantIdentifier);
+    }
+  }
+}
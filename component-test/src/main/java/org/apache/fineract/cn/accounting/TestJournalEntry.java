@@ -19,12 +19,19 @@
 package org.apache.fineract.cn.accounting;
 
 import org.apache.fineract.cn.accounting.api.v1.EventConstants;
+import org.apache.fineract.cn.accounting.api.v1.client.BookingCapacityExceededException;
 import org.apache.fineract.cn.accounting.api.v1.client.JournalEntryAlreadyExistsException;
 import org.apache.fineract.cn.accounting.api.v1.client.JournalEntryValidationException;
 import org.apache.fineract.cn.accounting.api.v1.domain.Account;
+import org.apache.fineract.cn.accounting.api.v1.domain.AccountEntry;
 import org.apache.fineract.cn.accounting.api.v1.domain.AccountEntryPage;
 import org.apache.fineract.cn.accounting.api.v1.domain.AccountType;
+import org.apache.fineract.cn.accounting.api.v1.domain.Debtor;
 import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntry;
+import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntryAggregate;
+import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntryPage;
+import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntryResult;
+import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntrySummary;
 import org.apache.fineract.cn.accounting.api.v1.domain.Ledger;
 import org.apache.fineract.cn.accounting.util.AccountGenerator;
 import org.apache.fineract.cn.accounting.util.JournalEntryGenerator;
@@ -35,7 +42,14 @@ import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 import org.apache.commons.lang.RandomStringUtils;
 import org.apache.fineract.cn.lang.DateConverter;
 import org.junit.Assert;
@@ -88,6 +102,183 @@ public class TestJournalEntry extends AbstractAccountingTest {
     Assert.assertEquals(150.0d, modifiedCreditorAccount.getBalance(), 0.0D);
   }
 
+  @Test
+  public void shouldCreateJournalEntries() throws Exception {
+    final Ledger assetLedger = LedgerGenerator.createRandomLedger();
+    assetLedger.setType(AccountType.ASSET.name());
+    this.testSubject.createLedger(assetLedger);
+    this.eventRecorder.wait(EventConstants.POST_LEDGER, assetLedger.getIdentifier());
+
+    final Account debtorAccount = AccountGenerator.createRandomAccount(assetLedger.getIdentifier());
+    debtorAccount.setType(AccountType.ASSET.name());
+    debtorAccount.setBalance(100.00D);
+    this.testSubject.createAccount(debtorAccount);
+    this.eventRecorder.wait(EventConstants.POST_ACCOUNT, debtorAccount.getIdentifier());
+
+    final Ledger liabilityLedger = LedgerGenerator.createRandomLedger();
+    liabilityLedger.setType(AccountType.LIABILITY.name());
+    this.testSubject.createLedger(liabilityLedger);
+    this.eventRecorder.wait(EventConstants.POST_LEDGER, liabilityLedger.getIdentifier());
+
+    final Account creditorAccount = AccountGenerator.createRandomAccount(liabilityLedger.getIdentifier());
+    creditorAccount.setType(AccountType.LIABILITY.name());
+    creditorAccount.setBalance(100.00D);
+    this.testSubject.createAccount(creditorAccount);
+    this.eventRecorder.wait(EventConstants.POST_ACCOUNT, creditorAccount.getIdentifier());
+
+    final JournalEntry journalEntryOne = JournalEntryGenerator.createRandomJournalEntry(debtorAccount, "50.00",
+        creditorAccount, "50.00");
+    final JournalEntry journalEntryTwo = JournalEntryGenerator.createRandomJournalEntry(debtorAccount, "25.00",
+        creditorAccount, "25.00");
+    final JournalEntry unbalancedJournalEntry = JournalEntryGenerator.createRandomJournalEntry(debtorAccount, "50.00",
+        creditorAccount, "25.00");
+
+    final List<JournalEntryResult> results =
+        this.testSubject.createJournalEntries(Arrays.asList(journalEntryOne, unbalancedJournalEntry, journalEntryTwo));
+    Assert.assertEquals(3, results.size());
+    Assert.assertEquals(JournalEntryResult.State.ACCEPTED.name(), results.get(0).getState());
+    Assert.assertEquals(JournalEntryResult.State.REJECTED.name(), results.get(1).getState());
+    Assert.assertNotNull(results.get(1).getMessage());
+    Assert.assertEquals(JournalEntryResult.State.ACCEPTED.name(), results.get(2).getState());
+
+    final List<String> acceptedTransactionIdentifiers =
+        Arrays.asList(journalEntryOne.getTransactionIdentifier(), journalEntryTwo.getTransactionIdentifier());
+    this.eventRecorder.wait(EventConstants.POST_JOURNAL_ENTRIES, acceptedTransactionIdentifiers);
+    this.eventRecorder.wait(EventConstants.RELEASE_JOURNAL_ENTRIES, acceptedTransactionIdentifiers);
+
+    final JournalEntry foundJournalEntry = this.testSubject.findJournalEntry(journalEntryTwo.getTransactionIdentifier());
+    Assert.assertNotNull(foundJournalEntry);
+    Assert.assertEquals(JournalEntry.State.PROCESSED.name(), foundJournalEntry.getState());
+
+    final Account modifiedDebtorAccount = this.testSubject.findAccount(debtorAccount.getIdentifier());
+    Assert.assertEquals(175.0D, modifiedDebtorAccount.getBalance(), 0.0D);
+
+    final Account modifiedCreditorAccount = this.testSubject.findAccount(creditorAccount.getIdentifier());
+    Assert.assertEquals(175.0D, modifiedCreditorAccount.getBalance(), 0.0D);
+  }
+
+  @Test
+  public void shouldKeepBalancesUnderConcurrentBookings() throws Exception {
+    final Ledger assetLedger = LedgerGenerator.createRandomLedger();
+    assetLedger.setType(AccountType.ASSET.name());
+    this.testSubject.createLedger(assetLedger);
+    this.eventRecorder.wait(EventConstants.POST_LEDGER, assetLedger.getIdentifier());
+
+    final Account debtorAccount = AccountGenerator.createRandomAccount(assetLedger.getIdentifier());
+    debtorAccount.setType(AccountType.ASSET.name());
+    debtorAccount.setBalance(100.00D);
+    this.testSubject.createAccount(debtorAccount);
+    this.eventRecorder.wait(EventConstants.POST_ACCOUNT, debtorAccount.getIdentifier());
+
+    final Ledger liabilityLedger = LedgerGenerator.createRandomLedger();
+    liabilityLedger.setType(AccountType.LIABILITY.name());
+    this.testSubject.createLedger(liabilityLedger);
+    this.eventRecorder.wait(EventConstants.POST_LEDGER, liabilityLedger.getIdentifier());
+
+    final Account creditorAccount = AccountGenerator.createRandomAccount(liabilityLedger.getIdentifier());
+    creditorAccount.setType(AccountType.LIABILITY.name());
+    creditorAccount.setBalance(100.00D);
+    this.testSubject.createAccount(creditorAccount);
+    this.eventRecorder.wait(EventConstants.POST_ACCOUNT, creditorAccount.getIdentifier());
+
+    final int numberOfThreads = 4;
+    final int numberOfJournalEntries = 10;
+    final List<JournalEntry> journalEntries = new ArrayList<>(numberOfThreads * numberOfJournalEntries);
+    for (int i = 0; i < numberOfThreads * numberOfJournalEntries; i++) {
+      journalEntries.add(JournalEntryGenerator.createRandomJournalEntry(debtorAccount, "10.00",
+          creditorAccount, "10.00"));
+    }
+
+    final ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads);
+    final List<Future<?>> futures = new ArrayList<>(numberOfThreads);
+    for (int t = 0; t < numberOfThreads; t++) {
+      final List<JournalEntry> journalEntriesOfThread =
+          journalEntries.subList(t * numberOfJournalEntries, (t + 1) * numberOfJournalEntries);
+      futures.add(executorService.submit(() -> journalEntriesOfThread.forEach(journalEntry -> {
+        while (true) {
+          try {
+            this.testSubject.createJournalEntry(journalEntry);
+            return;
+          } catch (final BookingCapacityExceededException ex) {
+            // admissions are bounded, try again once other bookings are done
+          }
+        }
+      })));
+    }
+    for (final Future<?> future : futures) {
+      future.get();
+    }
+    executorService.shutdown();
+
+    for (final JournalEntry journalEntry : journalEntries) {
+      this.eventRecorder.wait(EventConstants.RELEASE_JOURNAL_ENTRY, journalEntry.getTransactionIdentifier());
+    }
+
+    final Account modifiedDebtorAccount = this.testSubject.findAccount(debtorAccount.getIdentifier());
+    Assert.assertEquals(500.0D, modifiedDebtorAccount.getBalance(), 0.0D);
+
+    final Account modifiedCreditorAccount = this.testSubject.findAccount(creditorAccount.getIdentifier());
+    Assert.assertEquals(500.0D, modifiedCreditorAccount.getBalance(), 0.0D);
+
+    // every account entry carries the balance right after its own posting, no two postings saw the same balance
+    final LocalDate today = LocalDate.now(ZoneOffset.UTC);
+    final String dateRange = MessageFormat.format("{0}..{1}",
+        DateConverter.toIsoString(today.minusDays(1L)),
+        DateConverter.toIsoString(today.plusDays(1L)));
+    final List<Double> runningBalances = this.testSubject
+        .fetchAccountEntries(debtorAccount.getIdentifier(), dateRange, null, 0, 100, null, null)
+        .getAccountEntries()
+        .stream()
+        .map(AccountEntry::getBalance)
+        .sorted()
+        .collect(Collectors.toList());
+    Assert.assertEquals(numberOfThreads * numberOfJournalEntries, runningBalances.size());
+    for (int i = 0; i < runningBalances.size(); i++) {
+      Assert.assertEquals(110.0D + (i * 10.0D), runningBalances.get(i), 0.0D);
+    }
+  }
+
+  @Test
+  public void shouldCreateJournalEntryWithFractionalAmounts() throws Exception {
+    final Ledger assetLedger = LedgerGenerator.createRandomLedger();
+    assetLedger.setType(AccountType.ASSET.name());
+    this.testSubject.createLedger(assetLedger);
+    this.eventRecorder.wait(EventConstants.POST_LEDGER, assetLedger.getIdentifier());
+
+    final Account debtorAccount = AccountGenerator.createRandomAccount(assetLedger.getIdentifier());
+    debtorAccount.setType(AccountType.ASSET.name());
+    debtorAccount.setBalance(100.00D);
+    this.testSubject.createAccount(debtorAccount);
+    this.eventRecorder.wait(EventConstants.POST_ACCOUNT, debtorAccount.getIdentifier());
+
+    final Ledger liabilityLedger = LedgerGenerator.createRandomLedger();
+    liabilityLedger.setType(AccountType.LIABILITY.name());
+    this.testSubject.createLedger(liabilityLedger);
+    this.eventRecorder.wait(EventConstants.POST_LEDGER, liabilityLedger.getIdentifier());
+
+    final Account creditorAccount = AccountGenerator.createRandomAccount(liabilityLedger.getIdentifier());
+    creditorAccount.setType(AccountType.LIABILITY.name());
+    creditorAccount.setBalance(100.00D);
+    this.testSubject.createAccount(creditorAccount);
+    this.eventRecorder.wait(EventConstants.POST_ACCOUNT, creditorAccount.getIdentifier());
+
+    // 0.1 + 0.2 does not equal 0.3 in binary floating point
+    final JournalEntry journalEntry = JournalEntryGenerator.createRandomJournalEntry(debtorAccount, "0.1",
+        creditorAccount, "0.3");
+    journalEntry.setDebtors(new HashSet<>(Arrays.asList(
+        new Debtor(debtorAccount.getIdentifier(), "0.1"),
+        new Debtor(debtorAccount.getIdentifier(), "0.2"))));
+    this.testSubject.createJournalEntry(journalEntry);
+    this.eventRecorder.wait(EventConstants.POST_JOURNAL_ENTRY, journalEntry.getTransactionIdentifier());
+    this.eventRecorder.wait(EventConstants.RELEASE_JOURNAL_ENTRY, journalEntry.getTransactionIdentifier());
+
+    final Account modifiedDebtorAccount = this.testSubject.findAccount(debtorAccount.getIdentifier());
+    Assert.assertEquals(100.3D, modifiedDebtorAccount.getBalance(), 0.0D);
+
+    final Account modifiedCreditorAccount = this.testSubject.findAccount(creditorAccount.getIdentifier());
+    Assert.assertEquals(100.3D, modifiedCreditorAccount.getBalance(), 0.0D);
+  }
+
   @Test
   public void shouldFetchJournalEntriesWithDateRange() throws Exception{
     final Ledger assetLedger = LedgerGenerator.createRandomLedger();
@@ -198,6 +389,182 @@ public class TestJournalEntry extends AbstractAccountingTest {
     checkAccountEntries(debtorAccount, creditorAccount, journalEntryOne, journalEntryTwo, dateRange);
   }
 
+  @Test
+  public void shouldFetchJournalEntryPagesWithDateRangeAndAccount() throws Exception{
+    final Ledger assetLedger = LedgerGenerator.createRandomLedger();
+    assetLedger.setType(AccountType.ASSET.name());
+    this.testSubject.createLedger(assetLedger);
+    this.eventRecorder.wait(EventConstants.POST_LEDGER, assetLedger.getIdentifier());
+
+    final Account debtorAccount = AccountGenerator.createRandomAccount(assetLedger.getIdentifier());
+    debtorAccount.setType(AccountType.ASSET.name());
+    debtorAccount.setBalance(100.00D);
+    this.testSubject.createAccount(debtorAccount);
+    this.eventRecorder.wait(EventConstants.POST_ACCOUNT, debtorAccount.getIdentifier());
+
+    final Ledger liabilityLedger = LedgerGenerator.createRandomLedger();
+    liabilityLedger.setType(AccountType.LIABILITY.name());
+    this.testSubject.createLedger(liabilityLedger);
+    this.eventRecorder.wait(EventConstants.POST_LEDGER, liabilityLedger.getIdentifier());
+
+    final Account creditorAccount = AccountGenerator.createRandomAccount(liabilityLedger.getIdentifier());
+    creditorAccount.setType(AccountType.LIABILITY.name());
+    creditorAccount.setBalance(100.00D);
+    this.testSubject.createAccount(creditorAccount);
+    this.eventRecorder.wait(EventConstants.POST_ACCOUNT, creditorAccount.getIdentifier());
+
+    final HashSet<String> transactionIdentifiers = new HashSet<>();
+    for (int day = 24; day <= 26; day++) {
+      final JournalEntry journalEntry = JournalEntryGenerator.createRandomJournalEntry(debtorAccount, "10.00",
+          creditorAccount, "10.00");
+      final OffsetDateTime transactionDate = OffsetDateTime.of(1982, 6, day, 1, 0, 0, 0, ZoneOffset.UTC);
+      journalEntry.setTransactionDate(transactionDate.format(DateTimeFormatter.ISO_ZONED_DATE_TIME));
+
+      this.testSubject.createJournalEntry(journalEntry);
+      this.eventRecorder.wait(EventConstants.POST_JOURNAL_ENTRY, journalEntry.getTransactionIdentifier());
+      this.eventRecorder.wait(EventConstants.RELEASE_JOURNAL_ENTRY, journalEntry.getTransactionIdentifier());
+      transactionIdentifiers.add(journalEntry.getTransactionIdentifier());
+    }
+
+    final String dateRange = MessageFormat.format("{0}..{1}",
+        DateConverter.toIsoString(LocalDate.of(1982, 6, 24)),
+        DateConverter.toIsoString(LocalDate.of(1982, 6, 26)));
+
+    final JournalEntryPage firstPage =
+        this.testSubject.fetchJournalEntryPage(dateRange, debtorAccount.getIdentifier(), null, 2);
+    Assert.assertEquals(2, firstPage.getJournalEntries().size());
+    Assert.assertNotNull(firstPage.getNextPageToken());
+
+    final HashSet<String> fetchedTransactionIdentifiers = new HashSet<>();
+    JournalEntryPage page = firstPage;
+    while (true) {
+      page.getJournalEntries().forEach(journalEntry ->
+          fetchedTransactionIdentifiers.add(journalEntry.getTransactionIdentifier()));
+      if (page.getNextPageToken() == null) {
+        break;
+      }
+      page = this.testSubject.fetchJournalEntryPage(dateRange, debtorAccount.getIdentifier(), page.getNextPageToken(), 2);
+    }
+
+    Assert.assertEquals(transactionIdentifiers, fetchedTransactionIdentifiers);
+  }
+
+  @Test
+  public void shouldFetchJournalEntrySummariesWithDateRangeAndAccount() throws Exception {
+    final Ledger assetLedger = LedgerGenerator.createRandomLedger();
+    assetLedger.setType(AccountType.ASSET.name());
+    this.testSubject.createLedger(assetLedger);
+    this.eventRecorder.wait(EventConstants.POST_LEDGER, assetLedger.getIdentifier());
+
+    final Account debtorAccount = AccountGenerator.createRandomAccount(assetLedger.getIdentifier());
+    debtorAccount.setType(AccountType.ASSET.name());
+    debtorAccount.setBalance(100.00D);
+    this.testSubject.createAccount(debtorAccount);
+    this.eventRecorder.wait(EventConstants.POST_ACCOUNT, debtorAccount.getIdentifier());
+
+    final Ledger liabilityLedger = LedgerGenerator.createRandomLedger();
+    liabilityLedger.setType(AccountType.LIABILITY.name());
+    this.testSubject.createLedger(liabilityLedger);
+    this.eventRecorder.wait(EventConstants.POST_LEDGER, liabilityLedger.getIdentifier());
+
+    final Account creditorAccount = AccountGenerator.createRandomAccount(liabilityLedger.getIdentifier());
+    creditorAccount.setType(AccountType.LIABILITY.name());
+    creditorAccount.setBalance(100.00D);
+    this.testSubject.createAccount(creditorAccount);
+    this.eventRecorder.wait(EventConstants.POST_ACCOUNT, creditorAccount.getIdentifier());
+
+    final JournalEntry journalEntry = JournalEntryGenerator.createRandomJournalEntry(debtorAccount, "50.00",
+        creditorAccount, "50.00");
+    final OffsetDateTime transactionDate = OffsetDateTime.of(1982, 6, 25, 1, 0, 0, 0, ZoneOffset.UTC);
+    journalEntry.setTransactionDate(transactionDate.format(DateTimeFormatter.ISO_ZONED_DATE_TIME));
+
+    this.testSubject.createJournalEntry(journalEntry);
+    this.eventRecorder.wait(EventConstants.POST_JOURNAL_ENTRY, journalEntry.getTransactionIdentifier());
+    this.eventRecorder.wait(EventConstants.RELEASE_JOURNAL_ENTRY, journalEntry.getTransactionIdentifier());
+
+    final String dateRange = MessageFormat.format("{0}..{1}",
+        DateConverter.toIsoString(LocalDate.of(1982, 6, 24)),
+        DateConverter.toIsoString(LocalDate.of(1982, 6, 26)));
+
+    final List<JournalEntrySummary> journalEntrySummaries =
+        this.testSubject.fetchJournalEntrySummaries(dateRange, debtorAccount.getIdentifier());
+
+    Assert.assertEquals(1, journalEntrySummaries.size());
+    final JournalEntrySummary journalEntrySummary = journalEntrySummaries.get(0);
+    Assert.assertEquals(journalEntry.getTransactionIdentifier(), journalEntrySummary.getTransactionIdentifier());
+    Assert.assertEquals(JournalEntry.State.PROCESSED.name(), journalEntrySummary.getState());
+    Assert.assertEquals(0, new BigDecimal("50.00").compareTo(new BigDecimal(journalEntrySummary.getTotalAmount())));
+  }
+
+  @Test
+  public void shouldFetchJournalEntryAggregatesWithDateRangeAndAccount() throws Exception {
+    final Ledger assetLedger = LedgerGenerator.createRandomLedger();
+    assetLedger.setType(AccountType.ASSET.name());
+    this.testSubject.createLedger(assetLedger);
+    this.eventRecorder.wait(EventConstants.POST_LEDGER, assetLedger.getIdentifier());
+
+    final Account debtorAccount = AccountGenerator.createRandomAccount(assetLedger.getIdentifier());
+    debtorAccount.setType(AccountType.ASSET.name());
+    debtorAccount.setBalance(100.00D);
+    this.testSubject.createAccount(debtorAccount);
+    this.eventRecorder.wait(EventConstants.POST_ACCOUNT, debtorAccount.getIdentifier());
+
+    final Ledger liabilityLedger = LedgerGenerator.createRandomLedger();
+    liabilityLedger.setType(AccountType.LIABILITY.name());
+    this.testSubject.createLedger(liabilityLedger);
+    this.eventRecorder.wait(EventConstants.POST_LEDGER, liabilityLedger.getIdentifier());
+
+    final Account creditorAccount = AccountGenerator.createRandomAccount(liabilityLedger.getIdentifier());
+    creditorAccount.setType(AccountType.LIABILITY.name());
+    creditorAccount.setBalance(100.00D);
+    this.testSubject.createAccount(creditorAccount);
+    this.eventRecorder.wait(EventConstants.POST_ACCOUNT, creditorAccount.getIdentifier());
+
+    final String transactionType = RandomStringUtils.randomAlphabetic(4);
+    final OffsetDateTime transactionDate = OffsetDateTime.of(1983, 3, 15, 1, 0, 0, 0, ZoneOffset.UTC);
+    final JournalEntry firstJournalEntry = JournalEntryGenerator.createRandomJournalEntry(debtorAccount, "50.00",
+        creditorAccount, "50.00");
+    firstJournalEntry.setTransactionType(transactionType);
+    firstJournalEntry.setTransactionDate(transactionDate.format(DateTimeFormatter.ISO_ZONED_DATE_TIME));
+    final JournalEntry secondJournalEntry = JournalEntryGenerator.createRandomJournalEntry(debtorAccount, "30.00",
+        creditorAccount, "30.00");
+    secondJournalEntry.setTransactionType(transactionType);
+    secondJournalEntry.setTransactionDate(transactionDate.plusDays(1L).format(DateTimeFormatter.ISO_ZONED_DATE_TIME));
+
+    this.testSubject.createJournalEntry(firstJournalEntry);
+    this.eventRecorder.wait(EventConstants.RELEASE_JOURNAL_ENTRY, firstJournalEntry.getTransactionIdentifier());
+    this.testSubject.createJournalEntry(secondJournalEntry);
+    this.eventRecorder.wait(EventConstants.RELEASE_JOURNAL_ENTRY, secondJournalEntry.getTransactionIdentifier());
+
+    final String dateRange = MessageFormat.format("{0}..{1}",
+        DateConverter.toIsoString(LocalDate.of(1983, 3, 1)),
+        DateConverter.toIsoString(LocalDate.of(1983, 4, 30)));
+
+    final List<JournalEntryAggregate> journalEntryAggregates =
+        this.testSubject.fetchJournalEntryAggregates(dateRange, debtorAccount.getIdentifier());
+
+    Assert.assertEquals(1, journalEntryAggregates.size());
+    final JournalEntryAggregate journalEntryAggregate = journalEntryAggregates.get(0);
+    Assert.assertEquals(transactionType, journalEntryAggregate.getTransactionType());
+    Assert.assertEquals(Long.valueOf(2L), journalEntryAggregate.getEntryCount());
+    Assert.assertEquals(0, new BigDecimal("80.00").compareTo(new BigDecimal(journalEntryAggregate.getVolume())));
+
+    final boolean aggregatedForTenant = this.testSubject.fetchJournalEntryAggregates(dateRange, null)
+        .stream()
+        .anyMatch(aggregate -> transactionType.equals(aggregate.getTransactionType())
+            && aggregate.getEntryCount() == 2L);
+    Assert.assertTrue(aggregatedForTenant);
+  }
+
+  @Test(expected = JournalEntryValidationException.class)
+  public void shouldNotFetchJournalEntryPageWithInvalidToken() throws Exception {
+    final String dateRange = MessageFormat.format("{0}..{1}",
+        DateConverter.toIsoString(LocalDate.of(1982, 6, 24)),
+        DateConverter.toIsoString(LocalDate.of(1982, 6, 26)));
+
+    this.testSubject.fetchJournalEntryPage(dateRange, null, RandomStringUtils.randomAlphanumeric(16), 10);
+  }
+
   @Test
   public void shouldFetchJournalEntriesWithDateRangeAndAmount() throws Exception{
     final Ledger assetLedger = LedgerGenerator.createRandomLedger();
@@ -326,6 +693,53 @@ public class TestJournalEntry extends AbstractAccountingTest {
     this.testSubject.createJournalEntry(journalEntry);
   }
 
+  @Test(expected = JournalEntryValidationException.class)
+  public void shouldNotCreateJournalEntryWithTooManyFractionDigits() throws Exception {
+    final Ledger assetLedger = LedgerGenerator.createRandomLedger();
+    assetLedger.setType(AccountType.ASSET.name());
+    this.testSubject.createLedger(assetLedger);
+    this.eventRecorder.wait(EventConstants.POST_LEDGER, assetLedger.getIdentifier());
+
+    final Account debtorAccount = AccountGenerator.createRandomAccount(assetLedger.getIdentifier());
+    debtorAccount.setType(AccountType.ASSET.name());
+    debtorAccount.setBalance(100.00D);
+    this.testSubject.createAccount(debtorAccount);
+    this.eventRecorder.wait(EventConstants.POST_ACCOUNT, debtorAccount.getIdentifier());
+
+    final Ledger liabilityLedger = LedgerGenerator.createRandomLedger();
+    liabilityLedger.setType(AccountType.LIABILITY.name());
+    this.testSubject.createLedger(liabilityLedger);
+    this.eventRecorder.wait(EventConstants.POST_LEDGER, liabilityLedger.getIdentifier());
+
+    final Account creditorAccount = AccountGenerator.createRandomAccount(liabilityLedger.getIdentifier());
+    creditorAccount.setType(AccountType.LIABILITY.name());
+    creditorAccount.setBalance(100.00D);
+    this.testSubject.createAccount(creditorAccount);
+    this.eventRecorder.wait(EventConstants.POST_ACCOUNT, creditorAccount.getIdentifier());
+
+    final JournalEntry journalEntry = JournalEntryGenerator.createRandomJournalEntry(debtorAccount, "50.000001",
+        creditorAccount, "50.000001");
+    this.testSubject.createJournalEntry(journalEntry);
+  }
+
+  @Test(expected = JournalEntryValidationException.class)
+  public void shouldNotCreateJournalEntriesContainingNull() throws Exception {
+    final Ledger liabilityLedger = LedgerGenerator.createRandomLedger();
+    liabilityLedger.setType(AccountType.LIABILITY.name());
+    this.testSubject.createLedger(liabilityLedger);
+    this.eventRecorder.wait(EventConstants.POST_LEDGER, liabilityLedger.getIdentifier());
+
+    final Account creditorAccount = AccountGenerator.createRandomAccount(liabilityLedger.getIdentifier());
+    creditorAccount.setType(AccountType.LIABILITY.name());
+    creditorAccount.setBalance(100.00D);
+    this.testSubject.createAccount(creditorAccount);
+    this.eventRecorder.wait(EventConstants.POST_ACCOUNT, creditorAccount.getIdentifier());
+
+    final JournalEntry journalEntry = JournalEntryGenerator.createRandomJournalEntry(null, null,
+        creditorAccount, "50.00");
+    this.testSubject.createJournalEntries(Arrays.asList(journalEntry, null));
+  }
+
   @Test(expected = JournalEntryAlreadyExistsException.class)
   public void shouldNotCreateJournalAlreadyExists() throws Exception {
     final Ledger assetLedger = LedgerGenerator.createRandomLedger();
@@ -28,6 +28,7 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
     TestAccount.class,
+    TestAccountEntryPartitions.class,
     TestChartOfAccounts.class,
     TestFinancialCondition.class,
     TestIncomeStatement.class,
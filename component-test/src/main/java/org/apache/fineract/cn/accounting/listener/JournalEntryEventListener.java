@@ -20,6 +20,7 @@ package org.apache.fineract.cn.accounting.listener;
 
 import org.apache.fineract.cn.accounting.AbstractAccountingTest;
 import org.apache.fineract.cn.accounting.api.v1.EventConstants;
+import java.util.List;
 import org.apache.fineract.cn.lang.config.TenantHeaderFilter;
 import org.apache.fineract.cn.test.listener.EventRecorder;
 import org.slf4j.Logger;
@@ -65,4 +66,26 @@ public class JournalEntryEventListener {
     this.logger.debug("Journal entry processed");
     this.eventRecorder.event(tenant, EventConstants.RELEASE_JOURNAL_ENTRY, transactionIdentifier, String.class);
   }
+
+  @JmsListener(
+      destination = EventConstants.DESTINATION,
+      selector = EventConstants.SELECTOR_POST_JOURNAL_ENTRIES,
+      subscription = EventConstants.DESTINATION
+  )
+  public void onPostJournalEntries(@Header(TenantHeaderFilter.TENANT_HEADER) final String tenant,
+                                   final String transactionIdentifiers) {
+    this.logger.debug("Journal entries created");
+    this.eventRecorder.event(tenant, EventConstants.POST_JOURNAL_ENTRIES, transactionIdentifiers, List.class);
+  }
+
+  @JmsListener(
+      destination = EventConstants.DESTINATION,
+      selector = EventConstants.SELECTOR_RELEASE_JOURNAL_ENTRIES,
+      subscription = EventConstants.DESTINATION
+  )
+  public void onJournalEntriesProcessed(@Header(TenantHeaderFilter.TENANT_HEADER) final String tenant,
+                                        final String transactionIdentifiers) {
+    this.logger.debug("Journal entries processed");
+    this.eventRecorder.event(tenant, EventConstants.RELEASE_JOURNAL_ENTRIES, transactionIdentifiers, List.class);
+  }
 }
@@ -25,15 +25,23 @@ import org.apache.fineract.cn.command.config.EnableCommandProcessing;
 import org.apache.fineract.cn.customer.api.v1.client.CustomerManager;
 import org.apache.fineract.cn.lang.config.EnableServiceException;
 import org.apache.fineract.cn.lang.config.EnableTenantContext;
+import java.util.Map;
+import javax.jms.ConnectionFactory;
 import org.apache.fineract.cn.mariadb.config.EnableMariaDB;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.netflix.feign.EnableFeignClients;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jms.annotation.EnableJms;
+import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.servlet.config.annotation.PathMatchConfigurer;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
 
@@ -41,6 +49,8 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter
 @EnableAutoConfiguration
 @EnableDiscoveryClient
 @EnableAsync
+@EnableScheduling
+@EnableJms
 @EnableTenantContext
 @EnableMariaDB
 @EnableCassandra
@@ -67,6 +77,40 @@ public class AccountingServiceConfiguration extends WebMvcConfigurerAdapter {
     return LoggerFactory.getLogger(ServiceConstants.LOGGER_NAME);
   }
 
+  @Bean(name = ServiceConstants.EVENT_LISTENER_CONTAINER_FACTORY)
+  public DefaultJmsListenerContainerFactory eventListenerContainerFactory(final ConnectionFactory connectionFactory) {
+    final DefaultJmsListenerContainerFactory factory = new DefaultJmsListenerContainerFactory();
+    factory.setConnectionFactory(connectionFactory);
+    factory.setPubSubDomain(Boolean.TRUE);
+    return factory;
+  }
+
+  /**
+   * The entity manager factory is created by {@link EnableMariaDB}, so JDBC batching is switched on here, before
+   * the factory is initialized.
+   */
+  @Bean
+  public static BeanPostProcessor jdbcBatchingPostProcessor(final Environment environment) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessBeforeInitialization(final Object bean, final String beanName) {
+        if (bean instanceof LocalContainerEntityManagerFactoryBean) {
+          final Map<String, Object> jpaProperties = ((LocalContainerEntityManagerFactoryBean) bean).getJpaPropertyMap();
+          jpaProperties.put("hibernate.jdbc.batch_size", environment.getProperty("mariadb.batchSize", "50"));
+          jpaProperties.put("hibernate.jdbc.batch_versioned_data", "true");
+          jpaProperties.put("hibernate.order_inserts", "true");
+          jpaProperties.put("hibernate.order_updates", "true");
+        }
+        return bean;
+      }
+
+      @Override
+      public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+        return bean;
+      }
+    };
+  }
+
   @Override
   public void configurePathMatch(final PathMatchConfigurer configurer) {
     configurer.setUseSuffixPatternMatch(Boolean.FALSE);
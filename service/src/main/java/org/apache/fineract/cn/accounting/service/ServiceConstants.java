@@ -21,4 +21,5 @@ package org.apache.fineract.cn.accounting.service;
 public interface ServiceConstants {
 
   String LOGGER_NAME = "accounting-logger";
+  String EVENT_LISTENER_CONTAINER_FACTORY = "accounting-event-listener-container-factory";
 }
@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.booking;
+
+import org.apache.fineract.cn.accounting.service.ServiceConstants;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.annotation.PreDestroy;
+import org.apache.fineract.cn.lang.ServiceException;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs bookings on a fixed set of single-threaded partitions. Every account is owned by exactly one partition,
+ * so within this instance all balance updates of an account are applied one after the other by the same thread.
+ *
+ * Partitions do not serialize bookings across instances of the service. Correctness relies on the row lock the
+ * balance update takes on each account until its transaction commits: concurrent bookings of an account on other
+ * instances wait for it, and each reads the balance its own update left. The partitions only keep bookings of this
+ * instance from queueing on those locks and from deadlocking on each other.
+ *
+ * A booking touching accounts of several partitions acquires all of them in ascending order, parking the lower
+ * ones, and runs on the highest one. Acquiring in a fixed order keeps two overlapping bookings from waiting on
+ * each other.
+ *
+ * The number of bookings in flight is bounded, callers have to be admitted before they hand a booking over to the
+ * command gateway. Rejecting at admission time keeps a burst from tying up threads and database connections that
+ * would only wait for each other. By default as many bookings are admitted as the connection pool holds
+ * connections, and no partition queues more than that, so excess load is shed instead of queued.
+ */
+@Component
+@ManagedResource(objectName = "org.apache.fineract.cn.accounting:type=BookingExecutor")
+public class BookingExecutor {
+
+  private final Logger logger;
+  private final TransactionTemplate transactionTemplate;
+  private final Partition[] partitions;
+  private final int maxPending;
+  private final Semaphore admissions;
+  private final LongAdder rejected = new LongAdder();
+
+  @Autowired
+  public BookingExecutor(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
+                         final PlatformTransactionManager transactionManager,
+                         @Value("${booking.partitions:8}") final int numberOfPartitions,
+                         @Value("${booking.maxPending:0}") final int maxPending,
+                         @Value("${bonecp.maxConnectionsPerPartition:10}") final int maxConnectionsPerPartition,
+                         @Value("${bonecp.partitionCount:2}") final int connectionPartitionCount) {
+    super();
+    this.logger = logger;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.maxPending = maxPending > 0 ? maxPending : maxConnectionsPerPartition * connectionPartitionCount;
+    this.admissions = new Semaphore(this.maxPending);
+    this.partitions = new Partition[numberOfPartitions];
+    for (int i = 0; i < numberOfPartitions; i++) {
+      this.partitions[i] = new Partition(i, this.maxPending);
+    }
+  }
+
+  /**
+   * Admits a booking if there is capacity left. Every admitted booking must be {@link #release() released} once it
+   * has been processed or has failed.
+   *
+   * @return false if too many bookings are in flight and the caller should retry later
+   */
+  public boolean tryAdmit() {
+    if (this.admissions.tryAcquire()) {
+      return true;
+    }
+    this.rejected.increment();
+    return false;
+  }
+
+  public void release() {
+    this.admissions.release();
+  }
+
+  /**
+   * Runs the booking in its own transaction on the partition owning the given accounts and waits for it to finish.
+   */
+  public <T> T execute(final Collection<String> accountIdentifiers, final Supplier<T> booking) {
+    final String tenantIdentifier = TenantContextHolder.checkedGetIdentifier();
+
+    final SortedSet<Integer> partitionIndexes = new TreeSet<>();
+    accountIdentifiers.forEach(accountIdentifier -> partitionIndexes.add(this.partitionOf(accountIdentifier)));
+    if (partitionIndexes.isEmpty()) {
+      partitionIndexes.add(0);
+    }
+
+    final List<CountDownLatch> releases = new ArrayList<>(partitionIndexes.size() - 1);
+    try {
+      final int owningPartition = partitionIndexes.last();
+      for (final Integer partitionIndex : partitionIndexes.headSet(owningPartition)) {
+        final CountDownLatch acquired = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        releases.add(release);
+        // parked partitions are not metered, their latency is the one of the owning partition
+        this.partitions[partitionIndex].executor.submit(() -> {
+          acquired.countDown();
+          release.await();
+          return null;
+        });
+        acquired.await();
+      }
+
+      return this.await(this.partitions[owningPartition].submit(() -> {
+        TenantContextHolder.clear();
+        TenantContextHolder.setIdentifier(tenantIdentifier);
+        try {
+          return this.transactionTemplate.execute(status -> booking.get());
+        } finally {
+          TenantContextHolder.clear();
+        }
+      }));
+    } catch (final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw ServiceException.internalError("Booking was interrupted.");
+    } catch (final RejectedExecutionException ex) {
+      // admitted bookings always fit, only callers bypassing admission can be turned away here
+      throw ServiceException.internalError("Booking partition is saturated.");
+    } finally {
+      releases.forEach(CountDownLatch::countDown);
+    }
+  }
+
+  @ManagedAttribute(description = "Number of admitted bookings not yet processed.")
+  public int getPendingBookings() {
+    return this.maxPending - this.admissions.availablePermits();
+  }
+
+  @ManagedAttribute(description = "Number of bookings rejected because too many were in flight.")
+  public long getRejectedCount() {
+    return this.rejected.sum();
+  }
+
+  @ManagedAttribute(description = "Number of partitions currently processing a booking.")
+  public int getActiveWorkers() {
+    int activeWorkers = 0;
+    for (final Partition partition : this.partitions) {
+      activeWorkers += partition.executor.getActiveCount();
+    }
+    return activeWorkers;
+  }
+
+  @ManagedAttribute(description = "Number of bookings waiting per partition.")
+  public int[] getQueueDepths() {
+    final int[] queueDepths = new int[this.partitions.length];
+    for (int i = 0; i < this.partitions.length; i++) {
+      queueDepths[i] = this.partitions[i].executor.getQueue().size();
+    }
+    return queueDepths;
+  }
+
+  @ManagedAttribute(description = "Number of bookings processed per partition.")
+  public long[] getProcessedCounts() {
+    final long[] processedCounts = new long[this.partitions.length];
+    for (int i = 0; i < this.partitions.length; i++) {
+      processedCounts[i] = this.partitions[i].processed.sum();
+    }
+    return processedCounts;
+  }
+
+  @ManagedAttribute(description = "Average time in milliseconds from submitting to finishing a booking, per partition.")
+  public long[] getAverageLatencies() {
+    final long[] averageLatencies = new long[this.partitions.length];
+    for (int i = 0; i < this.partitions.length; i++) {
+      final long processed = this.partitions[i].processed.sum();
+      averageLatencies[i] = processed > 0L
+          ? TimeUnit.NANOSECONDS.toMillis(this.partitions[i].totalLatency.sum() / processed)
+          : 0L;
+    }
+    return averageLatencies;
+  }
+
+  @ManagedAttribute(description = "Maximum time in milliseconds from submitting to finishing a booking, per partition.")
+  public long[] getMaxLatencies() {
+    final long[] maxLatencies = new long[this.partitions.length];
+    for (int i = 0; i < this.partitions.length; i++) {
+      maxLatencies[i] = TimeUnit.NANOSECONDS.toMillis(this.partitions[i].maxLatency.get());
+    }
+    return maxLatencies;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    for (final Partition partition : this.partitions) {
+      partition.executor.shutdown();
+    }
+  }
+
+  private int partitionOf(final String accountIdentifier) {
+    return Math.floorMod(accountIdentifier.hashCode(), this.partitions.length);
+  }
+
+  private <T> T await(final Future<T> future) throws InterruptedException {
+    try {
+      return future.get();
+    } catch (final ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      if (ex.getCause() instanceof Error) {
+        throw (Error) ex.getCause();
+      }
+      this.logger.warn("Booking failed.", ex.getCause());
+      throw ServiceException.internalError("Booking failed.");
+    }
+  }
+
+  private static class Partition {
+
+    private final ThreadPoolExecutor executor;
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder totalLatency = new LongAdder();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    private Partition(final int index, final int queueCapacity) {
+      final AtomicInteger threadCount = new AtomicInteger();
+      this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(queueCapacity),
+          runnable -> {
+            final Thread thread = new Thread(runnable, "booking-partition-" + index + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+          });
+    }
+
+    private <T> Future<T> submit(final Callable<T> task) {
+      final long submittedAt = System.nanoTime();
+      return this.executor.submit(() -> {
+        try {
+          return task.call();
+        } finally {
+          final long latency = System.nanoTime() - submittedAt;
+          this.processed.increment();
+          this.totalLatency.add(latency);
+          this.maxLatency.accumulateAndGet(latency, Math::max);
+        }
+      });
+    }
+  }
+}
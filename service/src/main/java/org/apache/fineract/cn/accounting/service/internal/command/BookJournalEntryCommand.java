@@ -18,23 +18,25 @@
  */
 package org.apache.fineract.cn.accounting.service.internal.command;
 
+import org.apache.fineract.cn.accounting.service.internal.repository.JournalEntryEntity;
+
 public class BookJournalEntryCommand {
 
-  private final String transactionIdentifier;
+  private final JournalEntryEntity journalEntryEntity;
 
-  public BookJournalEntryCommand(final String transactionIdentifier) {
+  public BookJournalEntryCommand(final JournalEntryEntity journalEntryEntity) {
     super();
-    this.transactionIdentifier = transactionIdentifier;
+    this.journalEntryEntity = journalEntryEntity;
   }
 
-  public String transactionIdentifier() {
-    return this.transactionIdentifier;
+  public JournalEntryEntity journalEntryEntity() {
+    return this.journalEntryEntity;
   }
 
   @Override
   public String toString() {
     return "BookJournalEntryCommand{" +
-            "transactionIdentifier='" + transactionIdentifier + '\'' +
+            "transactionIdentifier='" + journalEntryEntity.getTransactionIdentifier() + '\'' +
             '}';
   }
 }
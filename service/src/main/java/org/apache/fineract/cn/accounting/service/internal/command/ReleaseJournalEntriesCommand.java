@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.command;
+
+import org.apache.fineract.cn.accounting.service.internal.repository.JournalEntryEntity;
+import java.util.List;
+
+public class ReleaseJournalEntriesCommand {
+
+  private final List<JournalEntryEntity> journalEntryEntities;
+
+  public ReleaseJournalEntriesCommand(final List<JournalEntryEntity> journalEntryEntities) {
+    super();
+    this.journalEntryEntities = journalEntryEntities;
+  }
+
+  public List<JournalEntryEntity> journalEntryEntities() {
+    return this.journalEntryEntities;
+  }
+
+  @Override
+  public String toString() {
+    return "ReleaseJournalEntriesCommand{" +
+            "journalEntryEntities=" + journalEntryEntities.size() +
+            '}';
+  }
+}
@@ -18,23 +18,25 @@
  */
 package org.apache.fineract.cn.accounting.service.internal.command;
 
+import org.apache.fineract.cn.accounting.service.internal.repository.JournalEntryEntity;
+
 public class ReleaseJournalEntryCommand {
 
-  private final String transactionIdentifier;
+  private final JournalEntryEntity journalEntryEntity;
 
-  public ReleaseJournalEntryCommand(final String transactionIdentifier) {
+  public ReleaseJournalEntryCommand(final JournalEntryEntity journalEntryEntity) {
     super();
-    this.transactionIdentifier = transactionIdentifier;
+    this.journalEntryEntity = journalEntryEntity;
   }
 
-  public String transactionIdentifier() {
-    return this.transactionIdentifier;
+  public JournalEntryEntity journalEntryEntity() {
+    return this.journalEntryEntity;
   }
 
   @Override
   public String toString() {
     return "ReleaseJournalEntryCommand{" +
-            "transactionIdentifier='" + transactionIdentifier + '\'' +
+            "transactionIdentifier='" + journalEntryEntity.getTransactionIdentifier() + '\'' +
             '}';
   }
 }
@@ -25,31 +25,47 @@ import org.apache.fineract.cn.accounting.api.v1.domain.AccountEntry;
 import org.apache.fineract.cn.accounting.api.v1.domain.AccountType;
 import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntry;
 import org.apache.fineract.cn.accounting.service.ServiceConstants;
+import org.apache.fineract.cn.accounting.service.internal.booking.BookingExecutor;
+import org.apache.fineract.cn.accounting.service.internal.command.BookJournalEntriesCommand;
 import org.apache.fineract.cn.accounting.service.internal.command.BookJournalEntryCommand;
 import org.apache.fineract.cn.accounting.service.internal.command.CloseAccountCommand;
 import org.apache.fineract.cn.accounting.service.internal.command.CreateAccountCommand;
 import org.apache.fineract.cn.accounting.service.internal.command.DeleteAccountCommand;
+import org.apache.fineract.cn.accounting.service.internal.command.DiscardJournalEntriesCommand;
 import org.apache.fineract.cn.accounting.service.internal.command.LockAccountCommand;
 import org.apache.fineract.cn.accounting.service.internal.command.ModifyAccountCommand;
+import org.apache.fineract.cn.accounting.service.internal.command.ReleaseJournalEntriesCommand;
 import org.apache.fineract.cn.accounting.service.internal.command.ReleaseJournalEntryCommand;
 import org.apache.fineract.cn.accounting.service.internal.command.ReopenAccountCommand;
 import org.apache.fineract.cn.accounting.service.internal.command.UnlockAccountCommand;
+import org.apache.fineract.cn.accounting.service.internal.money.Money;
+import org.apache.fineract.cn.accounting.service.internal.repository.AccountDescriptor;
 import org.apache.fineract.cn.accounting.service.internal.repository.AccountEntity;
 import org.apache.fineract.cn.accounting.service.internal.repository.AccountEntryEntity;
 import org.apache.fineract.cn.accounting.service.internal.repository.AccountEntryRepository;
 import org.apache.fineract.cn.accounting.service.internal.repository.AccountRepository;
 import org.apache.fineract.cn.accounting.service.internal.repository.CommandEntity;
 import org.apache.fineract.cn.accounting.service.internal.repository.CommandRepository;
+import org.apache.fineract.cn.accounting.service.internal.repository.CreditorType;
+import org.apache.fineract.cn.accounting.service.internal.repository.DebtorType;
 import org.apache.fineract.cn.accounting.service.internal.repository.JournalEntryEntity;
-import org.apache.fineract.cn.accounting.service.internal.repository.JournalEntryRepository;
 import org.apache.fineract.cn.accounting.service.internal.repository.LedgerEntity;
 import org.apache.fineract.cn.accounting.service.internal.repository.LedgerRepository;
-import java.math.BigDecimal;
+import org.apache.fineract.cn.accounting.service.internal.service.AccountBalanceService;
+import org.apache.fineract.cn.accounting.service.internal.service.AccountDescriptorCache;
+import org.apache.fineract.cn.accounting.service.internal.service.LedgerTotalService;
 import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.apache.fineract.cn.api.util.UserContextHolder;
 import org.apache.fineract.cn.command.annotation.Aggregate;
 import org.apache.fineract.cn.command.annotation.CommandHandler;
@@ -72,8 +88,11 @@ public class AccountCommandHandler {
   private final AccountRepository accountRepository;
   private final AccountEntryRepository accountEntryRepository;
   private final LedgerRepository ledgerRepository;
-  private final JournalEntryRepository journalEntryRepository;
   private final CommandRepository commandRepository;
+  private final BookingExecutor bookingExecutor;
+  private final LedgerTotalService ledgerTotalService;
+  private final AccountDescriptorCache accountDescriptorCache;
+  private final AccountBalanceService accountBalanceService;
 
   @Autowired
   public AccountCommandHandler(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
@@ -81,16 +100,22 @@ public class AccountCommandHandler {
                                final AccountRepository accountRepository,
                                final AccountEntryRepository accountEntryRepository,
                                final LedgerRepository ledgerRepository,
-                               final JournalEntryRepository journalEntryRepository,
-                               final CommandRepository commandRepository) {
+                               final CommandRepository commandRepository,
+                               final BookingExecutor bookingExecutor,
+                               final LedgerTotalService ledgerTotalService,
+                               final AccountDescriptorCache accountDescriptorCache,
+                               final AccountBalanceService accountBalanceService) {
     super();
     this.logger = logger;
     this.commandGateway = commandGateway;
     this.accountRepository = accountRepository;
     this.accountEntryRepository = accountEntryRepository;
     this.ledgerRepository = ledgerRepository;
-    this.journalEntryRepository = journalEntryRepository;
     this.commandRepository = commandRepository;
+    this.bookingExecutor = bookingExecutor;
+    this.ledgerTotalService = ledgerTotalService;
+    this.accountDescriptorCache = accountDescriptorCache;
+    this.accountBalanceService = accountBalanceService;
   }
 
   @Transactional
@@ -132,7 +157,7 @@ public class AccountCommandHandler {
       );
     }
 
-    accountEntity.setBalance(account.getBalance());
+    accountEntity.setBalance(account.getBalance() != null ? Money.valueOf(account.getBalance()) : 0L);
     accountEntity.setState(Account.State.OPEN.name());
     accountEntity.setAlternativeAccountNumber(account.getAlternativeAccountNumber());
     accountEntity.setCreatedBy(UserContextHolder.checkedGetUser());
@@ -148,9 +173,9 @@ public class AccountCommandHandler {
 
     this.ledgerRepository.save(ledger);
 
-    if (savedAccountEntity.getBalance() != null && savedAccountEntity.getBalance() != 0.00D) {
-      this.adjustLedgerTotals(
-          savedAccountEntity.getLedger().getIdentifier(), BigDecimal.valueOf(savedAccountEntity.getBalance()));
+    if (savedAccountEntity.getBalance() != 0L) {
+      this.ledgerTotalService.appendLedgerDeltas(Collections.singletonMap(
+          savedAccountEntity.getLedger().getIdentifier(), savedAccountEntity.getBalance()));
     }
 
     return account.getIdentifier();
@@ -218,6 +243,7 @@ public class AccountCommandHandler {
       this.ledgerRepository.save(ledger);
     }
 
+    this.accountDescriptorCache.evictAfterCommit(account.getIdentifier());
     return account.getIdentifier();
   }
 
@@ -243,6 +269,7 @@ public class AccountCommandHandler {
     commandEntity.setCreatedOn(now);
     this.commandRepository.save(commandEntity);
 
+    this.accountDescriptorCache.evictAfterCommit(identifier);
     return identifier;
   }
 
@@ -268,6 +295,7 @@ public class AccountCommandHandler {
     commandEntity.setCreatedOn(now);
     this.commandRepository.save(commandEntity);
 
+    this.accountDescriptorCache.evictAfterCommit(identifier);
     return identifier;
   }
 
@@ -293,6 +321,7 @@ public class AccountCommandHandler {
     commandEntity.setCreatedOn(now);
     this.commandRepository.save(commandEntity);
 
+    this.accountDescriptorCache.evictAfterCommit(identifier);
     return identifier;
   }
 
@@ -318,92 +347,80 @@ public class AccountCommandHandler {
     commandEntity.setCreatedOn(now);
     this.commandRepository.save(commandEntity);
 
+    this.accountDescriptorCache.evictAfterCommit(identifier);
     return identifier;
   }
 
-  @Transactional
   @CommandHandler(logStart = CommandLogLevel.NONE, logFinish = CommandLogLevel.NONE)
   @EventEmitter(selectorName = EventConstants.SELECTOR_NAME, selectorValue = EventConstants.RELEASE_JOURNAL_ENTRY)
   public String bookJournalEntry(final BookJournalEntryCommand bookJournalEntryCommand) {
-    final String transactionIdentifier = bookJournalEntryCommand.transactionIdentifier();
-
-    final Optional<JournalEntryEntity> optionalJournalEntry = this.journalEntryRepository.findJournalEntry(transactionIdentifier);
-    if (optionalJournalEntry.isPresent()) {
-      final JournalEntryEntity journalEntryEntity = optionalJournalEntry.get();
+    final JournalEntryEntity journalEntryEntity = bookJournalEntryCommand.journalEntryEntity();
+    try {
       if (!journalEntryEntity.getState().equals(JournalEntry.State.PENDING.name())) {
         return null;
       }
-      // process all debtors
-      journalEntryEntity.getDebtors()
-          .forEach(debtor -> {
-            final String accountNumber = debtor.getAccountNumber();
-            final AccountEntity accountEntity = this.accountRepository.findByIdentifier(accountNumber);
-            final AccountType accountType = AccountType.valueOf(accountEntity.getType());
-            final BigDecimal amount;
-            switch (accountType) {
-              case ASSET:
-              case EXPENSE:
-                accountEntity.setBalance(accountEntity.getBalance() + debtor.getAmount());
-                amount = BigDecimal.valueOf(debtor.getAmount());
-                break;
-              case LIABILITY:
-              case EQUITY:
-              case REVENUE:
-                accountEntity.setBalance(accountEntity.getBalance() - debtor.getAmount());
-                amount = BigDecimal.valueOf(debtor.getAmount()).negate();
-                break;
-              default:
-                amount = BigDecimal.ZERO;
-            }
-            final AccountEntity savedAccountEntity = this.accountRepository.save(accountEntity);
-            final AccountEntryEntity accountEntryEntity = new AccountEntryEntity();
-            accountEntryEntity.setType(AccountEntry.Type.DEBIT.name());
-            accountEntryEntity.setAccount(savedAccountEntity);
-            accountEntryEntity.setBalance(savedAccountEntity.getBalance());
-            accountEntryEntity.setAmount(debtor.getAmount());
-            accountEntryEntity.setMessage(journalEntryEntity.getMessage());
-            accountEntryEntity.setTransactionDate(journalEntryEntity.getTransactionDate());
-            this.accountEntryRepository.save(accountEntryEntity);
-            this.adjustLedgerTotals(savedAccountEntity.getLedger().getIdentifier(), amount);
-          });
-      // process all creditors
-      journalEntryEntity.getCreditors()
-          .forEach(creditor -> {
-            final String accountNumber = creditor.getAccountNumber();
-            final AccountEntity accountEntity = this.accountRepository.findByIdentifier(accountNumber);
-            final AccountType accountType = AccountType.valueOf(accountEntity.getType());
-            final BigDecimal amount;
-            switch (accountType) {
-              case ASSET:
-              case EXPENSE:
-                accountEntity.setBalance(accountEntity.getBalance() - creditor.getAmount());
-                amount = BigDecimal.valueOf(creditor.getAmount()).negate();
-                break;
-              case LIABILITY:
-              case EQUITY:
-              case REVENUE:
-                accountEntity.setBalance(accountEntity.getBalance() + creditor.getAmount());
-                amount = BigDecimal.valueOf(creditor.getAmount());
-                break;
-              default:
-                amount = BigDecimal.ZERO;
-            }
-            final AccountEntity savedAccountEntity = this.accountRepository.save(accountEntity);
-            final AccountEntryEntity accountEntryEntity = new AccountEntryEntity();
-            accountEntryEntity.setType(AccountEntry.Type.CREDIT.name());
-            accountEntryEntity.setAccount(savedAccountEntity);
-            accountEntryEntity.setBalance(savedAccountEntity.getBalance());
-            accountEntryEntity.setAmount(creditor.getAmount());
-            accountEntryEntity.setMessage(journalEntryEntity.getMessage());
-            accountEntryEntity.setTransactionDate(journalEntryEntity.getTransactionDate());
-            this.accountEntryRepository.save(accountEntryEntity);
-            this.adjustLedgerTotals(savedAccountEntity.getLedger().getIdentifier(), amount);
-          });
-      this.commandGateway.process(new ReleaseJournalEntryCommand(transactionIdentifier));
-      return transactionIdentifier;
-    } else {
-      return null;
+
+      final Set<String> accountNumbers = this.collectAccountNumbers(Collections.singletonList(journalEntryEntity));
+      final boolean booked = this.bookingExecutor.execute(accountNumbers, () -> {
+        final Map<String, AccountDescriptor> accounts = this.findBookableAccounts(accountNumbers);
+        if (!this.isBookable(journalEntryEntity, accounts)) {
+          return false;
+        }
+        final Map<String, Long> ledgerDeltas = new TreeMap<>();
+        this.bookJournalEntryEntity(journalEntryEntity, accounts, ledgerDeltas);
+        this.ledgerTotalService.appendLedgerDeltas(ledgerDeltas);
+        return true;
+      });
+      if (!booked) {
+        this.commandGateway.process(new DiscardJournalEntriesCommand(Collections.singletonList(journalEntryEntity)));
+        return null;
+      }
+    } finally {
+      this.bookingExecutor.release();
+    }
+    this.commandGateway.process(new ReleaseJournalEntryCommand(journalEntryEntity));
+    return journalEntryEntity.getTransactionIdentifier();
+  }
+
+  @CommandHandler(logStart = CommandLogLevel.NONE, logFinish = CommandLogLevel.NONE)
+  @EventEmitter(selectorName = EventConstants.SELECTOR_NAME, selectorValue = EventConstants.RELEASE_JOURNAL_ENTRIES)
+  public List<String> bookJournalEntries(final BookJournalEntriesCommand bookJournalEntriesCommand) {
+    final List<JournalEntryEntity> journalEntryEntities = bookJournalEntriesCommand.journalEntryEntities()
+        .stream()
+        .filter(journalEntryEntity -> journalEntryEntity.getState().equals(JournalEntry.State.PENDING.name()))
+        .collect(Collectors.toList());
+
+    final Set<String> accountNumbers = this.collectAccountNumbers(journalEntryEntities);
+    final List<JournalEntryEntity> bookedJournalEntryEntities = new ArrayList<>(journalEntryEntities.size());
+    final List<JournalEntryEntity> unbookableJournalEntryEntities = new ArrayList<>();
+    try {
+      this.bookingExecutor.execute(accountNumbers, () -> {
+        final Map<String, AccountDescriptor> accounts = this.findBookableAccounts(accountNumbers);
+
+        final Map<String, Long> ledgerDeltas = new TreeMap<>();
+        journalEntryEntities.forEach(journalEntryEntity -> {
+          if (this.isBookable(journalEntryEntity, accounts)) {
+            this.bookJournalEntryEntity(journalEntryEntity, accounts, ledgerDeltas);
+            bookedJournalEntryEntities.add(journalEntryEntity);
+          } else {
+            unbookableJournalEntryEntities.add(journalEntryEntity);
+          }
+        });
+        this.ledgerTotalService.appendLedgerDeltas(ledgerDeltas);
+        return null;
+      });
+    } finally {
+      this.bookingExecutor.release();
+    }
+
+    if (!unbookableJournalEntryEntities.isEmpty()) {
+      this.commandGateway.process(new DiscardJournalEntriesCommand(unbookableJournalEntryEntities));
     }
+    this.commandGateway.process(new ReleaseJournalEntriesCommand(bookedJournalEntryEntities));
+    return bookedJournalEntryEntities
+        .stream()
+        .map(JournalEntryEntity::getTransactionIdentifier)
+        .collect(Collectors.toList());
   }
 
   @Transactional
@@ -411,23 +428,130 @@ public class AccountCommandHandler {
   @EventEmitter(selectorName = EventConstants.SELECTOR_NAME, selectorValue = EventConstants.DELETE_ACCOUNT)
   public String deleteAccount(final DeleteAccountCommand deleteAccountCommand) {
     final String accountIdentifier = deleteAccountCommand.identifier();
-    final AccountEntity accountEntity = this.accountRepository.findByIdentifier(accountIdentifier);
+    // account entries have no foreign key since they are partitioned; locking the account first waits for bookings
+    // in flight, and bookings after the delete find no account row to update, so no entry is left without account
+    final AccountEntity accountEntity = this.accountRepository.findByIdentifierForUpdate(accountIdentifier);
+    if (this.accountEntryRepository.existsByAccount(accountEntity)) {
+      throw ServiceException.conflict("Account {0} has entries.", accountIdentifier);
+    }
 
     final List<CommandEntity> commandEntities = this.commandRepository.findByAccount(accountEntity);
     this.commandRepository.delete(commandEntities);
 
     this.accountRepository.delete(accountEntity);
+    this.accountDescriptorCache.evictAfterCommit(accountIdentifier);
     return accountIdentifier;
   }
 
-  @Transactional
-  public void adjustLedgerTotals(final String ledgerIdentifier, final BigDecimal amount) {
-    final LedgerEntity ledger = this.ledgerRepository.findByIdentifier(ledgerIdentifier);
-    final BigDecimal currentTotal = ledger.getTotalValue() != null ? ledger.getTotalValue() : BigDecimal.ZERO;
-    ledger.setTotalValue(currentTotal.add(amount));
-    final LedgerEntity savedLedger = this.ledgerRepository.save(ledger);
-    if (savedLedger.getParentLedger() != null) {
-      this.adjustLedgerTotals(savedLedger.getParentLedger().getIdentifier(), amount);
+  private Set<String> collectAccountNumbers(final List<JournalEntryEntity> journalEntryEntities) {
+    final Set<String> accountNumbers = new HashSet<>();
+    journalEntryEntities.forEach(journalEntryEntity -> {
+      journalEntryEntity.getDebtors().forEach(debtor -> accountNumbers.add(debtor.getAccountNumber()));
+      journalEntryEntity.getCreditors().forEach(creditor -> accountNumbers.add(creditor.getAccountNumber()));
+    });
+    return accountNumbers;
+  }
+
+  /**
+   * @return the open accounts among the given ones, accounts closed, locked or deleted since validation are left out;
+   * read from the database within the booking transaction, since other instances evict their descriptor caches only
+   * after the account events reach them
+   */
+  private Map<String, AccountDescriptor> findBookableAccounts(final Set<String> accountNumbers) {
+    return this.accountRepository.findDescriptorsByIdentifierIn(accountNumbers)
+        .stream()
+        .filter(accountDescriptor -> accountDescriptor.getState().equals(Account.State.OPEN.name()))
+        .collect(Collectors.toMap(AccountDescriptor::getIdentifier, Function.identity()));
+  }
+
+  private boolean isBookable(final JournalEntryEntity journalEntryEntity,
+                             final Map<String, AccountDescriptor> accounts) {
+    final List<String> unbookableAccountNumbers = Stream.concat(
+        journalEntryEntity.getDebtors().stream().map(DebtorType::getAccountNumber),
+        journalEntryEntity.getCreditors().stream().map(CreditorType::getAccountNumber))
+        .filter(accountNumber -> !accounts.containsKey(accountNumber))
+        .collect(Collectors.toList());
+    if (!unbookableAccountNumbers.isEmpty()) {
+      this.logger.warn("Journal entry {} is discarded, accounts {} are no longer open.",
+          journalEntryEntity.getTransactionIdentifier(), unbookableAccountNumbers);
+      return false;
+    }
+    return true;
+  }
+
+  private void bookJournalEntryEntity(final JournalEntryEntity journalEntryEntity,
+                                      final Map<String, AccountDescriptor> accounts,
+                                      final Map<String, Long> ledgerDeltas) {
+    // process all debtors
+    journalEntryEntity.getDebtors()
+        .forEach(debtor -> {
+          final AccountDescriptor accountDescriptor = accounts.get(debtor.getAccountNumber());
+          final AccountType accountType = AccountType.valueOf(accountDescriptor.getType());
+          final long entryAmount = debtor.minorUnits();
+          final long amount;
+          switch (accountType) {
+            case ASSET:
+            case EXPENSE:
+              amount = entryAmount;
+              break;
+            case LIABILITY:
+            case EQUITY:
+            case REVENUE:
+              amount = -entryAmount;
+              break;
+            default:
+              amount = 0L;
+          }
+          this.post(journalEntryEntity, accountDescriptor, AccountEntry.Type.DEBIT, entryAmount, amount, ledgerDeltas);
+        });
+    // process all creditors
+    journalEntryEntity.getCreditors()
+        .forEach(creditor -> {
+          final AccountDescriptor accountDescriptor = accounts.get(creditor.getAccountNumber());
+          final AccountType accountType = AccountType.valueOf(accountDescriptor.getType());
+          final long entryAmount = creditor.minorUnits();
+          final long amount;
+          switch (accountType) {
+            case ASSET:
+            case EXPENSE:
+              amount = -entryAmount;
+              break;
+            case LIABILITY:
+            case EQUITY:
+            case REVENUE:
+              amount = entryAmount;
+              break;
+            default:
+              amount = 0L;
+          }
+          this.post(journalEntryEntity, accountDescriptor, AccountEntry.Type.CREDIT, entryAmount, amount, ledgerDeltas);
+        });
+  }
+
+  /**
+   * Applies the amount in the database, so no concurrent change of the account can be overwritten, and records the
+   * account entry with the balance right after it. The account is never loaded, the entry only references it.
+   */
+  private void post(final JournalEntryEntity journalEntryEntity,
+                    final AccountDescriptor accountDescriptor,
+                    final AccountEntry.Type type,
+                    final long entryAmount,
+                    final long amount,
+                    final Map<String, Long> ledgerDeltas) {
+    if (this.accountRepository.addToBalance(accountDescriptor.getId(), amount) != 1) {
+      throw ServiceException.conflict("Account {0} was deleted while booking.", accountDescriptor.getIdentifier());
     }
+    final long balance = this.accountRepository.lastAddedBalance();
+
+    final AccountEntryEntity accountEntryEntity = new AccountEntryEntity();
+    accountEntryEntity.setType(type.name());
+    accountEntryEntity.setAccount(this.accountRepository.getOne(accountDescriptor.getId()));
+    accountEntryEntity.setBalance(balance);
+    accountEntryEntity.setAmount(entryAmount);
+    accountEntryEntity.setMessage(journalEntryEntity.getMessage());
+    accountEntryEntity.setTransactionDate(journalEntryEntity.getTransactionDate());
+    this.accountEntryRepository.save(accountEntryEntity);
+    this.accountBalanceService.applyPosting(accountDescriptor, journalEntryEntity.getTransactionDate(), amount);
+    ledgerDeltas.merge(accountDescriptor.getLedgerIdentifier(), amount, Long::sum);
   }
 }
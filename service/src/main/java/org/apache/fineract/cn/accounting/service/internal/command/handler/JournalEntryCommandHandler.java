@@ -22,16 +22,26 @@ import org.apache.fineract.cn.accounting.api.v1.EventConstants;
 import org.apache.fineract.cn.accounting.api.v1.domain.Creditor;
 import org.apache.fineract.cn.accounting.api.v1.domain.Debtor;
 import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntry;
+import org.apache.fineract.cn.accounting.service.ServiceConstants;
+import org.apache.fineract.cn.accounting.service.internal.booking.BookingExecutor;
+import org.apache.fineract.cn.accounting.service.internal.command.BookJournalEntriesCommand;
 import org.apache.fineract.cn.accounting.service.internal.command.BookJournalEntryCommand;
+import org.apache.fineract.cn.accounting.service.internal.command.CreateJournalEntriesCommand;
 import org.apache.fineract.cn.accounting.service.internal.command.CreateJournalEntryCommand;
+import org.apache.fineract.cn.accounting.service.internal.command.DiscardJournalEntriesCommand;
+import org.apache.fineract.cn.accounting.service.internal.command.ReleaseJournalEntriesCommand;
 import org.apache.fineract.cn.accounting.service.internal.command.ReleaseJournalEntryCommand;
+import org.apache.fineract.cn.accounting.service.internal.money.Money;
 import org.apache.fineract.cn.accounting.service.internal.repository.CreditorType;
 import org.apache.fineract.cn.accounting.service.internal.repository.DebtorType;
+import org.apache.fineract.cn.accounting.service.internal.repository.JournalBuckets;
 import org.apache.fineract.cn.accounting.service.internal.repository.JournalEntryEntity;
 import org.apache.fineract.cn.accounting.service.internal.repository.JournalEntryRepository;
 import java.time.Clock;
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.apache.fineract.cn.api.util.UserContextHolder;
@@ -41,35 +51,143 @@ import org.apache.fineract.cn.command.annotation.CommandLogLevel;
 import org.apache.fineract.cn.command.annotation.EventEmitter;
 import org.apache.fineract.cn.command.gateway.CommandGateway;
 import org.apache.fineract.cn.lang.DateConverter;
+import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.beans.factory.annotation.Qualifier;
 
 @SuppressWarnings("unused")
 @Aggregate
 public class JournalEntryCommandHandler {
 
+  private final Logger logger;
   private final CommandGateway commandGateway;
   private final JournalEntryRepository journalEntryRepository;
+  private final BookingExecutor bookingExecutor;
+  private final JournalBuckets journalBuckets;
 
   @Autowired
-  public JournalEntryCommandHandler(final CommandGateway commandGateway,
-                                    final JournalEntryRepository journalEntryRepository) {
+  public JournalEntryCommandHandler(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
+                                    final CommandGateway commandGateway,
+                                    final JournalEntryRepository journalEntryRepository,
+                                    final BookingExecutor bookingExecutor,
+                                    final JournalBuckets journalBuckets) {
+    this.logger = logger;
     this.commandGateway = commandGateway;
     this.journalEntryRepository = journalEntryRepository;
+    this.bookingExecutor = bookingExecutor;
+    this.journalBuckets = journalBuckets;
   }
 
-  @Transactional
+  // journal entries live in Cassandra only, no database transaction is needed to hold a connection for them
   @CommandHandler(logStart = CommandLogLevel.NONE, logFinish = CommandLogLevel.NONE)
   @EventEmitter(selectorName = EventConstants.SELECTOR_NAME, selectorValue = EventConstants.POST_JOURNAL_ENTRY)
   public String createJournalEntry(final CreateJournalEntryCommand createJournalEntryCommand) {
     final JournalEntry journalEntry = createJournalEntryCommand.journalEntry();
+    final List<JournalEntryEntity> journalEntryEntities = new ArrayList<>(1);
+    boolean handedOff = false;
+    try {
+      journalEntryEntities.add(this.createJournalEntryEntity(journalEntry));
+      this.journalEntryRepository.saveJournalEntry(journalEntryEntities.get(0)).join();
+      this.commandGateway.process(new BookJournalEntryCommand(journalEntryEntities.get(0)));
+      handedOff = true;
+    } finally {
+      // the booking has been admitted by the rest controller, the book command releases it once handed off
+      if (!handedOff) {
+        this.bookingExecutor.release();
+        this.discard(Collections.singletonList(journalEntry.getTransactionIdentifier()), journalEntryEntities);
+      }
+    }
+    return journalEntry.getTransactionIdentifier();
+  }
+
+  @CommandHandler(logStart = CommandLogLevel.NONE, logFinish = CommandLogLevel.NONE)
+  @EventEmitter(selectorName = EventConstants.SELECTOR_NAME, selectorValue = EventConstants.POST_JOURNAL_ENTRIES)
+  public List<String> createJournalEntries(final CreateJournalEntriesCommand createJournalEntriesCommand) {
+    final List<JournalEntryEntity> journalEntryEntities = new ArrayList<>(createJournalEntriesCommand.journalEntries().size());
+    boolean handedOff = false;
+    try {
+      createJournalEntriesCommand.journalEntries()
+          .forEach(journalEntry -> journalEntryEntities.add(this.createJournalEntryEntity(journalEntry)));
+      this.journalEntryRepository.saveJournalEntries(journalEntryEntities).join();
+      this.commandGateway.process(new BookJournalEntriesCommand(journalEntryEntities));
+      handedOff = true;
+    } finally {
+      if (!handedOff) {
+        this.bookingExecutor.release();
+        this.discard(createJournalEntriesCommand.journalEntries()
+            .stream()
+            .map(JournalEntry::getTransactionIdentifier)
+            .collect(Collectors.toList()), journalEntryEntities);
+      }
+    }
+    return journalEntryEntities
+        .stream()
+        .map(JournalEntryEntity::getTransactionIdentifier)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Removes journal entries that cannot be booked, e.g. because one of their accounts has been closed or deleted
+   * since they were validated, and releases their transaction identifiers.
+   */
+  @CommandHandler(logStart = CommandLogLevel.INFO, logFinish = CommandLogLevel.INFO)
+  public void discardJournalEntries(final DiscardJournalEntriesCommand discardJournalEntriesCommand) {
+    final List<JournalEntryEntity> journalEntryEntities = discardJournalEntriesCommand.journalEntryEntities();
+    this.discard(journalEntryEntities
+        .stream()
+        .map(JournalEntryEntity::getTransactionIdentifier)
+        .collect(Collectors.toList()), journalEntryEntities);
+  }
+
+  @CommandHandler(logStart = CommandLogLevel.NONE, logFinish = CommandLogLevel.NONE)
+  public void releaseJournalEntry(final ReleaseJournalEntryCommand releaseJournalEntryCommand) {
+    final JournalEntryEntity journalEntryEntity = releaseJournalEntryCommand.journalEntryEntity();
+    journalEntryEntity.setState(JournalEntry.State.PROCESSED.name());
+    this.process(Collections.singletonList(journalEntryEntity));
+  }
+
+  @CommandHandler(logStart = CommandLogLevel.NONE, logFinish = CommandLogLevel.NONE)
+  public void releaseJournalEntries(final ReleaseJournalEntriesCommand releaseJournalEntriesCommand) {
+    final List<JournalEntryEntity> journalEntryEntities = releaseJournalEntriesCommand.journalEntryEntities();
+    journalEntryEntities.forEach(journalEntryEntity ->
+        journalEntryEntity.setState(JournalEntry.State.PROCESSED.name()));
+    this.process(journalEntryEntities);
+  }
+
+  /**
+   * Counts only the entries whose state change to processed has been applied, a redelivered release must not count
+   * them twice. An entry is left out of the aggregates if the instance fails in between.
+   */
+  private void process(final List<JournalEntryEntity> journalEntryEntities) {
+    this.journalEntryRepository.processJournalEntries(journalEntryEntities)
+        .thenCompose(this.journalEntryRepository::aggregateJournalEntries)
+        .join();
+  }
+
+  /**
+   * Deletes whatever may have been written of the journal entries before their claims are released, so a new
+   * entry with the same transaction identifier never meets leftovers of the old one.
+   */
+  private void discard(final List<String> transactionIdentifiers, final List<JournalEntryEntity> journalEntryEntities) {
+    try {
+      this.journalEntryRepository.deleteJournalEntries(journalEntryEntities)
+          .thenCompose(ignored -> this.journalEntryRepository.releaseTransactionIdentifiers(transactionIdentifiers))
+          .join();
+    } catch (final RuntimeException ex) {
+      this.logger.warn("Could not discard journal entries {}.", transactionIdentifiers, ex);
+    }
+  }
+
+  private JournalEntryEntity createJournalEntryEntity(final JournalEntry journalEntry) {
     final Set<Debtor> debtors = journalEntry.getDebtors();
     final Set<DebtorType> debtorTypes = debtors
         .stream()
         .map(debtor -> {
           final DebtorType debtorType = new DebtorType();
           debtorType.setAccountNumber(debtor.getAccountNumber());
-          debtorType.setAmount(Double.valueOf(debtor.getAmount()));
+          final long amount = Money.parse(debtor.getAmount());
+          debtorType.setAmountMinor(amount);
+          debtorType.setAmount(Money.toDouble(amount));
           return debtorType;
         })
         .collect(Collectors.toSet());
@@ -79,38 +197,28 @@ public class JournalEntryCommandHandler {
         .map(creditor -> {
           final CreditorType creditorType = new CreditorType();
           creditorType.setAccountNumber(creditor.getAccountNumber());
-          creditorType.setAmount(Double.valueOf(creditor.getAmount()));
+          final long amount = Money.parse(creditor.getAmount());
+          creditorType.setAmountMinor(amount);
+          creditorType.setAmount(Money.toDouble(amount));
           return creditorType;
         })
         .collect(Collectors.toSet());
     final JournalEntryEntity journalEntryEntity = new JournalEntryEntity();
     journalEntryEntity.setTransactionIdentifier(journalEntry.getTransactionIdentifier());
     final LocalDateTime transactionDate = DateConverter.fromIsoString(journalEntry.getTransactionDate());
-    journalEntryEntity.setDateBucket(DateConverter.toIsoString(DateConverter.toLocalDate(transactionDate)));
+    journalEntryEntity.setDateBucket(
+        this.journalBuckets.bucketOf(DateConverter.toLocalDate(transactionDate), journalEntry.getTransactionIdentifier()));
     journalEntryEntity.setTransactionDate(transactionDate);
     journalEntryEntity.setTransactionType(journalEntry.getTransactionType());
     journalEntryEntity.setClerk(journalEntry.getClerk() != null ? journalEntry.getClerk() : UserContextHolder.checkedGetUser());
     journalEntryEntity.setNote(journalEntry.getNote());
     journalEntryEntity.setDebtors(debtorTypes);
     journalEntryEntity.setCreditors(creditorTypes);
+    journalEntryEntity.setTotalAmount(debtorTypes.stream().mapToLong(DebtorType::minorUnits).sum());
     journalEntryEntity.setMessage(journalEntry.getMessage());
     journalEntryEntity.setState(JournalEntry.State.PENDING.name());
     journalEntryEntity.setCreatedBy(UserContextHolder.checkedGetUser());
     journalEntryEntity.setCreatedOn(LocalDateTime.now(Clock.systemUTC()));
-    journalEntryRepository.saveJournalEntry(journalEntryEntity);
-    this.commandGateway.process(new BookJournalEntryCommand(journalEntry.getTransactionIdentifier()));
-    return journalEntry.getTransactionIdentifier();
-  }
-
-  @Transactional
-  @CommandHandler(logStart = CommandLogLevel.NONE, logFinish = CommandLogLevel.NONE)
-  public void releaseJournalEntry(final ReleaseJournalEntryCommand releaseJournalEntryCommand) {
-    final String transactionIdentifier = releaseJournalEntryCommand.transactionIdentifier();
-    final Optional<JournalEntryEntity> optionalJournalEntry = this.journalEntryRepository.findJournalEntry(transactionIdentifier);
-    if (optionalJournalEntry.isPresent()) {
-      final JournalEntryEntity journalEntryEntity = optionalJournalEntry.get();
-      journalEntryEntity.setState(JournalEntry.State.PROCESSED.name());
-      this.journalEntryRepository.saveJournalEntry(journalEntryEntity);
-    }
+    return journalEntryEntity;
   }
 }
@@ -19,14 +19,19 @@
 package org.apache.fineract.cn.accounting.service.internal.command.handler;
 
 import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.KeyspaceMetadata;
+import com.datastax.driver.core.Session;
 import com.datastax.driver.core.schemabuilder.SchemaBuilder;
 import org.apache.fineract.cn.accounting.api.v1.EventConstants;
 import org.apache.fineract.cn.accounting.service.ServiceConstants;
 import org.apache.fineract.cn.accounting.service.internal.command.InitializeServiceCommand;
 import org.apache.fineract.cn.accounting.service.internal.repository.AccountRepository;
-import java.math.BigDecimal;
+import org.apache.fineract.cn.accounting.service.internal.repository.JournalEntryRepository;
+import org.apache.fineract.cn.accounting.service.internal.service.LedgerTotalService;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import javax.sql.DataSource;
 import org.apache.fineract.cn.cassandra.core.CassandraJourney;
 import org.apache.fineract.cn.cassandra.core.CassandraJourneyFactory;
@@ -57,7 +62,8 @@ public class MigrationCommandHandler {
   private final CassandraSessionProvider cassandraSessionProvider;
   private final CassandraJourneyFactory cassandraJourneyFactory;
   private final AccountRepository accountRepository;
-  private final AccountCommandHandler accountCommandHandler;
+  private final LedgerTotalService ledgerTotalService;
+  private final JournalEntryRepository journalEntryRepository;
 
   @SuppressWarnings("SpringJavaAutowiringInspection")
   @Autowired
@@ -67,7 +73,8 @@ public class MigrationCommandHandler {
                                  final CassandraSessionProvider cassandraSessionProvider,
                                  final CassandraJourneyFactory cassandraJourneyFactory,
                                  final AccountRepository accountRepository,
-                                 final AccountCommandHandler accountCommandHandler) {
+                                 final LedgerTotalService ledgerTotalService,
+                                 final JournalEntryRepository journalEntryRepository) {
     super();
     this.logger = logger;
     this.dataSource = dataSource;
@@ -75,7 +82,8 @@ public class MigrationCommandHandler {
     this.cassandraSessionProvider = cassandraSessionProvider;
     this.cassandraJourneyFactory = cassandraJourneyFactory;
     this.accountRepository = accountRepository;
-    this.accountCommandHandler = accountCommandHandler;
+    this.ledgerTotalService = ledgerTotalService;
+    this.journalEntryRepository = journalEntryRepository;
   }
 
   @Transactional
@@ -155,10 +163,119 @@ public class MigrationCommandHandler {
         )
         .build();
 
+    // amounts are stored as minor units, the double amount is kept for entries written before
+    final CassandraJourneyRoute updateRouteVersion4 = CassandraJourneyRoute
+        .plan("4")
+        .addWaypoint("ALTER TYPE thoth_debtor ADD amount_minor bigint")
+        .addWaypoint("ALTER TYPE thoth_creditor ADD amount_minor bigint")
+        .build();
+
+    final CassandraJourneyRoute updateRouteVersion5 = CassandraJourneyRoute
+        .plan("5")
+        .addWaypoint(
+            SchemaBuilder
+                .createTable("thoth_journal_entries_by_account")
+                .addPartitionKey("account_number", DataType.text())
+                .addPartitionKey("month", DataType.text())
+                .addClusteringColumn("transaction_date", DataType.timestamp())
+                .addClusteringColumn("transaction_identifier", DataType.text())
+                .addColumn("date_bucket", DataType.text())
+                .buildInternal())
+        .build();
+
+    final CassandraJourneyRoute updateRouteVersion6 = CassandraJourneyRoute
+        .plan("6")
+        .addWaypoint(
+            SchemaBuilder
+                .alterTable("thoth_journal_entries")
+                .addColumn("total_amount").type(DataType.bigint())
+                .getQueryString()
+        )
+        .addWaypoint(
+            SchemaBuilder
+                .createTable("thoth_journal_entries_by_amount")
+                .addPartitionKey("date_bucket", DataType.text())
+                .addPartitionKey("total_amount", DataType.bigint())
+                .addClusteringColumn("transaction_identifier", DataType.text())
+                .buildInternal())
+        .build();
+
+    // days of high volume tenants can be split into shards, see JournalBuckets
+    final CassandraJourneyRoute updateRouteVersion7 = CassandraJourneyRoute
+        .plan("7")
+        .addWaypoint(
+            SchemaBuilder
+                .alterTable("thoth_journal_entry_lookup")
+                .addColumn("shard").type(DataType.cint())
+                .getQueryString()
+        )
+        .addWaypoint(
+            SchemaBuilder
+                .alterTable("thoth_journal_entries_by_amount")
+                .addColumn("shard").type(DataType.cint())
+                .getQueryString()
+        )
+        .build();
+
+    // counters per day, written when journal entries are processed
+    final CassandraJourneyRoute updateRouteVersion8 = CassandraJourneyRoute
+        .plan("8")
+        .addWaypoint(
+            SchemaBuilder
+                .createTable("thoth_journal_aggregates")
+                .addPartitionKey("month", DataType.text())
+                .addClusteringColumn("date_bucket", DataType.text())
+                .addClusteringColumn("transaction_type", DataType.text())
+                .addColumn("entry_count", DataType.counter())
+                .addColumn("volume", DataType.counter())
+                .buildInternal())
+        .addWaypoint(
+            SchemaBuilder
+                .createTable("thoth_journal_aggregates_by_account")
+                .addPartitionKey("account_number", DataType.text())
+                .addPartitionKey("month", DataType.text())
+                .addClusteringColumn("date_bucket", DataType.text())
+                .addClusteringColumn("transaction_type", DataType.text())
+                .addColumn("entry_count", DataType.counter())
+                .addColumn("volume", DataType.counter())
+                .buildInternal())
+        .build();
+
+    // existing journal entries need to be indexed if an index table is about to be created
+    final Session tenantSession = this.cassandraSessionProvider.getTenantSession();
+    final KeyspaceMetadata keyspaceMetadata =
+        tenantSession.getCluster().getMetadata().getKeyspace(tenantSession.getLoggedKeyspace());
+    final boolean shouldIndexJournalEntriesByAccount =
+        keyspaceMetadata == null || keyspaceMetadata.getTable("thoth_journal_entries_by_account") == null;
+    final boolean shouldIndexJournalEntriesByAmount =
+        keyspaceMetadata == null || keyspaceMetadata.getTable("thoth_journal_entries_by_amount") == null;
+    final boolean shouldAggregateJournalEntries =
+        keyspaceMetadata == null || keyspaceMetadata.getTable("thoth_journal_aggregates") == null;
+
     final CassandraJourney cassandraJourney = this.cassandraJourneyFactory.create(this.cassandraSessionProvider);
     cassandraJourney.start(initialRoute);
     cassandraJourney.start(updateRouteVersion2);
     cassandraJourney.start(updateRouteVersion3);
+    cassandraJourney.start(updateRouteVersion4);
+    cassandraJourney.start(updateRouteVersion5);
+    cassandraJourney.start(updateRouteVersion6);
+    cassandraJourney.start(updateRouteVersion7);
+    cassandraJourney.start(updateRouteVersion8);
+
+    if (shouldIndexJournalEntriesByAccount) {
+      this.logger.info("Start indexing journal entries by account ...");
+      this.journalEntryRepository.indexJournalEntriesByAccount();
+    }
+
+    if (shouldIndexJournalEntriesByAmount) {
+      this.logger.info("Start indexing journal entries by amount ...");
+      this.journalEntryRepository.indexJournalEntriesByAmount();
+    }
+
+    if (shouldAggregateJournalEntries) {
+      this.logger.info("Start aggregating journal entries ...");
+      this.journalEntryRepository.aggregateAllJournalEntries();
+    }
 
     if (shouldMigrateLedgerTotals) {
       this.migrateLedgerTotals();
@@ -170,9 +287,10 @@ public class MigrationCommandHandler {
   public void migrateLedgerTotals() {
     this.logger.info("Start ledger total migration ...");
 
-    this.accountRepository.findByBalanceIsNot(0.00D).forEach(accountEntity ->
-      this.accountCommandHandler.adjustLedgerTotals(accountEntity.getLedger().getIdentifier(),
-          BigDecimal.valueOf(accountEntity.getBalance()))
+    final Map<String, Long> ledgerDeltas = new TreeMap<>();
+    this.accountRepository.findByBalanceIsNot(0L).forEach(accountEntity ->
+      this.ledgerTotalService.collectLedgerDeltas(accountEntity.getLedger(), accountEntity.getBalance(), ledgerDeltas)
     );
+    this.ledgerTotalService.applyLedgerDeltas(ledgerDeltas);
   }
 }
\ No newline at end of file
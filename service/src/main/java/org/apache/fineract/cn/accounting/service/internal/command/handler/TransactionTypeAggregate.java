@@ -25,6 +25,7 @@ import org.apache.fineract.cn.accounting.service.internal.command.CreateTransact
 import org.apache.fineract.cn.accounting.service.internal.mapper.TransactionTypeMapper;
 import org.apache.fineract.cn.accounting.service.internal.repository.TransactionTypeEntity;
 import org.apache.fineract.cn.accounting.service.internal.repository.TransactionTypeRepository;
+import org.apache.fineract.cn.accounting.service.internal.service.TransactionTypeDictionary;
 import java.util.Optional;
 import org.apache.fineract.cn.command.annotation.Aggregate;
 import org.apache.fineract.cn.command.annotation.CommandHandler;
@@ -37,11 +38,14 @@ import org.springframework.transaction.annotation.Transactional;
 @Aggregate
 public class TransactionTypeAggregate {
   private final TransactionTypeRepository transactionTypeRepository;
+  private final TransactionTypeDictionary transactionTypeDictionary;
 
   @Autowired
-  public TransactionTypeAggregate(final TransactionTypeRepository transactionTypeRepository) {
+  public TransactionTypeAggregate(final TransactionTypeRepository transactionTypeRepository,
+                                  final TransactionTypeDictionary transactionTypeDictionary) {
     super();
     this.transactionTypeRepository = transactionTypeRepository;
+    this.transactionTypeDictionary = transactionTypeDictionary;
   }
 
   @Transactional
@@ -51,6 +55,7 @@ public class TransactionTypeAggregate {
     final TransactionType transactionType = createTransactionTypeCommand.transactionType();
 
     this.transactionTypeRepository.save(TransactionTypeMapper.map(transactionType));
+    this.transactionTypeDictionary.refreshAfterCommit();
 
     return transactionType.getCode();
   }
@@ -68,6 +73,7 @@ public class TransactionTypeAggregate {
       transactionTypeEntity.setName(transactionType.getName());
       transactionTypeEntity.setDescription(transactionType.getDescription());
       this.transactionTypeRepository.save(transactionTypeEntity);
+      this.transactionTypeDictionary.refreshAfterCommit();
     });
 
     return transactionType.getCode();
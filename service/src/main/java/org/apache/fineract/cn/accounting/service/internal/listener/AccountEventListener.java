@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.listener;
+
+import com.google.gson.Gson;
+import org.apache.fineract.cn.accounting.api.v1.EventConstants;
+import org.apache.fineract.cn.accounting.service.ServiceConstants;
+import org.apache.fineract.cn.accounting.service.internal.service.AccountDescriptorCache;
+import org.apache.fineract.cn.lang.config.TenantHeaderFilter;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jms.annotation.JmsListener;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts changed accounts from the {@link AccountDescriptorCache}, including changes made by other instances.
+ */
+@SuppressWarnings("unused")
+@Component
+public class AccountEventListener {
+
+  private static final String SELECTOR_ACCOUNT_CHANGED =
+      EventConstants.SELECTOR_PUT_ACCOUNT
+          + " OR " + EventConstants.SELECTOR_DELETE_ACCOUNT
+          + " OR " + EventConstants.SELECTOR_LOCK_ACCOUNT
+          + " OR " + EventConstants.SELECTOR_UNLOCK_ACCOUNT
+          + " OR " + EventConstants.SELECTOR_CLOSE_ACCOUNT
+          + " OR " + EventConstants.SELECTOR_REOPEN_ACCOUNT;
+
+  private final Logger logger;
+  private final Gson gson;
+  private final AccountDescriptorCache accountDescriptorCache;
+
+  @Autowired
+  public AccountEventListener(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
+                              final AccountDescriptorCache accountDescriptorCache) {
+    super();
+    this.logger = logger;
+    this.gson = new Gson();
+    this.accountDescriptorCache = accountDescriptorCache;
+  }
+
+  @JmsListener(
+      destination = EventConstants.DESTINATION,
+      selector = SELECTOR_ACCOUNT_CHANGED,
+      containerFactory = ServiceConstants.EVENT_LISTENER_CONTAINER_FACTORY
+  )
+  public void onAccountChanged(@Header(TenantHeaderFilter.TENANT_HEADER) final String tenant,
+                               final String payload) {
+    final String identifier = this.gson.fromJson(payload, String.class);
+    this.logger.debug("Evicting account {} of tenant {}.", identifier, tenant);
+    this.accountDescriptorCache.evict(tenant, identifier);
+  }
+}
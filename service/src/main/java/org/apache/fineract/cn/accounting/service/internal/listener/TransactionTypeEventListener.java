@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.listener;
+
+import org.apache.fineract.cn.accounting.api.v1.EventConstants;
+import org.apache.fineract.cn.accounting.service.ServiceConstants;
+import org.apache.fineract.cn.accounting.service.internal.service.TransactionTypeDictionary;
+import org.apache.fineract.cn.lang.config.TenantHeaderFilter;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jms.annotation.JmsListener;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+/**
+ * Refreshes the {@link TransactionTypeDictionary}, including changes made by other instances.
+ */
+@SuppressWarnings("unused")
+@Component
+public class TransactionTypeEventListener {
+
+  private static final String SELECTOR_TRANSACTION_TYPE_CHANGED =
+      EventConstants.SELECTOR_POST_TX_TYPE
+          + " OR " + EventConstants.SELECTOR_PUT_TX_TYPE;
+
+  private final Logger logger;
+  private final TransactionTypeDictionary transactionTypeDictionary;
+
+  @Autowired
+  public TransactionTypeEventListener(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
+                                      final TransactionTypeDictionary transactionTypeDictionary) {
+    super();
+    this.logger = logger;
+    this.transactionTypeDictionary = transactionTypeDictionary;
+  }
+
+  @JmsListener(
+      destination = EventConstants.DESTINATION,
+      selector = SELECTOR_TRANSACTION_TYPE_CHANGED,
+      containerFactory = ServiceConstants.EVENT_LISTENER_CONTAINER_FACTORY
+  )
+  public void onTransactionTypeChanged(@Header(TenantHeaderFilter.TENANT_HEADER) final String tenant,
+                                       final String payload) {
+    this.logger.debug("Refreshing transaction types of tenant {}.", tenant);
+    this.transactionTypeDictionary.refresh(tenant);
+  }
+}
@@ -19,6 +19,7 @@
 package org.apache.fineract.cn.accounting.service.internal.mapper;
 
 import org.apache.fineract.cn.accounting.api.v1.domain.AccountEntry;
+import org.apache.fineract.cn.accounting.service.internal.money.Money;
 import org.apache.fineract.cn.accounting.service.internal.repository.AccountEntryEntity;
 import org.apache.fineract.cn.lang.DateConverter;
 
@@ -32,8 +33,8 @@ public class AccountEntryMapper {
     final AccountEntry entry = new AccountEntry();
 
     entry.setType(accountEntity.getType());
-    entry.setBalance(accountEntity.getBalance());
-    entry.setAmount(accountEntity.getAmount());
+    entry.setBalance(Money.toDouble(accountEntity.getBalance()));
+    entry.setAmount(Money.toDouble(accountEntity.getAmount()));
     entry.setMessage(accountEntity.getMessage());
     entry.setTransactionDate(DateConverter.toIsoString(accountEntity.getTransactionDate()));
 
@@ -19,6 +19,7 @@
 package org.apache.fineract.cn.accounting.service.internal.mapper;
 
 import org.apache.fineract.cn.accounting.api.v1.domain.Account;
+import org.apache.fineract.cn.accounting.service.internal.money.Money;
 import org.apache.fineract.cn.accounting.service.internal.repository.AccountEntity;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -52,7 +53,7 @@ public class AccountMapper {
     if (accountEntity.getReferenceAccount() != null) {
       account.setReferenceAccount(accountEntity.getReferenceAccount().getIdentifier());
     }
-    account.setBalance(accountEntity.getBalance());
+    account.setBalance(Money.toDouble(accountEntity.getBalance()));
     account.setAlternativeAccountNumber(accountEntity.getAlternativeAccountNumber());
     account.setCreatedBy(accountEntity.getCreatedBy());
     account.setCreatedOn(DateConverter.toIsoString(accountEntity.getCreatedOn()));
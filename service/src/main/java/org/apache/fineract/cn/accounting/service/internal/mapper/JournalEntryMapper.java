@@ -21,7 +21,12 @@ package org.apache.fineract.cn.accounting.service.internal.mapper;
 import org.apache.fineract.cn.accounting.api.v1.domain.Creditor;
 import org.apache.fineract.cn.accounting.api.v1.domain.Debtor;
 import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntry;
+import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntryAggregate;
+import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntrySummary;
+import org.apache.fineract.cn.accounting.service.internal.money.Money;
+import org.apache.fineract.cn.accounting.service.internal.repository.JournalEntryAggregateEntity;
 import org.apache.fineract.cn.accounting.service.internal.repository.JournalEntryEntity;
+import org.apache.fineract.cn.accounting.service.internal.repository.JournalEntrySummaryEntity;
 import java.util.stream.Collectors;
 import org.apache.fineract.cn.lang.DateConverter;
 
@@ -44,7 +49,7 @@ public class JournalEntryMapper {
             .map(debtorType -> {
               final Debtor debtor = new Debtor();
               debtor.setAccountNumber(debtorType.getAccountNumber());
-              debtor.setAmount(Double.toString(debtorType.getAmount()));
+              debtor.setAmount(Money.toString(debtorType.minorUnits()));
               return debtor;
             })
             .collect(Collectors.toSet())
@@ -55,7 +60,7 @@ public class JournalEntryMapper {
             .map(creditorType -> {
               final Creditor creditor = new Creditor();
               creditor.setAccountNumber(creditorType.getAccountNumber());
-              creditor.setAmount(Double.toString(creditorType.getAmount()));
+              creditor.setAmount(Money.toString(creditorType.minorUnits()));
               return creditor;
             })
             .collect(Collectors.toSet())
@@ -64,4 +69,24 @@ public class JournalEntryMapper {
     journalEntry.setState(journalEntryEntity.getState());
     return journalEntry;
   }
+
+  public static JournalEntrySummary map(final JournalEntrySummaryEntity journalEntrySummaryEntity) {
+    final JournalEntrySummary journalEntrySummary = new JournalEntrySummary();
+    journalEntrySummary.setTransactionIdentifier(journalEntrySummaryEntity.getTransactionIdentifier());
+    journalEntrySummary.setTransactionDate(DateConverter.toIsoString(journalEntrySummaryEntity.getTransactionDate()));
+    journalEntrySummary.setTransactionType(journalEntrySummaryEntity.getTransactionType());
+    journalEntrySummary.setState(journalEntrySummaryEntity.getState());
+    if (journalEntrySummaryEntity.getTotalAmount() != null) {
+      journalEntrySummary.setTotalAmount(Money.toString(journalEntrySummaryEntity.getTotalAmount()));
+    }
+    return journalEntrySummary;
+  }
+
+  public static JournalEntryAggregate map(final JournalEntryAggregateEntity journalEntryAggregateEntity) {
+    final JournalEntryAggregate journalEntryAggregate = new JournalEntryAggregate();
+    journalEntryAggregate.setTransactionType(journalEntryAggregateEntity.getTransactionType());
+    journalEntryAggregate.setEntryCount(journalEntryAggregateEntity.getEntryCount());
+    journalEntryAggregate.setVolume(Money.toString(journalEntryAggregateEntity.getVolume()));
+    return journalEntryAggregate;
+  }
 }
@@ -19,8 +19,8 @@
 package org.apache.fineract.cn.accounting.service.internal.mapper;
 
 import org.apache.fineract.cn.accounting.api.v1.domain.Ledger;
+import org.apache.fineract.cn.accounting.service.internal.money.Money;
 import org.apache.fineract.cn.accounting.service.internal.repository.LedgerEntity;
-import java.math.BigDecimal;
 import org.apache.fineract.cn.lang.DateConverter;
 
 public class LedgerMapper {
@@ -45,8 +45,8 @@ public class LedgerMapper {
       ledger.setLastModifiedOn(DateConverter.toIsoString(ledgerEntity.getLastModifiedOn()));
     }
     ledger.setShowAccountsInChart(ledgerEntity.getShowAccountsInChart());
-    final BigDecimal totalValue = ledgerEntity.getTotalValue() != null ? ledgerEntity.getTotalValue() : BigDecimal.ZERO;
-    ledger.setTotalValue(totalValue);
+    final long totalValue = ledgerEntity.getTotalValue() != null ? ledgerEntity.getTotalValue() : 0L;
+    ledger.setTotalValue(Money.toBigDecimal(totalValue));
     return ledger;
   }
 }
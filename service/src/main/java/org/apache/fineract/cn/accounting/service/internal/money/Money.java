@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Monetary amounts are handled as a long count of minor units with a fixed scale of {@value #SCALE}, matching the
+ * precision the accounting tables always had. Arithmetic on minor units is exact and does not allocate, conversion
+ * to and from the decimal representation only happens at the API and persistence boundaries.
+ */
+public final class Money {
+
+  public static final int SCALE = 5;
+
+  private static final long UNIT = 100000L;
+  // 18 digits always fit into a long, anything longer takes the checked slow path
+  private static final int MAX_FAST_DIGITS = 18;
+
+  private Money() {
+    super();
+  }
+
+  /**
+   * @return the minor units of the given decimal amount
+   * @throws NumberFormatException if the amount is not a number
+   * @throws ArithmeticException if the amount does not fit into minor units, or has more than {@value #SCALE}
+   * significant fraction digits, amounts are never rounded silently
+   */
+  public static long parse(final String amount) {
+    final int length = amount.length();
+    int index = 0;
+    boolean negative = false;
+    if (length > 0 && (amount.charAt(0) == '-' || amount.charAt(0) == '+')) {
+      negative = amount.charAt(0) == '-';
+      index++;
+    }
+
+    long value = 0L;
+    int digits = 0;
+    int fractionDigits = -1;
+    for (; index < length; index++) {
+      final char c = amount.charAt(index);
+      if (c >= '0' && c <= '9') {
+        if (fractionDigits >= SCALE || ++digits > MAX_FAST_DIGITS) {
+          return parseSlow(amount);
+        }
+        value = value * 10L + (c - '0');
+        if (fractionDigits >= 0) {
+          fractionDigits++;
+        }
+      } else if (c == '.' && fractionDigits < 0) {
+        fractionDigits = 0;
+      } else {
+        return parseSlow(amount);
+      }
+    }
+    if (digits == 0) {
+      throw new NumberFormatException("Not an amount: " + amount);
+    }
+
+    for (int scale = Math.max(fractionDigits, 0); scale < SCALE; scale++) {
+      value = Math.multiplyExact(value, 10L);
+    }
+    return negative ? -value : value;
+  }
+
+  public static long valueOf(final double amount) {
+    return valueOf(BigDecimal.valueOf(amount));
+  }
+
+  public static long valueOf(final BigDecimal amount) {
+    return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+  }
+
+  public static double toDouble(final long minorUnits) {
+    // dividing by the exactly representable unit yields the double closest to the decimal value
+    return minorUnits / (double) UNIT;
+  }
+
+  public static BigDecimal toBigDecimal(final long minorUnits) {
+    return BigDecimal.valueOf(minorUnits, SCALE);
+  }
+
+  public static String toString(final long minorUnits) {
+    final BigDecimal amount = toBigDecimal(minorUnits).stripTrailingZeros();
+    return (amount.scale() < 1 ? amount.setScale(1) : amount).toPlainString();
+  }
+
+  private static long parseSlow(final String amount) {
+    return new BigDecimal(amount).setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+  }
+}
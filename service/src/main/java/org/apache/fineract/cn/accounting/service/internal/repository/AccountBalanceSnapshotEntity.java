@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.repository;
+
+import java.time.LocalDate;
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import org.apache.fineract.cn.mariadb.util.LocalDateConverter;
+import org.hibernate.annotations.GenericGenerator;
+
+/**
+ * Balance of an account at the end of a day, including every entry with a transaction date up to that day.
+ */
+@SuppressWarnings("unused")
+@Entity
+@Table(name = "thoth_account_balance_snapshots")
+public class AccountBalanceSnapshotEntity {
+
+  @Id
+  @GeneratedValue(generator = "thoth_account_balance_snapshots_id")
+  @GenericGenerator(name = "thoth_account_balance_snapshots_id", strategy = TenantAwareTableGenerator.STRATEGY)
+  @Column(name = "id")
+  private Long id;
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(name = "account_id")
+  private AccountEntity account;
+  @Column(name = "snapshot_date")
+  @Convert(converter = LocalDateConverter.class)
+  private LocalDate snapshotDate;
+  @Column(name = "balance")
+  private Long balance;
+
+  public AccountBalanceSnapshotEntity() {
+    super();
+  }
+
+  public Long getId() {
+    return this.id;
+  }
+
+  public void setId(final Long id) {
+    this.id = id;
+  }
+
+  public AccountEntity getAccount() {
+    return this.account;
+  }
+
+  public void setAccount(final AccountEntity account) {
+    this.account = account;
+  }
+
+  public LocalDate getSnapshotDate() {
+    return this.snapshotDate;
+  }
+
+  public void setSnapshotDate(final LocalDate snapshotDate) {
+    this.snapshotDate = snapshotDate;
+  }
+
+  public Long getBalance() {
+    return this.balance;
+  }
+
+  public void setBalance(final Long balance) {
+    this.balance = balance;
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.repository;
+
+import java.time.LocalDate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AccountBalanceSnapshotRepository extends JpaRepository<AccountBalanceSnapshotEntity, Long> {
+
+  AccountBalanceSnapshotEntity findTopByAccountAndSnapshotDateLessThanEqualOrderBySnapshotDateDesc(
+      final AccountEntity accountEntity, final LocalDate snapshotDate);
+
+  AccountBalanceSnapshotEntity findTopByOrderBySnapshotDateDesc();
+
+  AccountBalanceSnapshotEntity findTopByAccountIdOrderBySnapshotDateDesc(final Long accountId);
+
+  AccountBalanceSnapshotEntity findByAccountAndSnapshotDate(final AccountEntity accountEntity,
+                                                            final LocalDate snapshotDate);
+
+  /**
+   * Keeps the snapshots of the transaction date and all later days in line with an entry booked for that date.
+   */
+  @Modifying
+  @Query("UPDATE AccountBalanceSnapshotEntity s SET s.balance = s.balance + :amount"
+      + " WHERE s.account.id = :accountId AND s.snapshotDate >= :transactionDate")
+  int addToBalances(@Param("accountId") final Long accountId,
+                    @Param("transactionDate") final LocalDate transactionDate,
+                    @Param("amount") final Long amount);
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.repository;
+
+/**
+ * Compact, immutable view of the account attributes needed to validate and book journal entries.
+ */
+@SuppressWarnings("unused")
+public class AccountDescriptor {
+
+  private final Long id;
+  private final String identifier;
+  private final String state;
+  private final String type;
+  private final Long ledgerId;
+  private final String ledgerIdentifier;
+
+  public AccountDescriptor(final Long id, final String identifier, final String state, final String type,
+                           final Long ledgerId, final String ledgerIdentifier) {
+    super();
+    this.id = id;
+    this.identifier = identifier;
+    this.state = state;
+    this.type = type;
+    this.ledgerId = ledgerId;
+    this.ledgerIdentifier = ledgerIdentifier;
+  }
+
+  public Long getId() {
+    return this.id;
+  }
+
+  public String getIdentifier() {
+    return this.identifier;
+  }
+
+  public String getState() {
+    return this.state;
+  }
+
+  public String getType() {
+    return this.type;
+  }
+
+  public Long getLedgerId() {
+    return this.ledgerId;
+  }
+
+  public String getLedgerIdentifier() {
+    return this.ledgerIdentifier;
+  }
+}
@@ -24,12 +24,12 @@ import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.OneToOne;
 import javax.persistence.Table;
 import org.apache.fineract.cn.mariadb.util.LocalDateTimeConverter;
+import org.hibernate.annotations.GenericGenerator;
 
 @SuppressWarnings({"unused"})
 @Entity
@@ -37,7 +37,8 @@ import org.apache.fineract.cn.mariadb.util.LocalDateTimeConverter;
 public class AccountEntity {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(generator = "thoth_accounts_id")
+  @GenericGenerator(name = "thoth_accounts_id", strategy = TenantAwareTableGenerator.STRATEGY)
   @Column(name = "id")
   private Long id;
   @Column(name = "a_type")
@@ -50,8 +51,9 @@ public class AccountEntity {
   private String holders;
   @Column(name = "signature_authorities")
   private String signatureAuthorities;
-  @Column(name = "balance")
-  private Double balance;
+  // only written on insert, bookings add to it in the database, see AccountRepository#addToBalance
+  @Column(name = "balance", updatable = false)
+  private Long balance;
   @OneToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "reference_account_id")
   private AccountEntity referenceAccount;
@@ -125,11 +127,11 @@ public class AccountEntity {
     this.signatureAuthorities = signatureAuthorities;
   }
 
-  public Double getBalance() {
+  public Long getBalance() {
     return this.balance;
   }
 
-  public void setBalance(final Double balance) {
+  public void setBalance(final Long balance) {
     this.balance = balance;
   }
 
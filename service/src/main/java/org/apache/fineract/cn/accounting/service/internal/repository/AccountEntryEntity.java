@@ -24,12 +24,12 @@ import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 import org.apache.fineract.cn.mariadb.util.LocalDateTimeConverter;
+import org.hibernate.annotations.GenericGenerator;
 
 @SuppressWarnings({"unused"})
 @Entity
@@ -37,7 +37,8 @@ import org.apache.fineract.cn.mariadb.util.LocalDateTimeConverter;
 public class AccountEntryEntity {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(generator = "thoth_account_entries_id")
+  @GenericGenerator(name = "thoth_account_entries_id", strategy = TenantAwareTableGenerator.STRATEGY)
   @Column(name = "id")
   private Long id;
   @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -51,9 +52,9 @@ public class AccountEntryEntity {
   @Column(name = "message")
   private String message;
   @Column(name = "amount")
-  private Double amount;
+  private Long amount;
   @Column(name = "balance")
-  private Double balance;
+  private Long balance;
 
   public AccountEntryEntity() {
     super();
@@ -99,19 +100,19 @@ public class AccountEntryEntity {
     this.message = message;
   }
 
-  public Double getAmount() {
+  public Long getAmount() {
     return this.amount;
   }
 
-  public void setAmount(final Double amount) {
+  public void setAmount(final Long amount) {
     this.amount = amount;
   }
 
-  public Double getBalance() {
+  public Long getBalance() {
     return this.balance;
   }
 
-  public void setBalance(final Double balance) {
+  public void setBalance(final Long balance) {
     this.balance = balance;
   }
 }
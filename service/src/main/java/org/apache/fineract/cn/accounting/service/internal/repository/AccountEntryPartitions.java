@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.repository;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Monthly range partitions of {@code thoth_account_entries}. Partition {@code p201706} holds the entries of June
+ * 2017, {@code p_future} catches everything after the last month.
+ *
+ * <p>Every statement is DDL and commits implicitly, so none of these may run inside a booking's transaction.</p>
+ */
+@Repository
+public class AccountEntryPartitions {
+
+  private static final String TABLE_NAME = "thoth_account_entries";
+  private static final String FUTURE_PARTITION = "p_future";
+  private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  public AccountEntryPartitions(final DataSource dataSource) {
+    super();
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+  }
+
+  public boolean isPartitioned() {
+    return this.partitionNames().stream().anyMatch(Objects::nonNull);
+  }
+
+  /**
+   * @return the months having a partition of their own
+   */
+  public SortedSet<YearMonth> findMonths() {
+    return this.partitionNames()
+        .stream()
+        .filter(partitionName -> partitionName != null && partitionName.matches("p\\d{6}"))
+        .map(partitionName -> YearMonth.parse(partitionName.substring(1), PARTITION_MONTH))
+        .collect(Collectors.toCollection(TreeSet::new));
+  }
+
+  /**
+   * Splits the given months off the future partition, they have to be later than all existing ones.
+   */
+  public void addMonths(final SortedSet<YearMonth> months) {
+    if (months.isEmpty()) {
+      return;
+    }
+    final String partitions = months
+        .stream()
+        .map(month -> "PARTITION " + partitionOf(month) + " VALUES LESS THAN ('" + month.plusMonths(1L).atDay(1) + "')")
+        .collect(Collectors.joining(", "));
+    this.jdbcTemplate.execute("ALTER TABLE " + TABLE_NAME + " REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO ("
+        + partitions + ", PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+  }
+
+  /**
+   * Moves the entries of the month into a table of their own and drops its partition. If an earlier attempt was
+   * interrupted after the entries were moved, only the partition is dropped.
+   *
+   * @return the name of the archive table, or null if both the archive table and the partition hold entries
+   */
+  public String archiveMonth(final YearMonth month) {
+    final String partition = partitionOf(month);
+    final String archiveTable = TABLE_NAME + "_" + partition;
+    if (!this.tableExists(archiveTable)) {
+      this.jdbcTemplate.execute("CREATE TABLE " + archiveTable + " LIKE " + TABLE_NAME);
+      this.jdbcTemplate.execute("ALTER TABLE " + archiveTable + " REMOVE PARTITIONING");
+      this.jdbcTemplate.execute("ALTER TABLE " + TABLE_NAME + " EXCHANGE PARTITION " + partition
+          + " WITH TABLE " + archiveTable);
+    } else if (this.hasEntries(partition)) {
+      return null;
+    }
+    this.dropMonth(month);
+    return archiveTable;
+  }
+
+  /**
+   * Drops the month's partition together with its entries.
+   */
+  public void dropMonth(final YearMonth month) {
+    this.jdbcTemplate.execute("ALTER TABLE " + TABLE_NAME + " DROP PARTITION " + partitionOf(month));
+  }
+
+  private List<String> partitionNames() {
+    return this.jdbcTemplate.queryForList("SELECT partition_name FROM information_schema.partitions"
+        + " WHERE table_schema = DATABASE() AND table_name = ?", String.class, TABLE_NAME);
+  }
+
+  private boolean tableExists(final String tableName) {
+    return this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.tables"
+        + " WHERE table_schema = DATABASE() AND table_name = ?", Integer.class, tableName) > 0;
+  }
+
+  private boolean hasEntries(final String partition) {
+    return !this.jdbcTemplate.queryForList("SELECT 1 FROM " + TABLE_NAME + " PARTITION (" + partition + ") LIMIT 1",
+        Integer.class).isEmpty();
+  }
+
+  private static String partitionOf(final YearMonth month) {
+    return "p" + month.format(PARTITION_MONTH);
+  }
+}
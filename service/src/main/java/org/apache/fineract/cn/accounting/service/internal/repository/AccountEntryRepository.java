@@ -19,10 +19,12 @@
 package org.apache.fineract.cn.accounting.service.internal.repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import javax.persistence.Convert;
 import org.apache.fineract.cn.mariadb.util.LocalDateTimeConverter;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -44,6 +46,64 @@ public interface AccountEntryRepository extends JpaRepository<AccountEntryEntity
                                                                                   final String message,
                                                                                   final Pageable pageable);
 
+  /**
+   * Keyset page in ascending order, starting after the given transaction date and id. No count is run and the
+   * position is found through the index on account, transaction date and id, so every slice costs the same.
+   */
+  @Query("SELECT a FROM AccountEntryEntity a WHERE a.account = :accountEntity"
+      + " AND a.transactionDate BETWEEN :dateFrom AND :dateTo"
+      + " AND (a.transactionDate > :afterDate OR (a.transactionDate = :afterDate AND a.id > :afterId))"
+      + " AND (:message IS NULL OR a.message = :message)"
+      + " ORDER BY a.transactionDate ASC, a.id ASC")
+  Slice<AccountEntryEntity> findSliceAfter(@Param("accountEntity") final AccountEntity accountEntity,
+                                           @Param("dateFrom") final LocalDateTime dateFrom,
+                                           @Param("dateTo") final LocalDateTime dateTo,
+                                           @Param("message") final String message,
+                                           @Param("afterDate") final LocalDateTime afterDate,
+                                           @Param("afterId") final Long afterId,
+                                           final Pageable pageable);
+
+  /**
+   * Keyset page in descending order, starting before the given transaction date and id.
+   */
+  @Query("SELECT a FROM AccountEntryEntity a WHERE a.account = :accountEntity"
+      + " AND a.transactionDate BETWEEN :dateFrom AND :dateTo"
+      + " AND (a.transactionDate < :beforeDate OR (a.transactionDate = :beforeDate AND a.id < :beforeId))"
+      + " AND (:message IS NULL OR a.message = :message)"
+      + " ORDER BY a.transactionDate DESC, a.id DESC")
+  Slice<AccountEntryEntity> findSliceBefore(@Param("accountEntity") final AccountEntity accountEntity,
+                                            @Param("dateFrom") final LocalDateTime dateFrom,
+                                            @Param("dateTo") final LocalDateTime dateTo,
+                                            @Param("message") final String message,
+                                            @Param("beforeDate") final LocalDateTime beforeDate,
+                                            @Param("beforeId") final Long beforeId,
+                                            final Pageable pageable);
+
+  /**
+   * @return debits minus credits of the entries from the given date on, in minor units
+   */
+  @Query("SELECT COALESCE(SUM(CASE WHEN a.type = 'DEBIT' THEN a.amount ELSE -a.amount END), 0)"
+      + " FROM AccountEntryEntity a WHERE a.account = :accountEntity AND a.transactionDate >= :dateFrom")
+  Long sumDebitsMinusCreditsFrom(@Param("accountEntity") final AccountEntity accountEntity,
+                                 @Param("dateFrom") final LocalDateTime dateFrom);
+
+  /**
+   * @return debits minus credits of the entries from the first date on and before the second, in minor units
+   */
+  @Query("SELECT COALESCE(SUM(CASE WHEN a.type = 'DEBIT' THEN a.amount ELSE -a.amount END), 0)"
+      + " FROM AccountEntryEntity a WHERE a.account = :accountEntity"
+      + " AND a.transactionDate >= :dateFrom AND a.transactionDate < :dateTo")
+  Long sumDebitsMinusCreditsBetween(@Param("accountEntity") final AccountEntity accountEntity,
+                                    @Param("dateFrom") final LocalDateTime dateFrom,
+                                    @Param("dateTo") final LocalDateTime dateTo);
+
+  /**
+   * @return the identifiers of all accounts with entries from the first date on and before the second
+   */
+  @Query("SELECT DISTINCT a.account.identifier FROM AccountEntryEntity a"
+      + " WHERE a.transactionDate >= :dateFrom AND a.transactionDate < :dateTo")
+  List<String> findAccountIdentifiersBookedBetween(@Param("dateFrom") final LocalDateTime dateFrom,
+                                                   @Param("dateTo") final LocalDateTime dateTo);
 
   @Query("SELECT CASE WHEN count(a) > 0 THEN true ELSE false END FROM AccountEntryEntity a where a.account = :accountEntity")
   Boolean existsByAccount(@Param("accountEntity") final AccountEntity accountEntity);
@@ -22,12 +22,16 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Stream;
+import javax.persistence.LockModeType;
 
 @Repository
 public interface AccountRepository extends JpaRepository<AccountEntity, Long>, JpaSpecificationExecutor<AccountEntity> {
@@ -38,8 +42,44 @@ public interface AccountRepository extends JpaRepository<AccountEntity, Long>, J
 
   AccountEntity findByIdentifier(final String identifier);
 
+  /**
+   * Reads the account and locks its row until the end of the transaction, the same lock a booking takes with
+   * {@link #addToBalance(Long, Long)}.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT a FROM AccountEntity a WHERE a.identifier = :identifier")
+  AccountEntity findByIdentifierForUpdate(@Param("identifier") final String identifier);
+
+  List<AccountEntity> findByIdentifierIn(final Collection<String> identifiers);
+
+  @Query("SELECT new org.apache.fineract.cn.accounting.service.internal.repository.AccountDescriptor(" +
+      "a.id, a.identifier, a.state, a.type, l.id, l.identifier) " +
+      "FROM AccountEntity a JOIN a.ledger l WHERE a.identifier IN :identifiers")
+  List<AccountDescriptor> findDescriptorsByIdentifierIn(@Param("identifiers") final Collection<String> identifiers);
+
   @Query("SELECT CASE WHEN count(a) > 0 THEN true ELSE false END FROM AccountEntity a where a.referenceAccount = :accountEntity")
   Boolean existsByReference(@Param("accountEntity") final AccountEntity accountEntity);
 
-  Stream<AccountEntity> findByBalanceIsNot(final Double value);
+  Stream<AccountEntity> findByBalanceIsNot(final Long value);
+
+  /**
+   * Adds the amount to the balance in the database, without reading the account first, and keeps the new balance
+   * in a session variable of the connection, see {@link #lastAddedBalance()}. The derived table resets the variable
+   * first, so it never holds the balance of an earlier statement on the pooled connection if no row matched. Managed
+   * instances of the account are not refreshed.
+   *
+   * @return the number of accounts updated, zero if the account does not exist anymore
+   */
+  @Modifying
+  @Query(value = "UPDATE thoth_accounts a, (SELECT @thoth_account_balance \\:= NULL) r " +
+      "SET a.balance = (@thoth_account_balance \\:= a.balance + :amount) WHERE a.id = :id",
+      nativeQuery = true)
+  int addToBalance(@Param("id") final Long id, @Param("amount") final Long amount);
+
+  /**
+   * @return the balance set by the last {@link #addToBalance(Long, Long)} on the same connection, so it has to run in
+   * the same transaction
+   */
+  @Query(value = "SELECT @thoth_account_balance", nativeQuery = true)
+  Long lastAddedBalance();
 }
@@ -24,12 +24,12 @@ import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.OneToOne;
 import javax.persistence.Table;
 import org.apache.fineract.cn.mariadb.util.LocalDateTimeConverter;
+import org.hibernate.annotations.GenericGenerator;
 
 @SuppressWarnings("unused")
 @Entity
@@ -37,7 +37,8 @@ import org.apache.fineract.cn.mariadb.util.LocalDateTimeConverter;
 public class CommandEntity {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(generator = "thoth_commands_id")
+  @GenericGenerator(name = "thoth_commands_id", strategy = TenantAwareTableGenerator.STRATEGY)
   @Column(name = "id")
   private Long id;
   @OneToOne(fetch = FetchType.LAZY, optional = false)
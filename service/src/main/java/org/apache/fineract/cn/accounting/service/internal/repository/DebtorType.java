@@ -20,6 +20,7 @@ package org.apache.fineract.cn.accounting.service.internal.repository;
 
 import com.datastax.driver.mapping.annotations.Field;
 import com.datastax.driver.mapping.annotations.UDT;
+import org.apache.fineract.cn.accounting.service.internal.money.Money;
 
 @SuppressWarnings({"unused"})
 @UDT(name = "thoth_debtor")
@@ -29,6 +30,8 @@ public class DebtorType {
   private String accountNumber;
   @Field(name = "amount")
   private Double amount;
+  @Field(name = "amount_minor")
+  private Long amountMinor;
 
   public DebtorType() {
     super();
@@ -49,4 +52,19 @@ public class DebtorType {
   public void setAmount(final Double amount) {
     this.amount = amount;
   }
+
+  public Long getAmountMinor() {
+    return this.amountMinor;
+  }
+
+  public void setAmountMinor(final Long amountMinor) {
+    this.amountMinor = amountMinor;
+  }
+
+  /**
+   * @return the amount in minor units, entries written before minor units were introduced only carry the double
+   */
+  public long minorUnits() {
+    return this.amountMinor != null ? this.amountMinor : Money.valueOf(this.amount);
+  }
 }
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.annotation.PreDestroy;
+import org.apache.fineract.cn.lang.DateConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cold storage of journal days that have been moved out of Cassandra, one {@link JournalSegment} per tenant and
+ * day, stored as {@code <journal.archive.directory>/<tenant>/<day>.segment}. Archiving is disabled if no directory
+ * is configured.
+ *
+ * <p>Every instance of the service reads the directory, it has to be shared storage if more than one instance is
+ * running.</p>
+ */
+@Component
+public class JournalArchive {
+
+  private static final String SEGMENT_SUFFIX = ".segment";
+
+  private final Path directory;
+  private final Map<Path, JournalSegment> openSegments;
+  private final ExecutorService readExecutor;
+
+  @Autowired
+  public JournalArchive(@Value("${journal.archive.directory:}") final String directory,
+                        @Value("${journal.archive.openSegments:64}") final int openSegments,
+                        @Value("${journal.archive.readThreads:4}") final int readThreads) {
+    super();
+    this.directory = directory.isEmpty() ? null : Paths.get(directory);
+    final AtomicInteger threadCount = new AtomicInteger();
+    this.readExecutor = Executors.newFixedThreadPool(readThreads, runnable -> {
+      final Thread thread = new Thread(runnable, "journal-archive-read-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.openSegments = Collections.synchronizedMap(new LinkedHashMap<Path, JournalSegment>(16, 0.75F, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<Path, JournalSegment> eldest) {
+        return this.size() > openSegments;
+      }
+    });
+  }
+
+  public boolean isEnabled() {
+    return this.directory != null;
+  }
+
+  /**
+   * Runs a read from the archive on its own threads, opening segments reads from disk and must neither block driver
+   * threads nor the common pool.
+   */
+  public <T> CompletableFuture<T> readAsync(final Supplier<T> read) {
+    return CompletableFuture.supplyAsync(read, this.readExecutor);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    this.readExecutor.shutdown();
+  }
+
+  public boolean isArchived(final String tenantIdentifier, final LocalDate day) {
+    return this.isEnabled() && Files.exists(this.pathOf(tenantIdentifier, day));
+  }
+
+  /**
+   * Lists the directory of the tenant once, reads over a range of days check against the result instead of looking
+   * up every day on its own. The listing is not cached, days may be archived by any instance.
+   *
+   * @return the archived days of the tenant
+   */
+  public Set<LocalDate> findArchivedDays(final String tenantIdentifier) {
+    if (!this.isEnabled()) {
+      return Collections.emptySet();
+    }
+    final Path tenantDirectory = this.directory.resolve(tenantIdentifier);
+    if (!Files.isDirectory(tenantDirectory)) {
+      return Collections.emptySet();
+    }
+    final Set<LocalDate> archivedDays = new HashSet<>();
+    try (final DirectoryStream<Path> segments = Files.newDirectoryStream(tenantDirectory, "*" + SEGMENT_SUFFIX)) {
+      segments.forEach(segment -> {
+        final String fileName = segment.getFileName().toString();
+        archivedDays.add(DateConverter.dateFromIsoString(
+            fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length())));
+      });
+    } catch (final IOException ex) {
+      throw new UncheckedIOException("Could not list journal segments of tenant " + tenantIdentifier + ".", ex);
+    }
+    return archivedDays;
+  }
+
+  /**
+   * @return the segment of the day, empty if the day has not been archived
+   */
+  public Optional<JournalSegment> findSegment(final String tenantIdentifier, final LocalDate day) {
+    if (!this.isArchived(tenantIdentifier, day)) {
+      return Optional.empty();
+    }
+    return Optional.of(this.openSegment(tenantIdentifier, day));
+  }
+
+  /**
+   * @return the segment of a day known to be archived, see {@link #findArchivedDays(String)}
+   */
+  public JournalSegment openSegment(final String tenantIdentifier, final LocalDate day) {
+    final Path path = this.pathOf(tenantIdentifier, day);
+    final JournalSegment cachedSegment = this.openSegments.get(path);
+    if (cachedSegment != null) {
+      return cachedSegment;
+    }
+    try {
+      final JournalSegment journalSegment = JournalSegment.open(path);
+      this.openSegments.put(path, journalSegment);
+      return journalSegment;
+    } catch (final IOException ex) {
+      throw new UncheckedIOException("Could not open journal segment " + path + ".", ex);
+    }
+  }
+
+  /**
+   * Replaces the segment of the day. The segment is streamed to a temporary file next to it and atomically moved
+   * into place, so readers either see the old or the new segment and the day is never held in memory as a whole.
+   */
+  public void writeSegment(final String tenantIdentifier, final LocalDate day,
+                           final List<JournalEntryEntity> journalEntryEntities) {
+    final Path path = this.pathOf(tenantIdentifier, day);
+    try {
+      Files.createDirectories(path.getParent());
+      final Path temporaryPath = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+      try {
+        JournalSegment.write(journalEntryEntities, temporaryPath);
+        Files.move(temporaryPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } finally {
+        Files.deleteIfExists(temporaryPath);
+      }
+    } catch (final IOException ex) {
+      throw new UncheckedIOException("Could not write journal segment " + path + ".", ex);
+    }
+    this.openSegments.remove(path);
+  }
+
+  private Path pathOf(final String tenantIdentifier, final LocalDate day) {
+    if (!this.isEnabled()) {
+      throw new IllegalStateException("Journal archive is not enabled.");
+    }
+    return this.directory.resolve(tenantIdentifier).resolve(DateConverter.toIsoString(day) + SEGMENT_SUFFIX);
+  }
+}
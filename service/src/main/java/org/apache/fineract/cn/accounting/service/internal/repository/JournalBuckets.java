@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.fineract.cn.lang.DateConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Journal entries are partitioned by day, a day can additionally be split into {@code journal.shards} shards to keep
+ * partitions of high volume tenants small. The shard is derived from the transaction identifier and appended to the
+ * day, e.g. 2017-06-24:3. Entries written without sharding stay in the plain day partition and are always read.
+ *
+ * <p>The number of shards may be raised at any time, lowering it hides the entries of the dropped shards from range
+ * reads.</p>
+ */
+@Component
+public class JournalBuckets {
+
+  private static final char SHARD_SEPARATOR = ':';
+
+  private final int shards;
+
+  @Autowired
+  public JournalBuckets(@Value("${journal.shards:1}") final int shards) {
+    super();
+    if (shards < 1) {
+      throw new IllegalArgumentException("At least one shard is needed.");
+    }
+    this.shards = shards;
+  }
+
+  /**
+   * @return the shard of the transaction identifier, null if days are not sharded
+   */
+  public Integer shardOf(final String transactionIdentifier) {
+    return this.shards > 1 ? Math.floorMod(transactionIdentifier.hashCode(), this.shards) : null;
+  }
+
+  public String bucketOf(final LocalDate day, final String transactionIdentifier) {
+    return bucketOf(DateConverter.toIsoString(day), this.shardOf(transactionIdentifier));
+  }
+
+  /**
+   * @return all partitions a journal entry of the given day can live in
+   */
+  public List<String> bucketsOf(final LocalDate day) {
+    final String isoDay = DateConverter.toIsoString(day);
+    final List<String> buckets = new ArrayList<>(this.shards + 1);
+    buckets.add(isoDay);
+    if (this.shards > 1) {
+      for (int shard = 0; shard < this.shards; shard++) {
+        buckets.add(bucketOf(isoDay, shard));
+      }
+    }
+    return buckets;
+  }
+
+  public static String bucketOf(final String isoDay, final Integer shard) {
+    return shard != null ? isoDay + SHARD_SEPARATOR + shard : isoDay;
+  }
+
+  public static String dayOf(final String bucket) {
+    final int separator = bucket.indexOf(SHARD_SEPARATOR);
+    return separator < 0 ? bucket : bucket.substring(0, separator);
+  }
+
+  /**
+   * @return the shard of the bucket, null if the bucket is a plain day
+   */
+  public static Integer shardOfBucket(final String bucket) {
+    final int separator = bucket.indexOf(SHARD_SEPARATOR);
+    return separator < 0 ? null : Integer.valueOf(bucket.substring(separator + 1));
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.repository;
+
+import com.datastax.driver.mapping.annotations.ClusteringColumn;
+import com.datastax.driver.mapping.annotations.Column;
+import com.datastax.driver.mapping.annotations.PartitionKey;
+import com.datastax.driver.mapping.annotations.Table;
+import java.time.LocalDateTime;
+
+@SuppressWarnings({"unused", "WeakerAccess"})
+@Table(name = "thoth_journal_entries_by_account")
+public class JournalEntryAccountIndex {
+
+  @SuppressWarnings("DefaultAnnotationParam")
+  @PartitionKey(value = 0)
+  @Column(name = "account_number")
+  private String accountNumber;
+  @PartitionKey(value = 1)
+  @Column(name = "month")
+  private String month;
+  @SuppressWarnings("DefaultAnnotationParam")
+  @ClusteringColumn(value = 0)
+  @Column(name = "transaction_date")
+  private LocalDateTime transactionDate;
+  @ClusteringColumn(value = 1)
+  @Column(name = "transaction_identifier")
+  private String transactionIdentifier;
+  @Column(name = "date_bucket")
+  private String dateBucket;
+
+  public JournalEntryAccountIndex() {
+    super();
+  }
+
+  public String getAccountNumber() {
+    return this.accountNumber;
+  }
+
+  public void setAccountNumber(final String accountNumber) {
+    this.accountNumber = accountNumber;
+  }
+
+  public String getMonth() {
+    return this.month;
+  }
+
+  public void setMonth(final String month) {
+    this.month = month;
+  }
+
+  public LocalDateTime getTransactionDate() {
+    return this.transactionDate;
+  }
+
+  public void setTransactionDate(final LocalDateTime transactionDate) {
+    this.transactionDate = transactionDate;
+  }
+
+  public String getTransactionIdentifier() {
+    return this.transactionIdentifier;
+  }
+
+  public void setTransactionIdentifier(final String transactionIdentifier) {
+    this.transactionIdentifier = transactionIdentifier;
+  }
+
+  public String getDateBucket() {
+    return this.dateBucket;
+  }
+
+  public void setDateBucket(final String dateBucket) {
+    this.dateBucket = dateBucket;
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.repository;
+
+/**
+ * Number and volume of the processed journal entries of a transaction type, summed up over a date range.
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class JournalEntryAggregateEntity {
+
+  private final String transactionType;
+  private long entryCount;
+  private long volume;
+
+  JournalEntryAggregateEntity(final String transactionType) {
+    super();
+    this.transactionType = transactionType;
+  }
+
+  void add(final long entryCount, final long volume) {
+    this.entryCount += entryCount;
+    this.volume += volume;
+  }
+
+  public String getTransactionType() {
+    return this.transactionType;
+  }
+
+  public long getEntryCount() {
+    return this.entryCount;
+  }
+
+  /**
+   * @return the volume in minor units
+   */
+  public long getVolume() {
+    return this.volume;
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.repository;
+
+import com.datastax.driver.mapping.annotations.ClusteringColumn;
+import com.datastax.driver.mapping.annotations.Column;
+import com.datastax.driver.mapping.annotations.PartitionKey;
+import com.datastax.driver.mapping.annotations.Table;
+
+@SuppressWarnings({"unused", "WeakerAccess"})
+@Table(name = "thoth_journal_entries_by_amount")
+public class JournalEntryAmountIndex {
+
+  @SuppressWarnings("DefaultAnnotationParam")
+  @PartitionKey(value = 0)
+  @Column(name = "date_bucket")
+  private String dateBucket;
+  @PartitionKey(value = 1)
+  @Column(name = "total_amount")
+  private Long totalAmount;
+  @SuppressWarnings("DefaultAnnotationParam")
+  @ClusteringColumn(value = 0)
+  @Column(name = "transaction_identifier")
+  private String transactionIdentifier;
+  @Column(name = "shard")
+  private Integer shard;
+
+  public JournalEntryAmountIndex() {
+    super();
+  }
+
+  public String getDateBucket() {
+    return this.dateBucket;
+  }
+
+  public void setDateBucket(final String dateBucket) {
+    this.dateBucket = dateBucket;
+  }
+
+  public Long getTotalAmount() {
+    return this.totalAmount;
+  }
+
+  public void setTotalAmount(final Long totalAmount) {
+    this.totalAmount = totalAmount;
+  }
+
+  public String getTransactionIdentifier() {
+    return this.transactionIdentifier;
+  }
+
+  public void setTransactionIdentifier(final String transactionIdentifier) {
+    this.transactionIdentifier = transactionIdentifier;
+  }
+
+  public Integer getShard() {
+    return this.shard;
+  }
+
+  public void setShard(final Integer shard) {
+    this.shard = shard;
+  }
+}
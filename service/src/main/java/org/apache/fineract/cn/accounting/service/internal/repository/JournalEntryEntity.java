@@ -61,6 +61,8 @@ public class JournalEntryEntity {
   private LocalDateTime createdOn;
   @Column(name = "created_by")
   private String createdBy;
+  @Column(name = "total_amount")
+  private Long totalAmount;
 
   public JournalEntryEntity() {
     super();
@@ -161,4 +163,23 @@ public class JournalEntryEntity {
   public void setCreatedBy(final String createdBy) {
     this.createdBy = createdBy;
   }
+
+  public Long getTotalAmount() {
+    return this.totalAmount;
+  }
+
+  public void setTotalAmount(final Long totalAmount) {
+    this.totalAmount = totalAmount;
+  }
+
+  /**
+   * @return the sum of all debtor amounts in minor units, computed from the debtors for entries written before the
+   * total was stored
+   */
+  public long totalAmountMinorUnits() {
+    if (this.totalAmount != null) {
+      return this.totalAmount;
+    }
+    return this.debtors.stream().mapToLong(DebtorType::minorUnits).sum();
+  }
 }
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.repository;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Timings of the single date bucket reads journal entry queries are split into.
+ */
+@Component
+@ManagedResource(objectName = "org.apache.fineract.cn.accounting:type=JournalEntryReads")
+public class JournalEntryReadStatistics {
+
+  private final LongAdder bucketReads = new LongAdder();
+  private final LongAdder failedBucketReads = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0L);
+
+  public JournalEntryReadStatistics() {
+    super();
+  }
+
+  public void record(final long elapsedNanos, final boolean failed) {
+    this.bucketReads.increment();
+    if (failed) {
+      this.failedBucketReads.increment();
+    }
+    this.totalNanos.add(elapsedNanos);
+    this.maxNanos.accumulate(elapsedNanos);
+  }
+
+  @ManagedAttribute(description = "Number of date buckets read.")
+  public long getBucketReads() {
+    return this.bucketReads.sum();
+  }
+
+  @ManagedAttribute(description = "Number of date bucket reads that failed.")
+  public long getFailedBucketReads() {
+    return this.failedBucketReads.sum();
+  }
+
+  @ManagedAttribute(description = "Mean time in milliseconds until the first page of a date bucket arrived.")
+  public double getMeanBucketReadMillis() {
+    final long reads = this.bucketReads.sum();
+    return reads == 0L ? 0.0D : (double) this.totalNanos.sum() / reads / TimeUnit.MILLISECONDS.toNanos(1L);
+  }
+
+  @ManagedAttribute(description = "Longest time in milliseconds until the first page of a date bucket arrived.")
+  public double getMaxBucketReadMillis() {
+    return (double) this.maxNanos.get() / TimeUnit.MILLISECONDS.toNanos(1L);
+  }
+
+  @ManagedOperation(description = "Resets all counters.")
+  public void reset() {
+    this.bucketReads.reset();
+    this.failedBucketReads.reset();
+    this.totalNanos.reset();
+    this.maxNanos.reset();
+  }
+}
@@ -18,83 +18,903 @@
  */
 package org.apache.fineract.cn.accounting.service.internal.repository;
 
+import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntry;
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.PagingState;
+import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Session;
-import com.datastax.driver.core.SimpleStatement;
 import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
 import com.datastax.driver.mapping.Mapper;
 import com.datastax.driver.mapping.Result;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.apache.fineract.cn.cassandra.core.CassandraSessionProvider;
 import org.apache.fineract.cn.cassandra.core.TenantAwareCassandraMapperProvider;
-import org.apache.fineract.cn.cassandra.core.TenantAwareEntityTemplate;
 import org.apache.fineract.cn.lang.DateConverter;
 import org.apache.fineract.cn.lang.DateRange;
+import org.apache.fineract.cn.lang.TenantContextHolder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 @SuppressWarnings({"unused"})
 @Repository
 public class JournalEntryRepository {
 
+  private static final int BACKFILL_PAGE_SIZE = 500;
+
   private final CassandraSessionProvider cassandraSessionProvider;
   private final TenantAwareCassandraMapperProvider tenantAwareCassandraMapperProvider;
-  private final TenantAwareEntityTemplate tenantAwareEntityTemplate;
+  private final JournalStatements journalStatements;
+  private final JournalBuckets journalBuckets;
+  private final JournalEntryReadStatistics readStatistics;
+  private final JournalArchive journalArchive;
+  private final int readConcurrency;
 
   @Autowired
   public JournalEntryRepository(final CassandraSessionProvider cassandraSessionProvider,
                                 final TenantAwareCassandraMapperProvider tenantAwareCassandraMapperProvider,
-                                final TenantAwareEntityTemplate tenantAwareEntityTemplate) {
+                                final JournalStatements journalStatements,
+                                final JournalBuckets journalBuckets,
+                                final JournalEntryReadStatistics readStatistics,
+                                final JournalArchive journalArchive,
+                                @Value("${journal.readConcurrency:16}") final int readConcurrency) {
     super();
     this.cassandraSessionProvider = cassandraSessionProvider;
     this.tenantAwareCassandraMapperProvider = tenantAwareCassandraMapperProvider;
-    this.tenantAwareEntityTemplate = tenantAwareEntityTemplate;
+    this.journalStatements = journalStatements;
+    this.journalBuckets = journalBuckets;
+    this.readStatistics = readStatistics;
+    this.journalArchive = journalArchive;
+    this.readConcurrency = readConcurrency;
   }
 
-  public void saveJournalEntry(final JournalEntryEntity journalEntryEntity) {
-    this.tenantAwareEntityTemplate.save(journalEntryEntity);
+  public CompletableFuture<Void> saveJournalEntry(final JournalEntryEntity journalEntryEntity) {
+    // the lookup has already been written when the transaction identifier was claimed
+    return toCompletableFuture(this.cassandraSessionProvider.getTenantSession()
+        .executeAsync(this.saveStatement(journalEntryEntity)))
+        .thenApply(resultSet -> null);
+  }
 
-    final JournalEntryLookup journalEntryLookup = new JournalEntryLookup();
-    journalEntryLookup.setTransactionIdentifier(journalEntryEntity.getTransactionIdentifier());
-    journalEntryLookup.setDateBucket(journalEntryEntity.getDateBucket());
-    this.tenantAwareEntityTemplate.save(journalEntryLookup);
+  /**
+   * Claims a transaction identifier by inserting its lookup with a lightweight transaction, so concurrent requests
+   * for the same identifier cannot both succeed.
+   *
+   * @return completes with true if the identifier has been claimed, false if it was already taken
+   */
+  public CompletableFuture<Boolean> claimTransactionIdentifier(final String transactionIdentifier,
+                                                               final String dateBucket) {
+    return toCompletableFuture(this.cassandraSessionProvider.getTenantSession().executeAsync(
+        this.journalStatements.bind(JournalStatements.CLAIM_TRANSACTION_IDENTIFIER,
+            transactionIdentifier, dateBucket, JournalBuckets.shardOfBucket(dateBucket))))
+        .thenApply(ResultSet::wasApplied);
   }
 
-  public List<JournalEntryEntity> fetchJournalEntries(final DateRange range) {
+  /**
+   * @param dateBuckets the date bucket per transaction identifier to claim
+   * @return completes with the transaction identifiers that have been claimed
+   */
+  public CompletableFuture<Set<String>> claimTransactionIdentifiers(final Map<String, String> dateBuckets) {
+    final Map<String, CompletableFuture<Boolean>> futures = new HashMap<>(dateBuckets.size());
+    dateBuckets.forEach((transactionIdentifier, dateBucket) ->
+        futures.put(transactionIdentifier, this.claimTransactionIdentifier(transactionIdentifier, dateBucket)));
+
+    return CompletableFuture
+        .allOf(futures.values().toArray(new CompletableFuture[futures.size()]))
+        .thenApply(ignored -> futures.entrySet()
+            .stream()
+            .filter(entry -> entry.getValue().join())
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toSet()));
+  }
+
+  /**
+   * Releases the claims of transaction identifiers whose journal entries are not or no longer written, so they can
+   * be posted again. The lookup is deleted with a lightweight transaction, like it has been claimed.
+   */
+  public CompletableFuture<Void> releaseTransactionIdentifiers(final Collection<String> transactionIdentifiers) {
     final Session tenantSession = this.cassandraSessionProvider.getTenantSession();
+    return allOf(transactionIdentifiers
+        .stream()
+        .map(transactionIdentifier -> tenantSession.executeAsync(
+            this.journalStatements.bind(JournalStatements.DELETE_LOOKUP, transactionIdentifier)))
+        .collect(Collectors.toList()));
+  }
 
-    final List<String> datesInBetweenRange
-        = range.stream()
-        .map(DateConverter::toIsoString)
+  /**
+   * Moves the journal entries from pending to processed, each with a lightweight transaction, since they live in
+   * different partitions. A release delivered twice finds the entries processed already.
+   *
+   * @return completes with the entries this call has moved to processed
+   */
+  public CompletableFuture<List<JournalEntryEntity>> processJournalEntries(
+      final List<JournalEntryEntity> journalEntryEntities) {
+    final Session tenantSession = this.cassandraSessionProvider.getTenantSession();
+    final List<CompletableFuture<Optional<JournalEntryEntity>>> futures = journalEntryEntities
+        .stream()
+        .map(journalEntryEntity -> toCompletableFuture(tenantSession.executeAsync(
+            this.journalStatements.bind(JournalStatements.UPDATE_STATE_IF,
+                JournalEntry.State.PROCESSED.name(), journalEntryEntity.getDateBucket(),
+                journalEntryEntity.getTransactionIdentifier(), JournalEntry.State.PENDING.name())))
+            .thenApply(resultSet -> resultSet.wasApplied()
+                ? Optional.of(journalEntryEntity)
+                : Optional.<JournalEntryEntity>empty()))
         .collect(Collectors.toList());
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]))
+        .thenApply(ignored -> futures
+            .stream()
+            .map(CompletableFuture::join)
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .collect(Collectors.toList()));
+  }
+
+  /**
+   * Writes every entry with its index rows in a logged batch of its own, like {@link #saveJournalEntry}. Batching the
+   * rows of many entries by partition would be cheaper, but a failure between those batches leaves entries without
+   * their index rows, or index rows pointing at nothing, and neither discarding nor archiving repairs the indexes.
+   */
+  public CompletableFuture<Void> saveJournalEntries(final List<JournalEntryEntity> journalEntryEntities) {
+    final Session tenantSession = this.cassandraSessionProvider.getTenantSession();
+    return allOf(journalEntryEntities
+        .stream()
+        .map(journalEntryEntity -> tenantSession.executeAsync(
+            this.saveStatement(journalEntryEntity)))
+        .collect(Collectors.toList()));
+  }
+
+  private BatchStatement saveStatement(final JournalEntryEntity journalEntryEntity) {
+    final Mapper<JournalEntryEntity> journalEntryMapper =
+        this.tenantAwareCassandraMapperProvider.getMapper(JournalEntryEntity.class);
+    final Mapper<JournalEntryAccountIndex> accountIndexMapper =
+        this.tenantAwareCassandraMapperProvider.getMapper(JournalEntryAccountIndex.class);
+    final Mapper<JournalEntryAmountIndex> amountIndexMapper =
+        this.tenantAwareCassandraMapperProvider.getMapper(JournalEntryAmountIndex.class);
+
+    // entry and index rows live in different partitions, a logged batch keeps them consistent
+    final BatchStatement batchStatement = new BatchStatement();
+    batchStatement.add(journalEntryMapper.saveQuery(journalEntryEntity));
+    this.createAccountIndexes(journalEntryEntity)
+        .forEach(accountIndex -> batchStatement.add(accountIndexMapper.saveQuery(accountIndex)));
+    batchStatement.add(amountIndexMapper.saveQuery(this.createAmountIndex(journalEntryEntity)));
+    return batchStatement;
+  }
+
+  /**
+   * Writes the account index rows of all existing journal entries, used once when the index is introduced.
+   */
+  public void indexJournalEntriesByAccount() {
+    final Session tenantSession = this.cassandraSessionProvider.getTenantSession();
+    final Mapper<JournalEntryEntity> journalEntryMapper =
+        this.tenantAwareCassandraMapperProvider.getMapper(JournalEntryEntity.class);
+    final Mapper<JournalEntryAccountIndex> accountIndexMapper =
+        this.tenantAwareCassandraMapperProvider.getMapper(JournalEntryAccountIndex.class);
+
+    final Statement stmt = QueryBuilder.select().all().from("thoth_journal_entries").setFetchSize(BACKFILL_PAGE_SIZE);
+    final List<ResultSetFuture> futures = new ArrayList<>();
+    for (final JournalEntryEntity journalEntryEntity : journalEntryMapper.map(tenantSession.execute(stmt))) {
+      this.createAccountIndexes(journalEntryEntity)
+          .forEach(accountIndex -> futures.add(tenantSession.executeAsync(accountIndexMapper.saveQuery(accountIndex))));
+      if (futures.size() >= BACKFILL_PAGE_SIZE) {
+        futures.forEach(ResultSetFuture::getUninterruptibly);
+        futures.clear();
+      }
+    }
+    futures.forEach(ResultSetFuture::getUninterruptibly);
+  }
+
+  /**
+   * Writes the total amount and the amount index rows of all existing journal entries, used once when the index is
+   * introduced.
+   */
+  public void indexJournalEntriesByAmount() {
+    final Session tenantSession = this.cassandraSessionProvider.getTenantSession();
+    final Mapper<JournalEntryEntity> journalEntryMapper =
+        this.tenantAwareCassandraMapperProvider.getMapper(JournalEntryEntity.class);
+    final Mapper<JournalEntryAmountIndex> amountIndexMapper =
+        this.tenantAwareCassandraMapperProvider.getMapper(JournalEntryAmountIndex.class);
+
+    final Statement stmt = QueryBuilder.select().all().from("thoth_journal_entries").setFetchSize(BACKFILL_PAGE_SIZE);
+    final List<ResultSetFuture> futures = new ArrayList<>();
+    for (final JournalEntryEntity journalEntryEntity : journalEntryMapper.map(tenantSession.execute(stmt))) {
+      final JournalEntryAmountIndex amountIndex = this.createAmountIndex(journalEntryEntity);
+      futures.add(tenantSession.executeAsync(this.journalStatements.bind(JournalStatements.UPDATE_TOTAL_AMOUNT,
+          amountIndex.getTotalAmount(), journalEntryEntity.getDateBucket(), journalEntryEntity.getTransactionIdentifier())));
+      futures.add(tenantSession.executeAsync(amountIndexMapper.saveQuery(amountIndex)));
+      if (futures.size() >= BACKFILL_PAGE_SIZE) {
+        futures.forEach(ResultSetFuture::getUninterruptibly);
+        futures.clear();
+      }
+    }
+    futures.forEach(ResultSetFuture::getUninterruptibly);
+  }
+
+  /**
+   * Adds the entries of all processed journal entries to the daily aggregates, used once when the aggregates are
+   * introduced.
+   */
+  public void aggregateAllJournalEntries() {
+    final Session tenantSession = this.cassandraSessionProvider.getTenantSession();
+    final Mapper<JournalEntryEntity> journalEntryMapper =
+        this.tenantAwareCassandraMapperProvider.getMapper(JournalEntryEntity.class);
+
+    final Statement stmt = QueryBuilder.select().all().from("thoth_journal_entries").setFetchSize(BACKFILL_PAGE_SIZE);
+    final List<JournalEntryEntity> processedJournalEntryEntities = new ArrayList<>(BACKFILL_PAGE_SIZE);
+    for (final JournalEntryEntity journalEntryEntity : journalEntryMapper.map(tenantSession.execute(stmt))) {
+      if (JournalEntry.State.PROCESSED.name().equals(journalEntryEntity.getState())) {
+        processedJournalEntryEntities.add(journalEntryEntity);
+      }
+      if (processedJournalEntryEntities.size() >= BACKFILL_PAGE_SIZE) {
+        this.aggregateJournalEntries(processedJournalEntryEntities).join();
+        processedJournalEntryEntities.clear();
+      }
+    }
+    this.aggregateJournalEntries(processedJournalEntryEntities).join();
+  }
+
+  /**
+   * Adds processed journal entries to the daily counters per transaction type and per account and transaction type.
+   * Counter updates are not idempotent, every journal entry must be aggregated exactly once, releases only aggregate
+   * the entries {@link #processJournalEntries(List)} has moved to processed.
+   */
+  public CompletableFuture<Void> aggregateJournalEntries(final List<JournalEntryEntity> journalEntryEntities) {
+    // sum up first, so a batch of entries of the same day and type costs a single counter update
+    final Map<List<String>, long[]> aggregates = new HashMap<>();
+    final Map<List<String>, long[]> accountAggregates = new HashMap<>();
+    journalEntryEntities.forEach(journalEntryEntity -> {
+      final LocalDate day = DateConverter.toLocalDate(journalEntryEntity.getTransactionDate());
+      final String month = YearMonth.from(day).toString();
+      final String isoDay = DateConverter.toIsoString(day);
+      final String transactionType = journalEntryEntity.getTransactionType();
+      addToAggregate(aggregates, Arrays.asList(month, isoDay, transactionType),
+          journalEntryEntity.totalAmountMinorUnits());
+
+      final Map<String, Long> volumesByAccount = new HashMap<>();
+      journalEntryEntity.getDebtors().forEach(debtorType ->
+          volumesByAccount.merge(debtorType.getAccountNumber(), debtorType.minorUnits(), Long::sum));
+      journalEntryEntity.getCreditors().forEach(creditorType ->
+          volumesByAccount.merge(creditorType.getAccountNumber(), creditorType.minorUnits(), Long::sum));
+      volumesByAccount.forEach((accountNumber, volume) ->
+          addToAggregate(accountAggregates, Arrays.asList(accountNumber, month, isoDay, transactionType), volume));
+    });
+
+    final Session tenantSession = this.cassandraSessionProvider.getTenantSession();
+    final List<ResultSetFuture> futures = new ArrayList<>(aggregates.size() + accountAggregates.size());
+    aggregates.forEach((key, aggregate) -> futures.add(tenantSession.executeAsync(
+        this.journalStatements.bind(JournalStatements.UPDATE_AGGREGATE,
+            aggregate[0], aggregate[1], key.get(0), key.get(1), key.get(2)))));
+    accountAggregates.forEach((key, aggregate) -> futures.add(tenantSession.executeAsync(
+        this.journalStatements.bind(JournalStatements.UPDATE_ACCOUNT_AGGREGATE,
+            aggregate[0], aggregate[1], key.get(0), key.get(1), key.get(2), key.get(3)))));
+    return allOf(futures);
+  }
 
-    final Statement stmt = new SimpleStatement(
-        QueryBuilder
-            .select().all()
-            .from("thoth_journal_entries")
-            .where(QueryBuilder.in("date_bucket", datesInBetweenRange)).getQueryString(),
-        datesInBetweenRange.toArray()
-    );
+  /**
+   * Reads the daily aggregates instead of the journal entries, one partition per month.
+   *
+   * @param accountNumber if given, only the entries booked on this account are counted
+   * @return the aggregates of the range per transaction type, ordered by transaction type
+   */
+  public List<JournalEntryAggregateEntity> fetchJournalEntryAggregates(final DateRange range,
+                                                                        final String accountNumber) {
+    final List<LocalDate> days = range.stream().collect(Collectors.toList());
+    if (days.isEmpty()) {
+      return new ArrayList<>();
+    }
+    final LocalDate firstDay = days.get(0);
+    final LocalDate lastDay = days.get(days.size() - 1);
 
-    final ResultSet resultSet = tenantSession.execute(stmt);
+    final List<Statement> statements = days
+        .stream()
+        .map(YearMonth::from)
+        .distinct()
+        .map(month -> {
+          final String from = DateConverter.toIsoString(firstDay.isAfter(month.atDay(1)) ? firstDay : month.atDay(1));
+          final String to = DateConverter.toIsoString(lastDay.isBefore(month.atEndOfMonth()) ? lastDay : month.atEndOfMonth());
+          return accountNumber != null
+              ? this.journalStatements.bind(JournalStatements.SELECT_ACCOUNT_AGGREGATES, accountNumber, month.toString(), from, to)
+              : this.journalStatements.bind(JournalStatements.SELECT_AGGREGATES, month.toString(), from, to);
+        })
+        .collect(Collectors.toList());
 
+    final Map<String, JournalEntryAggregateEntity> aggregatesByTransactionType = new TreeMap<>();
+    this.readBuckets(statements, ResultSet::all).forEach(rows -> rows.forEach(row ->
+        aggregatesByTransactionType
+            .computeIfAbsent(row.getString("transaction_type"), JournalEntryAggregateEntity::new)
+            .add(row.getLong("entry_count"), row.getLong("volume"))));
+    return new ArrayList<>(aggregatesByTransactionType.values());
+  }
+
+  /**
+   * @return the journal entries of the range, ordered by transaction date
+   */
+  public List<JournalEntryEntity> fetchJournalEntries(final DateRange range) {
     final Mapper<JournalEntryEntity> mapper = this.tenantAwareCassandraMapperProvider.getMapper(JournalEntryEntity.class);
-    final Result<JournalEntryEntity> journalEntryEntities = mapper.map(resultSet);
-    return journalEntryEntities.all();
+    final List<List<String>> bucketsPerDay = range.stream()
+        .map(this.journalBuckets::bucketsOf)
+        .collect(Collectors.toList());
+    final List<Statement> statements = bucketsPerDay.stream()
+        .flatMap(List::stream)
+        .map(bucket -> this.journalStatements.bind(JournalStatements.SELECT_BY_DATE_BUCKET, bucket))
+        .collect(Collectors.toList());
+    final List<List<JournalEntryEntity>> entriesPerBucket =
+        this.readBuckets(statements, resultSet -> mapper.map(resultSet).all());
+
+    // buckets only hold a single day, so merging the shards of a day and keeping day order gives date order
+    final List<JournalEntryEntity> journalEntryEntities = new ArrayList<>();
+    final Iterator<List<JournalEntryEntity>> bucketEntries = entriesPerBucket.iterator();
+    bucketsPerDay.forEach(buckets -> {
+      final List<JournalEntryEntity> dayEntries = new ArrayList<>();
+      buckets.forEach(bucket -> dayEntries.addAll(bucketEntries.next()));
+      dayEntries.sort(Comparator.comparing(JournalEntryEntity::getTransactionDate));
+      journalEntryEntities.addAll(dayEntries);
+    });
+    return this.withArchivedJournalEntries(journalEntryEntities, range, JournalSegment::readAll);
+  }
+
+  /**
+   * Reads only the journal entries with the given total amount, using the amount index to find them.
+   *
+   * @return the journal entries of the range, ordered by transaction date
+   */
+  public List<JournalEntryEntity> fetchJournalEntries(final DateRange range, final long totalAmount) {
+    final Mapper<JournalEntryAmountIndex> mapper =
+        this.tenantAwareCassandraMapperProvider.getMapper(JournalEntryAmountIndex.class);
+    final List<Statement> statements = range.stream()
+        .map(day -> this.journalStatements.bind(JournalStatements.SELECT_AMOUNT_INDEX,
+            DateConverter.toIsoString(day), totalAmount))
+        .collect(Collectors.toList());
+
+    final Map<String, List<String>> transactionIdentifiersByDateBucket = new HashMap<>();
+    this.readBuckets(statements, resultSet -> mapper.map(resultSet).all()).forEach(amountIndexes -> amountIndexes.forEach(amountIndex ->
+        transactionIdentifiersByDateBucket
+            .computeIfAbsent(JournalBuckets.bucketOf(amountIndex.getDateBucket(), amountIndex.getShard()),
+                dateBucket -> new ArrayList<>())
+            .add(amountIndex.getTransactionIdentifier())));
+
+    // archived entries have no amount index rows left, segments are local and cheap to scan
+    return this.withArchivedJournalEntries(
+        this.fetchJournalEntries(this.cassandraSessionProvider.getTenantSession(), transactionIdentifiersByDateBucket),
+        range,
+        journalSegment -> journalSegment.readAll()
+            .stream()
+            .filter(journalEntryEntity -> journalEntryEntity.totalAmountMinorUnits() == totalAmount)
+            .collect(Collectors.toList()));
+  }
+
+  /**
+   * Reads only the journal entries of the given account, using the account index to find them.
+   */
+  public List<JournalEntryEntity> fetchJournalEntries(final DateRange range, final String accountNumber) {
+    return this.withArchivedJournalEntries(
+        this.fetchJournalEntries(this.cassandraSessionProvider.getTenantSession(),
+            this.transactionIdentifiersOf(range, accountNumber)),
+        range,
+        journalSegment -> journalSegment.readAll(accountNumber));
+  }
+
+  /**
+   * Reads only the columns listings need, see {@link JournalEntrySummaryEntity}.
+   *
+   * @param accountNumber if given, only the entries of this account are read using the account index
+   * @return the summaries of the range, ordered by transaction date
+   */
+  public List<JournalEntrySummaryEntity> fetchJournalEntrySummaries(final DateRange range, final String accountNumber) {
+    final Function<ResultSet, List<JournalEntrySummaryEntity>> summaryMapper = resultSet -> {
+      final List<JournalEntrySummaryEntity> summaries = new ArrayList<>();
+      resultSet.forEach(row -> summaries.add(JournalEntrySummaryEntity.of(row)));
+      return summaries;
+    };
+
+    final List<Statement> statements;
+    if (accountNumber != null) {
+      statements = this.transactionIdentifiersOf(range, accountNumber).entrySet()
+          .stream()
+          .map(entry -> this.journalStatements.bind(JournalStatements.SELECT_SUMMARY_BY_TRANSACTION_IDENTIFIERS,
+              entry.getKey(), entry.getValue()))
+          .collect(Collectors.toList());
+    } else {
+      statements = range.stream()
+          .flatMap(day -> this.journalBuckets.bucketsOf(day).stream())
+          .map(bucket -> this.journalStatements.bind(JournalStatements.SELECT_SUMMARY_BY_DATE_BUCKET, bucket))
+          .collect(Collectors.toList());
+    }
+
+    final List<JournalEntrySummaryEntity> summaries = new ArrayList<>();
+    this.readBuckets(statements, summaryMapper).forEach(summaries::addAll);
+    if (this.journalArchive.isEnabled()) {
+      final Set<String> liveTransactionIdentifiers = summaries
+          .stream()
+          .map(JournalEntrySummaryEntity::getTransactionIdentifier)
+          .collect(Collectors.toSet());
+      this.fetchArchivedJournalEntries(range, journalSegment ->
+          accountNumber != null ? journalSegment.readAll(accountNumber) : journalSegment.readAll())
+          .stream()
+          .filter(journalEntryEntity -> !liveTransactionIdentifiers.contains(journalEntryEntity.getTransactionIdentifier()))
+          .forEach(journalEntryEntity -> summaries.add(JournalEntrySummaryEntity.of(journalEntryEntity)));
+    }
+    summaries.sort(Comparator.comparing(JournalEntrySummaryEntity::getTransactionDate));
+    return summaries;
+  }
+
+  private Map<String, List<String>> transactionIdentifiersOf(final DateRange range, final String accountNumber) {
+    final List<LocalDate> days = range.stream().collect(Collectors.toList());
+    if (days.isEmpty()) {
+      return new HashMap<>();
+    }
+    final Date from = DateConverter.toDate(days.get(0).atStartOfDay());
+    final Date to = DateConverter.toDate(days.get(days.size() - 1).plusDays(1L).atStartOfDay());
+
+    final Session tenantSession = this.cassandraSessionProvider.getTenantSession();
+    final Mapper<JournalEntryAccountIndex> accountIndexMapper =
+        this.tenantAwareCassandraMapperProvider.getMapper(JournalEntryAccountIndex.class);
+    final List<ResultSetFuture> accountIndexFutures = days
+        .stream()
+        .map(YearMonth::from)
+        .distinct()
+        .map(month -> tenantSession.executeAsync(
+            this.journalStatements.bind(JournalStatements.SELECT_ACCOUNT_INDEX, accountNumber, month.toString(), from, to)))
+        .collect(Collectors.toList());
+
+    final Map<String, List<String>> transactionIdentifiersByDateBucket = new HashMap<>();
+    accountIndexFutures.forEach(future ->
+        accountIndexMapper.map(future.getUninterruptibly()).forEach(accountIndex ->
+            transactionIdentifiersByDateBucket
+                .computeIfAbsent(accountIndex.getDateBucket(), dateBucket -> new ArrayList<>())
+                .add(accountIndex.getTransactionIdentifier())));
+    return transactionIdentifiersByDateBucket;
+  }
+
+
+  /**
+   * With the archive enabled, the archived days of the range are paged through first, followed by everything still
+   * in Cassandra. Entries are only ordered within a page. If the archive has been disabled since an archive token
+   * was handed out, paging continues with the live entries from their start, archived entries are no longer there.
+   */
+  public JournalEntryEntityPage fetchJournalEntryPage(final DateRange range, final String accountNumber,
+                                                      final JournalPageToken pageToken, final int pageSize) {
+    final List<LocalDate> days = range.stream().collect(Collectors.toList());
+    if (days.isEmpty()) {
+      return new JournalEntryEntityPage(new ArrayList<>(), null);
+    }
+
+    if (this.journalArchive.isEnabled() && (pageToken == null || pageToken.isArchived())) {
+      final JournalEntryEntityPage archivedPage =
+          this.fetchArchivedJournalEntryPage(days, accountNumber, pageToken, pageSize);
+      if (!archivedPage.getJournalEntryEntities().isEmpty()) {
+        return archivedPage;
+      }
+      return this.fetchLiveJournalEntryPage(days, accountNumber, null, pageSize);
+    }
+    return this.fetchLiveJournalEntryPage(days, accountNumber,
+        pageToken != null && !pageToken.isArchived() ? pageToken : null, pageSize);
   }
 
-  public Optional<JournalEntryEntity> findJournalEntry(final String transactionIdentifier) {
-    final Optional<JournalEntryLookup> optionalJournalEntryLookup = this.tenantAwareEntityTemplate.findById(JournalEntryLookup.class, transactionIdentifier);
-    if (optionalJournalEntryLookup.isPresent()) {
-      final JournalEntryLookup journalEntryLookup = optionalJournalEntryLookup.get();
-      final List<JournalEntryEntity> journalEntryEntities = this.tenantAwareEntityTemplate.fetchByKeys(JournalEntryEntity.class, journalEntryLookup.getDateBucket(),
-          journalEntryLookup.getTransactionIdentifier());
-      return Optional.of(journalEntryEntities.get(0));
+  /**
+   * Pages through the date buckets of the range one after the other, or through the months of the account index if
+   * an account is given. Live tokens hold the position of the bucket in the range and the driver's paging state
+   * within it.
+   */
+  private JournalEntryEntityPage fetchLiveJournalEntryPage(final List<LocalDate> days, final String accountNumber,
+                                                           final JournalPageToken pageToken, final int pageSize) {
+    final int position = pageToken != null ? pageToken.getPosition() : 0;
+    final String pagingState = pageToken != null ? pageToken.getPagingState() : null;
+
+    final Session tenantSession = this.cassandraSessionProvider.getTenantSession();
+    if (accountNumber == null) {
+      final List<String> buckets = days.stream()
+          .flatMap(day -> this.journalBuckets.bucketsOf(day).stream())
+          .collect(Collectors.toList());
+      final List<JournalEntryEntity> journalEntryEntities = new ArrayList<>(pageSize);
+      final String nextPage = this.readLivePage(buckets,
+          bucket -> this.journalStatements.bind(JournalStatements.SELECT_BY_DATE_BUCKET, bucket),
+          this.tenantAwareCassandraMapperProvider.getMapper(JournalEntryEntity.class),
+          position, pagingState, pageSize, journalEntryEntities);
+      return new JournalEntryEntityPage(this.withoutArchivedJournalEntries(journalEntryEntities), nextPage);
     } else {
-      return Optional.empty();
+      final List<String> months = days.stream()
+          .map(YearMonth::from)
+          .distinct()
+          .map(YearMonth::toString)
+          .collect(Collectors.toList());
+      final Date from = DateConverter.toDate(days.get(0).atStartOfDay());
+      final Date to = DateConverter.toDate(days.get(days.size() - 1).plusDays(1L).atStartOfDay());
+      final List<JournalEntryAccountIndex> accountIndexes = new ArrayList<>(pageSize);
+      final String nextPage = this.readLivePage(months,
+          month -> this.journalStatements.bind(JournalStatements.SELECT_ACCOUNT_INDEX, accountNumber, month, from, to),
+          this.tenantAwareCassandraMapperProvider.getMapper(JournalEntryAccountIndex.class),
+          position, pagingState, pageSize, accountIndexes);
+
+      final Map<String, List<String>> transactionIdentifiersByDateBucket = new HashMap<>();
+      accountIndexes.forEach(accountIndex -> transactionIdentifiersByDateBucket
+          .computeIfAbsent(accountIndex.getDateBucket(), dateBucket -> new ArrayList<>())
+          .add(accountIndex.getTransactionIdentifier()));
+      return new JournalEntryEntityPage(this.withoutArchivedJournalEntries(
+          this.fetchJournalEntries(tenantSession, transactionIdentifiersByDateBucket)), nextPage);
+    }
+  }
+
+  /**
+   * Leaves out live entries already written to the segment of their day. An archiver deletes the rows only after the
+   * segment is complete, paging through the archive first would otherwise return them twice in the meantime.
+   */
+  private List<JournalEntryEntity> withoutArchivedJournalEntries(final List<JournalEntryEntity> journalEntryEntities) {
+    if (!this.journalArchive.isEnabled()) {
+      return journalEntryEntities;
+    }
+    final String tenantIdentifier = TenantContextHolder.checkedGetIdentifier();
+    final Set<LocalDate> archivedDays = this.journalArchive.findArchivedDays(tenantIdentifier);
+    return journalEntryEntities
+        .stream()
+        .filter(journalEntryEntity -> {
+          final LocalDate day =
+              DateConverter.dateFromIsoString(JournalBuckets.dayOf(journalEntryEntity.getDateBucket()));
+          return !archivedDays.contains(day) || !this.journalArchive.openSegment(tenantIdentifier, day)
+              .contains(journalEntryEntity.getTransactionIdentifier());
+        })
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Reads the partitions from the given position on until the page is full. Partitions are read through
+   * {@link #readBuckets(List, Function)}, starting with a single one and doubling up to {@code journal.readConcurrency}
+   * while they come back short, so sparse ranges do not turn into one round trip per bucket. A partition is taken
+   * whole or up to the paging state the driver returned for it, a page stops short rather than split a partition
+   * some other way.
+   *
+   * @return the token of the next page, null if all partitions have been read
+   */
+  private <T> String readLivePage(final List<String> partitions,
+                                  final Function<String, Statement> statementOf,
+                                  final Mapper<T> mapper,
+                                  final int fromPosition,
+                                  final String fromPagingState,
+                                  final int pageSize,
+                                  final List<T> rows) {
+    int position = fromPosition;
+    String pagingState = fromPagingState;
+    int window = 1;
+    boolean pageComplete = false;
+    while (!pageComplete && position < partitions.size() && rows.size() < pageSize) {
+      final int fetchSize = pageSize - rows.size();
+      final List<Statement> statements = new ArrayList<>(window);
+      for (int i = position; i < Math.min(partitions.size(), position + window); i++) {
+        final Statement statement = statementOf.apply(partitions.get(i));
+        statement.setFetchSize(fetchSize);
+        if (i == position && pagingState != null) {
+          statement.setPagingState(PagingState.fromString(pagingState));
+        }
+        statements.add(statement);
+      }
+
+      final List<BucketSlice<T>> bucketSlices =
+          this.readBuckets(statements, resultSet -> BucketSlice.of(resultSet, mapper));
+      for (final BucketSlice<T> bucketSlice : bucketSlices) {
+        if (bucketSlice.rows.size() > pageSize - rows.size()) {
+          // can only happen past the first partition of the window, which was read from its start
+          pagingState = null;
+          pageComplete = true;
+          break;
+        }
+        rows.addAll(bucketSlice.rows);
+        if (bucketSlice.pagingState != null) {
+          pagingState = bucketSlice.pagingState;
+          pageComplete = true;
+          break;
+        }
+        position++;
+        pagingState = null;
+      }
+      window = Math.min(this.readConcurrency, window * 2);
+    }
+
+    if (position >= partitions.size()) {
+      return null;
+    }
+    return JournalPageToken.live(position, pagingState).toString();
+  }
+
+  private List<JournalEntryEntity> fetchJournalEntries(final Session tenantSession,
+                                                       final Map<String, List<String>> transactionIdentifiersByDateBucket) {
+    final Mapper<JournalEntryEntity> journalEntryMapper =
+        this.tenantAwareCassandraMapperProvider.getMapper(JournalEntryEntity.class);
+    final List<ResultSetFuture> journalEntryFutures = transactionIdentifiersByDateBucket.entrySet()
+        .stream()
+        .map(entry -> tenantSession.executeAsync(
+            this.journalStatements.bind(JournalStatements.SELECT_BY_TRANSACTION_IDENTIFIERS, entry.getKey(), entry.getValue())))
+        .collect(Collectors.toList());
+
+    final List<JournalEntryEntity> journalEntryEntities = new ArrayList<>();
+    journalEntryFutures.forEach(future ->
+        journalEntryEntities.addAll(journalEntryMapper.map(future.getUninterruptibly()).all()));
+    return journalEntryEntities;
+  }
+
+  public CompletableFuture<Optional<JournalEntryEntity>> findJournalEntry(final String transactionIdentifier) {
+    // resolve everything tenant specific up front, the continuation runs on a driver thread without tenant context
+    final String tenantIdentifier = TenantContextHolder.checkedGetIdentifier();
+    final Session tenantSession = this.cassandraSessionProvider.getTenantSession();
+    final Mapper<JournalEntryLookup> lookupMapper =
+        this.tenantAwareCassandraMapperProvider.getMapper(JournalEntryLookup.class);
+    final Mapper<JournalEntryEntity> journalEntryMapper =
+        this.tenantAwareCassandraMapperProvider.getMapper(JournalEntryEntity.class);
+    final PreparedStatement selectEntry = this.journalStatements.prepare(JournalStatements.SELECT_BY_TRANSACTION_IDENTIFIER);
+
+    return toCompletableFuture(
+        tenantSession.executeAsync(this.journalStatements.bind(JournalStatements.SELECT_LOOKUP, transactionIdentifier)))
+        .thenCompose(lookupResultSet -> {
+          final JournalEntryLookup journalEntryLookup = lookupMapper.map(lookupResultSet).one();
+          if (journalEntryLookup == null) {
+            return CompletableFuture.completedFuture(Optional.empty());
+          }
+          return toCompletableFuture(tenantSession.executeAsync(
+              selectEntry.bind(journalEntryLookup.getDateBucket(), journalEntryLookup.getTransactionIdentifier())))
+              .thenCompose(entryResultSet -> {
+                final JournalEntryEntity journalEntryEntity = journalEntryMapper.map(entryResultSet).one();
+                if (journalEntryEntity != null || !this.journalArchive.isEnabled()) {
+                  return CompletableFuture.completedFuture(Optional.ofNullable(journalEntryEntity));
+                }
+                // lookups are kept when a day is archived, opening the segment reads from disk so leave the driver thread
+                final LocalDate day = DateConverter.dateFromIsoString(JournalBuckets.dayOf(journalEntryLookup.getDateBucket()));
+                return this.journalArchive.readAsync(() -> this.journalArchive.findSegment(tenantIdentifier, day)
+                    .map(journalSegment -> journalSegment.find(transactionIdentifier)));
+              });
+        });
+  }
+
+  /**
+   * Removes the journal entries together with their index rows, used once they have been archived or discarded. The
+   * lookups stay, so archived transaction identifiers can neither be claimed again nor go missing, discarded ones
+   * have to be released on their own.
+   */
+  public CompletableFuture<Void> deleteJournalEntries(final List<JournalEntryEntity> journalEntryEntities) {
+    final Session tenantSession = this.cassandraSessionProvider.getTenantSession();
+    return allOf(journalEntryEntities
+        .stream()
+        .map(journalEntryEntity -> {
+          final BatchStatement batchStatement = new BatchStatement();
+          batchStatement.add(this.journalStatements.bind(JournalStatements.DELETE_ENTRY,
+              journalEntryEntity.getDateBucket(), journalEntryEntity.getTransactionIdentifier()));
+          this.createAccountIndexes(journalEntryEntity).forEach(accountIndex ->
+              batchStatement.add(this.journalStatements.bind(JournalStatements.DELETE_ACCOUNT_INDEX,
+                  accountIndex.getAccountNumber(), accountIndex.getMonth(),
+                  DateConverter.toDate(accountIndex.getTransactionDate()), accountIndex.getTransactionIdentifier())));
+          final JournalEntryAmountIndex amountIndex = this.createAmountIndex(journalEntryEntity);
+          batchStatement.add(this.journalStatements.bind(JournalStatements.DELETE_AMOUNT_INDEX,
+              amountIndex.getDateBucket(), amountIndex.getTotalAmount(), amountIndex.getTransactionIdentifier()));
+          return tenantSession.executeAsync(batchStatement);
+        })
+        .collect(Collectors.toList()));
+  }
+
+  private JournalEntryEntityPage fetchArchivedJournalEntryPage(final List<LocalDate> days, final String accountNumber,
+                                                               final JournalPageToken pageToken,
+                                                               final int pageSize) {
+    // archive tokens point at the next entry to read
+    final LocalDate fromDay = pageToken != null ? pageToken.getDay() : days.get(0);
+    final int fromEntry = pageToken != null ? pageToken.getPosition() : 0;
+
+    final String tenantIdentifier = TenantContextHolder.checkedGetIdentifier();
+    final Set<LocalDate> archivedDays = this.journalArchive.findArchivedDays(tenantIdentifier);
+    final List<JournalEntryEntity> journalEntryEntities = new ArrayList<>(pageSize);
+    for (final LocalDate day : days) {
+      if (day.isBefore(fromDay) || !archivedDays.contains(day)) {
+        continue;
+      }
+      final JournalSegment journalSegment = this.journalArchive.openSegment(tenantIdentifier, day);
+      final int[] entryNumbers = accountNumber != null ? journalSegment.entryNumbersOf(accountNumber) : null;
+      final int size = entryNumbers != null ? entryNumbers.length : journalSegment.size();
+      for (int i = day.equals(fromDay) ? fromEntry : 0; i < size; i++) {
+        if (journalEntryEntities.size() == pageSize) {
+          return new JournalEntryEntityPage(journalEntryEntities, JournalPageToken.archived(day, i).toString());
+        }
+        journalEntryEntities.add(journalSegment.read(entryNumbers != null ? entryNumbers[i] : i));
+      }
+    }
+    return new JournalEntryEntityPage(journalEntryEntities, JournalPageToken.live(0, null).toString());
+  }
+
+  /**
+   * Adds the entries of the archived days in the range. Entries still found in Cassandra take precedence, they are
+   * either booked into the day after it had been archived or about to be removed by a running archiver.
+   *
+   * @return all entries ordered by transaction date
+   */
+  private List<JournalEntryEntity> withArchivedJournalEntries(
+      final List<JournalEntryEntity> liveJournalEntryEntities,
+      final DateRange range,
+      final Function<JournalSegment, List<JournalEntryEntity>> segmentReader) {
+    if (this.journalArchive.isEnabled()) {
+      final Set<String> liveTransactionIdentifiers = liveJournalEntryEntities
+          .stream()
+          .map(JournalEntryEntity::getTransactionIdentifier)
+          .collect(Collectors.toSet());
+      this.fetchArchivedJournalEntries(range, segmentReader)
+          .stream()
+          .filter(journalEntryEntity -> !liveTransactionIdentifiers.contains(journalEntryEntity.getTransactionIdentifier()))
+          .forEach(liveJournalEntryEntities::add);
+    }
+    liveJournalEntryEntities.sort(Comparator.comparing(JournalEntryEntity::getTransactionDate));
+    return liveJournalEntryEntities;
+  }
+
+  private List<JournalEntryEntity> fetchArchivedJournalEntries(
+      final DateRange range,
+      final Function<JournalSegment, List<JournalEntryEntity>> segmentReader) {
+    final String tenantIdentifier = TenantContextHolder.checkedGetIdentifier();
+    final Set<LocalDate> archivedDays = this.journalArchive.findArchivedDays(tenantIdentifier);
+    final List<JournalEntryEntity> journalEntryEntities = new ArrayList<>();
+    range.stream()
+        .filter(archivedDays::contains)
+        .forEach(day -> journalEntryEntities.addAll(
+            segmentReader.apply(this.journalArchive.openSegment(tenantIdentifier, day))));
+    return journalEntryEntities;
+  }
+
+  private List<JournalEntryAccountIndex> createAccountIndexes(final JournalEntryEntity journalEntryEntity) {
+    final Set<String> accountNumbers = new HashSet<>();
+    journalEntryEntity.getDebtors().forEach(debtorType -> accountNumbers.add(debtorType.getAccountNumber()));
+    journalEntryEntity.getCreditors().forEach(creditorType -> accountNumbers.add(creditorType.getAccountNumber()));
+
+    final String month = YearMonth.from(journalEntryEntity.getTransactionDate()).toString();
+    return accountNumbers
+        .stream()
+        .map(accountNumber -> {
+          final JournalEntryAccountIndex accountIndex = new JournalEntryAccountIndex();
+          accountIndex.setAccountNumber(accountNumber);
+          accountIndex.setMonth(month);
+          accountIndex.setTransactionDate(journalEntryEntity.getTransactionDate());
+          accountIndex.setTransactionIdentifier(journalEntryEntity.getTransactionIdentifier());
+          accountIndex.setDateBucket(journalEntryEntity.getDateBucket());
+          return accountIndex;
+        })
+        .collect(Collectors.toList());
+  }
+
+  private JournalEntryAmountIndex createAmountIndex(final JournalEntryEntity journalEntryEntity) {
+    final JournalEntryAmountIndex amountIndex = new JournalEntryAmountIndex();
+    // the amount index is read by day, the shard is kept to find the entry's partition
+    amountIndex.setDateBucket(JournalBuckets.dayOf(journalEntryEntity.getDateBucket()));
+    amountIndex.setShard(JournalBuckets.shardOfBucket(journalEntryEntity.getDateBucket()));
+    amountIndex.setTotalAmount(journalEntryEntity.totalAmountMinorUnits());
+    amountIndex.setTransactionIdentifier(journalEntryEntity.getTransactionIdentifier());
+    return amountIndex;
+  }
+
+  private static void addToAggregate(final Map<List<String>, long[]> aggregates, final List<String> key,
+                                     final long volume) {
+    final long[] aggregate = aggregates.computeIfAbsent(key, k -> new long[2]);
+    aggregate[0]++;
+    aggregate[1] += volume;
+  }
+
+  private static CompletableFuture<ResultSet> toCompletableFuture(final ResultSetFuture resultSetFuture) {
+    final CompletableFuture<ResultSet> completableFuture = new CompletableFuture<>();
+    Futures.addCallback(resultSetFuture, new FutureCallback<ResultSet>() {
+      @Override
+      public void onSuccess(final ResultSet resultSet) {
+        completableFuture.complete(resultSet);
+      }
+
+      @Override
+      public void onFailure(final Throwable throwable) {
+        completableFuture.completeExceptionally(throwable);
+      }
+    }, MoreExecutors.directExecutor());
+    return completableFuture;
+  }
+
+  private static CompletableFuture<Void> allOf(final List<ResultSetFuture> resultSetFutures) {
+    return CompletableFuture.allOf(resultSetFutures
+        .stream()
+        .map(JournalEntryRepository::toCompletableFuture)
+        .toArray(CompletableFuture[]::new));
+  }
+
+  /**
+   * Runs one statement per date bucket, keeping at most {@code journal.readConcurrency} reads in flight. A single
+   * multi-partition IN query would leave the whole fan-out to one coordinator and time out for long ranges.
+   *
+   * @return the mapped rows per statement, in the order of the statements
+   */
+  private <T> List<T> readBuckets(final List<Statement> statements,
+                                  final Function<ResultSet, T> rowMapper) {
+    final Session tenantSession = this.cassandraSessionProvider.getTenantSession();
+    final ResultSetFuture[] futures = new ResultSetFuture[statements.size()];
+    final BlockingQueue<Integer> completed = new ArrayBlockingQueue<>(Math.max(1, statements.size()));
+    final Semaphore inFlight = new Semaphore(this.readConcurrency);
+
+    try {
+      for (int i = 0; i < futures.length; i++) {
+        inFlight.acquire();
+        final int index = i;
+        final long started = System.nanoTime();
+        futures[index] = tenantSession.executeAsync(statements.get(index));
+        // only bookkeeping here, mapping could fetch further pages and must not block the driver's I/O thread
+        futures[index].addListener(() -> {
+          this.readStatistics.record(System.nanoTime() - started, !isSuccessful(futures[index]));
+          inFlight.release();
+          completed.add(index);
+        }, MoreExecutors.directExecutor());
+      }
+
+      // map buckets as they arrive
+      final List<T> rowsPerStatement = new ArrayList<>(Collections.nCopies(futures.length, null));
+      for (int i = 0; i < futures.length; i++) {
+        final int index = completed.take();
+        rowsPerStatement.set(index, rowMapper.apply(futures[index].getUninterruptibly()));
+      }
+      return rowsPerStatement;
+    } catch (final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      Arrays.stream(futures).filter(Objects::nonNull).forEach(future -> future.cancel(true));
+      throw new IllegalStateException("Interrupted while reading journal entries.", ex);
+    } catch (final RuntimeException ex) {
+      Arrays.stream(futures).filter(Objects::nonNull).forEach(future -> future.cancel(true));
+      throw ex;
+    }
+  }
+
+  /**
+   * The rows of a partition the driver already holds, and the paging state to read the rest if there is more.
+   */
+  private static final class BucketSlice<T> {
+
+    private final List<T> rows;
+    private final String pagingState;
+
+    private BucketSlice(final List<T> rows, final String pagingState) {
+      super();
+      this.rows = rows;
+      this.pagingState = pagingState;
+    }
+
+    private static <T> BucketSlice<T> of(final ResultSet resultSet, final Mapper<T> mapper) {
+      // only consume what the driver already holds, iterating further would silently fetch the next page
+      final int available = resultSet.getAvailableWithoutFetching();
+      final PagingState pagingState = resultSet.getExecutionInfo().getPagingState();
+      final Result<T> result = mapper.map(resultSet);
+      final List<T> rows = new ArrayList<>(available);
+      for (int i = 0; i < available; i++) {
+        rows.add(result.one());
+      }
+      return new BucketSlice<>(rows, pagingState != null ? pagingState.toString() : null);
+    }
+  }
+
+  private static boolean isSuccessful(final ResultSetFuture future) {
+    try {
+      future.getUninterruptibly();
+      return true;
+    } catch (final RuntimeException ex) {
+      return false;
     }
   }
 }
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.repository;
+
+import com.datastax.driver.core.Row;
+import java.time.LocalDateTime;
+import org.apache.fineract.cn.lang.DateConverter;
+
+/**
+ * The few columns of a journal entry listings need, read without the note, message and frozen debtor and creditor
+ * sets.
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class JournalEntrySummaryEntity {
+
+  static final String[] COLUMNS =
+      {"transaction_identifier", "transaction_date", "transaction_type", "state", "total_amount"};
+
+  private final String transactionIdentifier;
+  private final LocalDateTime transactionDate;
+  private final String transactionType;
+  private final String state;
+  private final Long totalAmount;
+
+  private JournalEntrySummaryEntity(final String transactionIdentifier, final LocalDateTime transactionDate,
+                                    final String transactionType, final String state, final Long totalAmount) {
+    super();
+    this.transactionIdentifier = transactionIdentifier;
+    this.transactionDate = transactionDate;
+    this.transactionType = transactionType;
+    this.state = state;
+    this.totalAmount = totalAmount;
+  }
+
+  static JournalEntrySummaryEntity of(final Row row) {
+    return new JournalEntrySummaryEntity(
+        row.getString("transaction_identifier"),
+        DateConverter.fromDate(row.getTimestamp("transaction_date")),
+        row.getString("transaction_type"),
+        row.getString("state"),
+        row.isNull("total_amount") ? null : row.getLong("total_amount"));
+  }
+
+  static JournalEntrySummaryEntity of(final JournalEntryEntity journalEntryEntity) {
+    return new JournalEntrySummaryEntity(
+        journalEntryEntity.getTransactionIdentifier(),
+        journalEntryEntity.getTransactionDate(),
+        journalEntryEntity.getTransactionType(),
+        journalEntryEntity.getState(),
+        journalEntryEntity.getTotalAmount());
+  }
+
+  public String getTransactionIdentifier() {
+    return this.transactionIdentifier;
+  }
+
+  public LocalDateTime getTransactionDate() {
+    return this.transactionDate;
+  }
+
+  public String getTransactionType() {
+    return this.transactionType;
+  }
+
+  public String getState() {
+    return this.state;
+  }
+
+  /**
+   * @return the total amount in minor units, null for entries written before the total was stored and not yet
+   * backfilled
+   */
+  public Long getTotalAmount() {
+    return this.totalAmount;
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.repository;
+
+import com.datastax.driver.core.PagingState;
+import com.datastax.driver.core.exceptions.PagingStateException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import org.apache.fineract.cn.lang.DateConverter;
+
+/**
+ * Position of a page of journal entries, either the next entry of an archived day, e.g. archive:2017-06-24:15, or
+ * the position of the live partition in the range and the driver's paging state within it, e.g. live:12:0012001000.
+ */
+public final class JournalPageToken {
+
+  private static final String ARCHIVE_PREFIX = "archive:";
+  private static final String LIVE_PREFIX = "live:";
+
+  private final boolean archived;
+  private final LocalDate day;
+  private final int position;
+  private final String pagingState;
+
+  private JournalPageToken(final boolean archived, final LocalDate day, final int position,
+                           final String pagingState) {
+    super();
+    this.archived = archived;
+    this.day = day;
+    this.position = position;
+    this.pagingState = pagingState;
+  }
+
+  static JournalPageToken archived(final LocalDate day, final int entryNumber) {
+    return new JournalPageToken(true, day, entryNumber, null);
+  }
+
+  static JournalPageToken live(final int position, final String pagingState) {
+    return new JournalPageToken(false, null, position, pagingState);
+  }
+
+  /**
+   * @throws IllegalArgumentException if the token was not handed out as the token of a next page
+   */
+  public static JournalPageToken parse(final String pageToken) {
+    try {
+      if (pageToken.startsWith(ARCHIVE_PREFIX)) {
+        final String[] archivePosition = pageToken.substring(ARCHIVE_PREFIX.length()).split(":", -1);
+        if (archivePosition.length != 2) {
+          throw new IllegalArgumentException("Malformed archive page token.");
+        }
+        return archived(DateConverter.dateFromIsoString(archivePosition[0]),
+            nonNegative(Integer.parseInt(archivePosition[1])));
+      }
+      if (pageToken.startsWith(LIVE_PREFIX)) {
+        final String[] livePosition = pageToken.substring(LIVE_PREFIX.length()).split(":", 2);
+        if (livePosition.length != 2) {
+          throw new IllegalArgumentException("Malformed live page token.");
+        }
+        final String pagingState = livePosition[1].isEmpty() ? null : livePosition[1];
+        if (pagingState != null) {
+          PagingState.fromString(pagingState);
+        }
+        return live(nonNegative(Integer.parseInt(livePosition[0])), pagingState);
+      }
+    } catch (final DateTimeException | PagingStateException ex) {
+      throw new IllegalArgumentException("Malformed page token.", ex);
+    }
+    throw new IllegalArgumentException("Malformed page token.");
+  }
+
+  private static int nonNegative(final int position) {
+    if (position < 0) {
+      throw new IllegalArgumentException("Malformed page token.");
+    }
+    return position;
+  }
+
+  public boolean isArchived() {
+    return this.archived;
+  }
+
+  /**
+   * @return the archived day to continue with, null for live tokens
+   */
+  public LocalDate getDay() {
+    return this.day;
+  }
+
+  /**
+   * @return the entry number within the archived day, or the position of the live partition
+   */
+  public int getPosition() {
+    return this.position;
+  }
+
+  /**
+   * @return the driver's paging state within the live partition, null to read it from its start
+   */
+  public String getPagingState() {
+    return this.pagingState;
+  }
+
+  @Override
+  public String toString() {
+    if (this.archived) {
+      return ARCHIVE_PREFIX + DateConverter.toIsoString(this.day) + ":" + this.position;
+    }
+    return LIVE_PREFIX + this.position + ":" + (this.pagingState != null ? this.pagingState : "");
+  }
+}
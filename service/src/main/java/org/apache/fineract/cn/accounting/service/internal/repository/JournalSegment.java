@@ -0,0 +1,378 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.repository;
+
+import org.apache.fineract.cn.accounting.service.internal.money.Money;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.apache.fineract.cn.lang.DateConverter;
+
+/**
+ * An immutable file holding the journal entries of one archived day, memory mapped for reading.
+ *
+ * <p>Every entry is deflated on its own, so a single entry can be read without inflating the rest of the day. The
+ * entries are followed by an index of their offsets by transaction identifier and by account. The file is mapped in
+ * regions of at most 1 GiB, so a day may grow beyond what a single mapping can address.</p>
+ *
+ * <pre>
+ * header:  magic (int), version (int), number of entries (int), index offset (long)
+ * entries: deflated entry ...
+ * index:   per entry: transaction identifier, offset (long), deflated length (int), inflated length (int)
+ *          number of accounts (int), per account: account number, number of entries (int), entry numbers (int ...)
+ * </pre>
+ */
+public final class JournalSegment {
+
+  private static final int MAGIC = 0x54484f54;
+  private static final int VERSION = 1;
+  private static final int HEADER_LENGTH = 4 + 4 + 4 + 8;
+  private static final int INDEX_OFFSET_POSITION = 4 + 4 + 4;
+  private static final long REGION_SIZE = 1L << 30;
+
+  private final MappedByteBuffer[] regions;
+  private final String[] transactionIdentifiers;
+  private final long[] offsets;
+  private final int[] deflatedLengths;
+  private final int[] inflatedLengths;
+  private final Map<String, Integer> entryNumbersByTransactionIdentifier;
+  private final Map<String, int[]> entryNumbersByAccount;
+
+  private JournalSegment(final MappedByteBuffer[] regions, final long length) {
+    super();
+    this.regions = regions;
+
+    final ByteBuffer header = ByteBuffer.wrap(this.readBytes(0L, HEADER_LENGTH));
+    if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+      throw new IllegalStateException("Not a journal segment.");
+    }
+    final int size = header.getInt();
+    final long indexOffset = header.getLong();
+
+    // the index is held on the heap anyway, it is limited to what an array can hold
+    final ByteBuffer index = ByteBuffer.wrap(this.readBytes(indexOffset, Math.toIntExact(length - indexOffset)));
+    this.transactionIdentifiers = new String[size];
+    this.offsets = new long[size];
+    this.deflatedLengths = new int[size];
+    this.inflatedLengths = new int[size];
+    this.entryNumbersByTransactionIdentifier = new HashMap<>(size * 2);
+    for (int i = 0; i < size; i++) {
+      this.transactionIdentifiers[i] = readString(index);
+      this.offsets[i] = index.getLong();
+      this.deflatedLengths[i] = index.getInt();
+      this.inflatedLengths[i] = index.getInt();
+      this.entryNumbersByTransactionIdentifier.put(this.transactionIdentifiers[i], i);
+    }
+    final int numberOfAccounts = index.getInt();
+    this.entryNumbersByAccount = new HashMap<>(numberOfAccounts * 2);
+    for (int i = 0; i < numberOfAccounts; i++) {
+      final String accountNumber = readString(index);
+      final int[] entryNumbers = new int[index.getInt()];
+      for (int j = 0; j < entryNumbers.length; j++) {
+        entryNumbers[j] = index.getInt();
+      }
+      this.entryNumbersByAccount.put(accountNumber, entryNumbers);
+    }
+  }
+
+  public static JournalSegment open(final Path path) throws IOException {
+    try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      // the mappings stay valid after the channel has been closed
+      final long length = channel.size();
+      final MappedByteBuffer[] regions =
+          new MappedByteBuffer[Math.toIntExact((length + REGION_SIZE - 1L) / REGION_SIZE)];
+      for (int i = 0; i < regions.length; i++) {
+        final long position = i * REGION_SIZE;
+        regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(REGION_SIZE, length - position));
+      }
+      return new JournalSegment(regions, length);
+    }
+  }
+
+  /**
+   * Writes the entries ordered by transaction date to a new file, streaming them to disk one by one. The file is
+   * complete and synced once this returns, callers write to a temporary file and move it into place.
+   */
+  public static void write(final List<JournalEntryEntity> journalEntryEntities, final Path path)
+      throws IOException {
+    final List<JournalEntryEntity> sortedEntries = new ArrayList<>(journalEntryEntities);
+    sortedEntries.sort((x, y) -> x.getTransactionDate().compareTo(y.getTransactionDate()));
+
+    final long[] offsets = new long[sortedEntries.size()];
+    final int[] deflatedLengths = new int[sortedEntries.size()];
+    final int[] inflatedLengths = new int[sortedEntries.size()];
+    final Map<String, List<Integer>> entryNumbersByAccount = new LinkedHashMap<>();
+
+    try (final FileChannel channel = FileChannel.open(path,
+        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      final DataOutputStream dataOutputStream =
+          new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+      dataOutputStream.writeInt(MAGIC);
+      dataOutputStream.writeInt(VERSION);
+      dataOutputStream.writeInt(sortedEntries.size());
+      // the index offset is only known once the entries are written, it is filled in below
+      dataOutputStream.writeLong(0L);
+
+      long offset = HEADER_LENGTH;
+      final byte[] chunk = new byte[4096];
+      final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+      try {
+        for (int i = 0; i < sortedEntries.size(); i++) {
+          final JournalEntryEntity journalEntryEntity = sortedEntries.get(i);
+          final byte[] inflated = encode(journalEntryEntity);
+          deflater.reset();
+          deflater.setInput(inflated);
+          deflater.finish();
+          int deflatedLength = 0;
+          while (!deflater.finished()) {
+            final int deflated = deflater.deflate(chunk);
+            dataOutputStream.write(chunk, 0, deflated);
+            deflatedLength += deflated;
+          }
+          offsets[i] = offset;
+          deflatedLengths[i] = deflatedLength;
+          inflatedLengths[i] = inflated.length;
+          offset += deflatedLength;
+
+          final Set<String> accountNumbers = new HashSet<>();
+          journalEntryEntity.getDebtors().forEach(debtorType -> accountNumbers.add(debtorType.getAccountNumber()));
+          journalEntryEntity.getCreditors()
+              .forEach(creditorType -> accountNumbers.add(creditorType.getAccountNumber()));
+          final int entryNumber = i;
+          accountNumbers.forEach(accountNumber ->
+              entryNumbersByAccount.computeIfAbsent(accountNumber, key -> new ArrayList<>()).add(entryNumber));
+        }
+      } finally {
+        deflater.end();
+      }
+
+      final long indexOffset = offset;
+      for (int i = 0; i < sortedEntries.size(); i++) {
+        writeString(dataOutputStream, sortedEntries.get(i).getTransactionIdentifier());
+        dataOutputStream.writeLong(offsets[i]);
+        dataOutputStream.writeInt(deflatedLengths[i]);
+        dataOutputStream.writeInt(inflatedLengths[i]);
+      }
+      dataOutputStream.writeInt(entryNumbersByAccount.size());
+      for (final Map.Entry<String, List<Integer>> account : entryNumbersByAccount.entrySet()) {
+        writeString(dataOutputStream, account.getKey());
+        dataOutputStream.writeInt(account.getValue().size());
+        for (final Integer entryNumber : account.getValue()) {
+          dataOutputStream.writeInt(entryNumber);
+        }
+      }
+      dataOutputStream.flush();
+
+      final ByteBuffer indexOffsetBuffer = ByteBuffer.allocate(8).putLong(0, indexOffset);
+      while (indexOffsetBuffer.hasRemaining()) {
+        channel.write(indexOffsetBuffer, INDEX_OFFSET_POSITION + indexOffsetBuffer.position());
+      }
+      channel.force(true);
+    }
+  }
+
+  public int size() {
+    return this.transactionIdentifiers.length;
+  }
+
+  /**
+   * @return the entry with the given number, entries are numbered by transaction date
+   */
+  public JournalEntryEntity read(final int entryNumber) {
+    final byte[] deflated = this.readBytes(this.offsets[entryNumber], this.deflatedLengths[entryNumber]);
+
+    final byte[] inflated = new byte[this.inflatedLengths[entryNumber]];
+    final Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(deflated);
+      inflater.inflate(inflated);
+    } catch (final DataFormatException ex) {
+      throw new IllegalStateException("Journal segment is corrupt.", ex);
+    } finally {
+      inflater.end();
+    }
+    return decode(ByteBuffer.wrap(inflated));
+  }
+
+  public List<JournalEntryEntity> readAll() {
+    final List<JournalEntryEntity> journalEntryEntities = new ArrayList<>(this.size());
+    for (int i = 0; i < this.size(); i++) {
+      journalEntryEntities.add(this.read(i));
+    }
+    return journalEntryEntities;
+  }
+
+  /**
+   * @return the entries touching the account, ordered by transaction date
+   */
+  public List<JournalEntryEntity> readAll(final String accountNumber) {
+    final int[] entryNumbers = this.entryNumbersOf(accountNumber);
+    final List<JournalEntryEntity> journalEntryEntities = new ArrayList<>(entryNumbers.length);
+    for (final int entryNumber : entryNumbers) {
+      journalEntryEntities.add(this.read(entryNumber));
+    }
+    return journalEntryEntities;
+  }
+
+  public boolean contains(final String transactionIdentifier) {
+    return this.entryNumbersByTransactionIdentifier.containsKey(transactionIdentifier);
+  }
+
+  public JournalEntryEntity find(final String transactionIdentifier) {
+    final Integer entryNumber = this.entryNumbersByTransactionIdentifier.get(transactionIdentifier);
+    return entryNumber != null ? this.read(entryNumber) : null;
+  }
+
+  /**
+   * @return the numbers of all entries touching the account, in ascending order
+   */
+  public int[] entryNumbersOf(final String accountNumber) {
+    return this.entryNumbersByAccount.getOrDefault(accountNumber, new int[0]);
+  }
+
+  private byte[] readBytes(final long offset, final int length) {
+    final byte[] bytes = new byte[length];
+    int read = 0;
+    while (read < length) {
+      final long position = offset + read;
+      final ByteBuffer region = this.regions[Math.toIntExact(position / REGION_SIZE)].duplicate();
+      region.position((int) (position % REGION_SIZE));
+      final int chunk = Math.min(length - read, region.remaining());
+      region.get(bytes, read, chunk);
+      read += chunk;
+    }
+    return bytes;
+  }
+
+  private static byte[] encode(final JournalEntryEntity journalEntryEntity) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+    final DataOutputStream out = new DataOutputStream(bytes);
+    writeString(out, journalEntryEntity.getDateBucket());
+    writeString(out, journalEntryEntity.getTransactionIdentifier());
+    writeDateTime(out, journalEntryEntity.getTransactionDate());
+    writeString(out, journalEntryEntity.getTransactionType());
+    writeString(out, journalEntryEntity.getClerk());
+    writeString(out, journalEntryEntity.getNote());
+    out.writeInt(journalEntryEntity.getDebtors().size());
+    for (final DebtorType debtorType : journalEntryEntity.getDebtors()) {
+      writeString(out, debtorType.getAccountNumber());
+      out.writeLong(debtorType.minorUnits());
+    }
+    out.writeInt(journalEntryEntity.getCreditors().size());
+    for (final CreditorType creditorType : journalEntryEntity.getCreditors()) {
+      writeString(out, creditorType.getAccountNumber());
+      out.writeLong(creditorType.minorUnits());
+    }
+    writeString(out, journalEntryEntity.getState());
+    writeString(out, journalEntryEntity.getMessage());
+    writeDateTime(out, journalEntryEntity.getCreatedOn());
+    writeString(out, journalEntryEntity.getCreatedBy());
+    out.writeLong(journalEntryEntity.totalAmountMinorUnits());
+    out.flush();
+    return bytes.toByteArray();
+  }
+
+  private static JournalEntryEntity decode(final ByteBuffer in) {
+    final JournalEntryEntity journalEntryEntity = new JournalEntryEntity();
+    journalEntryEntity.setDateBucket(readString(in));
+    journalEntryEntity.setTransactionIdentifier(readString(in));
+    journalEntryEntity.setTransactionDate(readDateTime(in));
+    journalEntryEntity.setTransactionType(readString(in));
+    journalEntryEntity.setClerk(readString(in));
+    journalEntryEntity.setNote(readString(in));
+    final int numberOfDebtors = in.getInt();
+    final Set<DebtorType> debtorTypes = new HashSet<>(numberOfDebtors * 2);
+    for (int i = 0; i < numberOfDebtors; i++) {
+      final DebtorType debtorType = new DebtorType();
+      debtorType.setAccountNumber(readString(in));
+      final long amount = in.getLong();
+      debtorType.setAmountMinor(amount);
+      debtorType.setAmount(Money.toDouble(amount));
+      debtorTypes.add(debtorType);
+    }
+    journalEntryEntity.setDebtors(debtorTypes);
+    final int numberOfCreditors = in.getInt();
+    final Set<CreditorType> creditorTypes = new HashSet<>(numberOfCreditors * 2);
+    for (int i = 0; i < numberOfCreditors; i++) {
+      final CreditorType creditorType = new CreditorType();
+      creditorType.setAccountNumber(readString(in));
+      final long amount = in.getLong();
+      creditorType.setAmountMinor(amount);
+      creditorType.setAmount(Money.toDouble(amount));
+      creditorTypes.add(creditorType);
+    }
+    journalEntryEntity.setCreditors(creditorTypes);
+    journalEntryEntity.setState(readString(in));
+    journalEntryEntity.setMessage(readString(in));
+    journalEntryEntity.setCreatedOn(readDateTime(in));
+    journalEntryEntity.setCreatedBy(readString(in));
+    journalEntryEntity.setTotalAmount(in.getLong());
+    return journalEntryEntity;
+  }
+
+  private static void writeString(final DataOutputStream out, final String value) throws IOException {
+    if (value == null) {
+      out.writeInt(-1);
+    } else {
+      final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+  }
+
+  private static String readString(final ByteBuffer in) {
+    final int length = in.getInt();
+    if (length < 0) {
+      return null;
+    }
+    final byte[] bytes = new byte[length];
+    in.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static void writeDateTime(final DataOutputStream out, final LocalDateTime value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeLong(DateConverter.toEpochMillis(value));
+    }
+  }
+
+  private static LocalDateTime readDateTime(final ByteBuffer in) {
+    return in.get() != 0 ? DateConverter.fromEpochMillis(in.getLong()) : null;
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.repository;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.RegularStatement;
+import com.datastax.driver.core.querybuilder.QueryBuilder;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.fineract.cn.cassandra.core.CassandraSessionProvider;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prepared statements of the journal tables. Every tenant has its own keyspace, so statements are prepared lazily
+ * against the tenant session the first time a tenant uses them.
+ */
+@Component
+public class JournalStatements {
+
+  static final RegularStatement CLAIM_TRANSACTION_IDENTIFIER = QueryBuilder
+      .insertInto("thoth_journal_entry_lookup")
+      .value("transaction_identifier", QueryBuilder.bindMarker())
+      .value("date_bucket", QueryBuilder.bindMarker())
+      .value("shard", QueryBuilder.bindMarker())
+      .ifNotExists();
+
+  static final RegularStatement SELECT_LOOKUP = QueryBuilder
+      .select().all()
+      .from("thoth_journal_entry_lookup")
+      .where(QueryBuilder.eq("transaction_identifier", QueryBuilder.bindMarker()));
+
+  static final RegularStatement DELETE_LOOKUP = QueryBuilder
+      .delete()
+      .from("thoth_journal_entry_lookup")
+      .where(QueryBuilder.eq("transaction_identifier", QueryBuilder.bindMarker()))
+      .ifExists();
+
+  static final RegularStatement SELECT_BY_TRANSACTION_IDENTIFIER = QueryBuilder
+      .select().all()
+      .from("thoth_journal_entries")
+      .where(QueryBuilder.eq("date_bucket", QueryBuilder.bindMarker()))
+      .and(QueryBuilder.eq("transaction_identifier", QueryBuilder.bindMarker()));
+
+  static final RegularStatement SELECT_BY_TRANSACTION_IDENTIFIERS = QueryBuilder
+      .select().all()
+      .from("thoth_journal_entries")
+      .where(QueryBuilder.eq("date_bucket", QueryBuilder.bindMarker()))
+      .and(QueryBuilder.in("transaction_identifier", QueryBuilder.bindMarker()));
+
+  static final RegularStatement SELECT_BY_DATE_BUCKET = QueryBuilder
+      .select().all()
+      .from("thoth_journal_entries")
+      .where(QueryBuilder.eq("date_bucket", QueryBuilder.bindMarker()));
+
+  static final RegularStatement SELECT_SUMMARY_BY_DATE_BUCKET = QueryBuilder
+      .select(JournalEntrySummaryEntity.COLUMNS)
+      .from("thoth_journal_entries")
+      .where(QueryBuilder.eq("date_bucket", QueryBuilder.bindMarker()));
+
+  static final RegularStatement SELECT_SUMMARY_BY_TRANSACTION_IDENTIFIERS = QueryBuilder
+      .select(JournalEntrySummaryEntity.COLUMNS)
+      .from("thoth_journal_entries")
+      .where(QueryBuilder.eq("date_bucket", QueryBuilder.bindMarker()))
+      .and(QueryBuilder.in("transaction_identifier", QueryBuilder.bindMarker()));
+
+  static final RegularStatement UPDATE_STATE_IF = QueryBuilder
+      .update("thoth_journal_entries")
+      .with(QueryBuilder.set("state", QueryBuilder.bindMarker()))
+      .where(QueryBuilder.eq("date_bucket", QueryBuilder.bindMarker()))
+      .and(QueryBuilder.eq("transaction_identifier", QueryBuilder.bindMarker()))
+      .onlyIf(QueryBuilder.eq("state", QueryBuilder.bindMarker()));
+
+  static final RegularStatement UPDATE_TOTAL_AMOUNT = QueryBuilder
+      .update("thoth_journal_entries")
+      .with(QueryBuilder.set("total_amount", QueryBuilder.bindMarker()))
+      .where(QueryBuilder.eq("date_bucket", QueryBuilder.bindMarker()))
+      .and(QueryBuilder.eq("transaction_identifier", QueryBuilder.bindMarker()));
+
+  static final RegularStatement SELECT_AMOUNT_INDEX = QueryBuilder
+      .select().all()
+      .from("thoth_journal_entries_by_amount")
+      .where(QueryBuilder.eq("date_bucket", QueryBuilder.bindMarker()))
+      .and(QueryBuilder.eq("total_amount", QueryBuilder.bindMarker()));
+
+  static final RegularStatement SELECT_ACCOUNT_INDEX = QueryBuilder
+      .select().all()
+      .from("thoth_journal_entries_by_account")
+      .where(QueryBuilder.eq("account_number", QueryBuilder.bindMarker()))
+      .and(QueryBuilder.eq("month", QueryBuilder.bindMarker()))
+      .and(QueryBuilder.gte("transaction_date", QueryBuilder.bindMarker()))
+      .and(QueryBuilder.lt("transaction_date", QueryBuilder.bindMarker()));
+
+  static final RegularStatement DELETE_ENTRY = QueryBuilder
+      .delete()
+      .from("thoth_journal_entries")
+      .where(QueryBuilder.eq("date_bucket", QueryBuilder.bindMarker()))
+      .and(QueryBuilder.eq("transaction_identifier", QueryBuilder.bindMarker()));
+
+  static final RegularStatement DELETE_ACCOUNT_INDEX = QueryBuilder
+      .delete()
+      .from("thoth_journal_entries_by_account")
+      .where(QueryBuilder.eq("account_number", QueryBuilder.bindMarker()))
+      .and(QueryBuilder.eq("month", QueryBuilder.bindMarker()))
+      .and(QueryBuilder.eq("transaction_date", QueryBuilder.bindMarker()))
+      .and(QueryBuilder.eq("transaction_identifier", QueryBuilder.bindMarker()));
+
+  static final RegularStatement DELETE_AMOUNT_INDEX = QueryBuilder
+      .delete()
+      .from("thoth_journal_entries_by_amount")
+      .where(QueryBuilder.eq("date_bucket", QueryBuilder.bindMarker()))
+      .and(QueryBuilder.eq("total_amount", QueryBuilder.bindMarker()))
+      .and(QueryBuilder.eq("transaction_identifier", QueryBuilder.bindMarker()));
+
+  static final RegularStatement UPDATE_AGGREGATE = QueryBuilder
+      .update("thoth_journal_aggregates")
+      .with(QueryBuilder.incr("entry_count", QueryBuilder.bindMarker()))
+      .and(QueryBuilder.incr("volume", QueryBuilder.bindMarker()))
+      .where(QueryBuilder.eq("month", QueryBuilder.bindMarker()))
+      .and(QueryBuilder.eq("date_bucket", QueryBuilder.bindMarker()))
+      .and(QueryBuilder.eq("transaction_type", QueryBuilder.bindMarker()));
+
+  static final RegularStatement UPDATE_ACCOUNT_AGGREGATE = QueryBuilder
+      .update("thoth_journal_aggregates_by_account")
+      .with(QueryBuilder.incr("entry_count", QueryBuilder.bindMarker()))
+      .and(QueryBuilder.incr("volume", QueryBuilder.bindMarker()))
+      .where(QueryBuilder.eq("account_number", QueryBuilder.bindMarker()))
+      .and(QueryBuilder.eq("month", QueryBuilder.bindMarker()))
+      .and(QueryBuilder.eq("date_bucket", QueryBuilder.bindMarker()))
+      .and(QueryBuilder.eq("transaction_type", QueryBuilder.bindMarker()));
+
+  static final RegularStatement SELECT_AGGREGATES = QueryBuilder
+      .select().all()
+      .from("thoth_journal_aggregates")
+      .where(QueryBuilder.eq("month", QueryBuilder.bindMarker()))
+      .and(QueryBuilder.gte("date_bucket", QueryBuilder.bindMarker()))
+      .and(QueryBuilder.lte("date_bucket", QueryBuilder.bindMarker()));
+
+  static final RegularStatement SELECT_ACCOUNT_AGGREGATES = QueryBuilder
+      .select().all()
+      .from("thoth_journal_aggregates_by_account")
+      .where(QueryBuilder.eq("account_number", QueryBuilder.bindMarker()))
+      .and(QueryBuilder.eq("month", QueryBuilder.bindMarker()))
+      .and(QueryBuilder.gte("date_bucket", QueryBuilder.bindMarker()))
+      .and(QueryBuilder.lte("date_bucket", QueryBuilder.bindMarker()));
+
+  private final CassandraSessionProvider cassandraSessionProvider;
+  private final Map<String, Map<String, PreparedStatement>> preparedStatementsByTenant = new ConcurrentHashMap<>();
+
+  @Autowired
+  public JournalStatements(final CassandraSessionProvider cassandraSessionProvider) {
+    super();
+    this.cassandraSessionProvider = cassandraSessionProvider;
+  }
+
+  public BoundStatement bind(final RegularStatement statement, final Object... values) {
+    return this.prepare(statement).bind(values);
+  }
+
+  /**
+   * Needs the tenant context and may block while preparing, so it must not be called from a driver callback.
+   */
+  public PreparedStatement prepare(final RegularStatement statement) {
+    return this.preparedStatementsByTenant
+        .computeIfAbsent(TenantContextHolder.checkedGetIdentifier(), tenant -> new ConcurrentHashMap<>())
+        .computeIfAbsent(statement.getQueryString(),
+            query -> this.cassandraSessionProvider.getTenantSession().prepare(statement));
+  }
+}
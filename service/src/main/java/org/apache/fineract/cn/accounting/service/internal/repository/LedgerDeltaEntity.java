@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.repository;
+
+import java.time.LocalDateTime;
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import org.apache.fineract.cn.mariadb.util.LocalDateTimeConverter;
+import org.hibernate.annotations.GenericGenerator;
+
+@SuppressWarnings("unused")
+@Entity
+@Table(name = "thoth_ledger_deltas")
+public class LedgerDeltaEntity {
+
+  @Id
+  @GeneratedValue(generator = "thoth_ledger_deltas_id")
+  @GenericGenerator(name = "thoth_ledger_deltas_id", strategy = TenantAwareTableGenerator.STRATEGY)
+  @Column(name = "id")
+  private Long id;
+  @Column(name = "ledger_identifier")
+  private String ledgerIdentifier;
+  @Column(name = "amount")
+  private Long amount;
+  @Column(name = "created_on")
+  @Convert(converter = LocalDateTimeConverter.class)
+  private LocalDateTime createdOn;
+
+  public LedgerDeltaEntity() {
+    super();
+  }
+
+  public Long getId() {
+    return this.id;
+  }
+
+  public void setId(final Long id) {
+    this.id = id;
+  }
+
+  public String getLedgerIdentifier() {
+    return this.ledgerIdentifier;
+  }
+
+  public void setLedgerIdentifier(final String ledgerIdentifier) {
+    this.ledgerIdentifier = ledgerIdentifier;
+  }
+
+  public Long getAmount() {
+    return this.amount;
+  }
+
+  public void setAmount(final Long amount) {
+    this.amount = amount;
+  }
+
+  public LocalDateTime getCreatedOn() {
+    return this.createdOn;
+  }
+
+  public void setCreatedOn(final LocalDateTime createdOn) {
+    this.createdOn = createdOn;
+  }
+}
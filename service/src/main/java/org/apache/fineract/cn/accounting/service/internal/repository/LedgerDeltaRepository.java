@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.repository;
+
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LedgerDeltaRepository extends JpaRepository<LedgerDeltaEntity, Long> {
+
+  /**
+   * Locks the single lease row, so only one folder per tenant runs at a time. Bookings never touch the lease, so
+   * appending deltas does not wait for a running fold.
+   */
+  @Query(value = "SELECT id FROM thoth_ledger_fold_lease WHERE id = 1 FOR UPDATE", nativeQuery = true)
+  Integer acquireFoldLease();
+
+  List<LedgerDeltaEntity> findTop1000ByOrderByIdAsc();
+
+  @Query("SELECT d.ledgerIdentifier, SUM(d.amount) FROM LedgerDeltaEntity d GROUP BY d.ledgerIdentifier")
+  List<Object[]> sumAmountByLedgerIdentifier();
+}
@@ -18,19 +18,18 @@
  */
 package org.apache.fineract.cn.accounting.service.internal.repository;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import javax.persistence.Column;
 import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 import org.apache.fineract.cn.mariadb.util.LocalDateTimeConverter;
+import org.hibernate.annotations.GenericGenerator;
 
 @SuppressWarnings({"unused"})
 @Entity
@@ -38,7 +37,8 @@ import org.apache.fineract.cn.mariadb.util.LocalDateTimeConverter;
 public class LedgerEntity {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(generator = "thoth_ledgers_id")
+  @GenericGenerator(name = "thoth_ledgers_id", strategy = TenantAwareTableGenerator.STRATEGY)
   @Column(name = "id")
   private Long id;
   @Column(name = "a_type")
@@ -52,8 +52,9 @@ public class LedgerEntity {
   @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "parent_ledger_id")
   private LedgerEntity parentLedger;
-  @Column(name = "total_value")
-  private BigDecimal totalValue;
+  // only written on insert, folding adds to it in the database, see LedgerRepository#addToTotalValue
+  @Column(name = "total_value", updatable = false)
+  private Long totalValue;
   @Column(name = "created_on")
   @Convert(converter = LocalDateTimeConverter.class)
   private LocalDateTime createdOn;
@@ -119,11 +120,11 @@ public class LedgerEntity {
     this.parentLedger = parentLedger;
   }
 
-  public BigDecimal getTotalValue() {
+  public Long getTotalValue() {
     return this.totalValue;
   }
 
-  public void setTotalValue(final BigDecimal totalValue) {
+  public void setTotalValue(final Long totalValue) {
     this.totalValue = totalValue;
   }
 
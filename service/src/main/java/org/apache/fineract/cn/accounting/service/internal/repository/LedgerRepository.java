@@ -20,6 +20,9 @@ package org.apache.fineract.cn.accounting.service.internal.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -34,4 +37,8 @@ public interface LedgerRepository extends JpaRepository<LedgerEntity, Long>, Jpa
   List<LedgerEntity> findByParentLedgerOrderByIdentifier(final LedgerEntity parentLedger);
 
   LedgerEntity findByIdentifier(final String identifier);
+
+  @Modifying
+  @Query("UPDATE LedgerEntity l SET l.totalValue = COALESCE(l.totalValue, 0) + :amount WHERE l.identifier = :identifier")
+  int addToTotalValue(@Param("identifier") final String identifier, @Param("amount") final Long amount);
 }
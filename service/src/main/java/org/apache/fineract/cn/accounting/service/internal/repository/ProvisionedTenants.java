@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.repository;
+
+import com.datastax.driver.core.querybuilder.QueryBuilder;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.fineract.cn.cassandra.core.CassandraSessionProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Tenants as registered by the provisioner, read from the tenants table of the admin keyspace the tenant sessions are
+ * looked up in. Scheduled jobs visit these instead of the tenants seen since the service was started.
+ */
+@Repository
+public class ProvisionedTenants {
+
+  private final CassandraSessionProvider cassandraSessionProvider;
+
+  @Autowired
+  public ProvisionedTenants(final CassandraSessionProvider cassandraSessionProvider) {
+    super();
+    this.cassandraSessionProvider = cassandraSessionProvider;
+  }
+
+  public List<String> findAll() {
+    return this.cassandraSessionProvider.getAdminSession()
+        .execute(QueryBuilder.select("identifier").from("tenants"))
+        .all()
+        .stream()
+        .map(row -> row.getString("identifier"))
+        .collect(Collectors.toList());
+  }
+}
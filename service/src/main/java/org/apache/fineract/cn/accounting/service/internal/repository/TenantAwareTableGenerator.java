@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.repository;
+
+import java.io.Serializable;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.hibernate.MappingException;
+import org.hibernate.boot.model.relational.Database;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * Hands out identifiers from a pooled block reserved in {@code thoth_id_generators}, one row per entity table. Ids
+ * are known before the insert, so Hibernate can batch the inserts instead of flushing each one to read back an
+ * auto increment value.
+ *
+ * <p>All tenants share one session factory while every tenant has its own database, so each tenant gets its own
+ * generator and with it its own pooled block.</p>
+ */
+@SuppressWarnings("unused")
+public class TenantAwareTableGenerator extends TableGenerator {
+
+  public static final String STRATEGY =
+      "org.apache.fineract.cn.accounting.service.internal.repository.TenantAwareTableGenerator";
+
+  private final ConcurrentHashMap<String, TableGenerator> tenantGenerators = new ConcurrentHashMap<>();
+
+  private Type type;
+  private Properties params;
+  private ServiceRegistry serviceRegistry;
+  private Database database;
+
+  public TenantAwareTableGenerator() {
+    super();
+  }
+
+  @Override
+  public void configure(final Type type, final Properties params, final ServiceRegistry serviceRegistry)
+      throws MappingException {
+    final Properties generatorParams = new Properties();
+    generatorParams.putAll(params);
+    generatorParams.putIfAbsent(TableGenerator.TABLE_PARAM, "thoth_id_generators");
+    generatorParams.putIfAbsent(TableGenerator.SEGMENT_COLUMN_PARAM, "sequence_name");
+    generatorParams.putIfAbsent(TableGenerator.VALUE_COLUMN_PARAM, "next_val");
+    generatorParams.putIfAbsent(TableGenerator.CONFIG_PREFER_SEGMENT_PER_ENTITY, "true");
+    generatorParams.putIfAbsent(TableGenerator.INCREMENT_PARAM, "50");
+    generatorParams.putIfAbsent(TableGenerator.OPT_PARAM, "pooled");
+
+    super.configure(type, generatorParams, serviceRegistry);
+    this.type = type;
+    this.params = generatorParams;
+    this.serviceRegistry = serviceRegistry;
+  }
+
+  @Override
+  public void registerExportables(final Database database) {
+    super.registerExportables(database);
+    this.database = database;
+  }
+
+  @Override
+  public Serializable generate(final SessionImplementor session, final Object object) {
+    return this.tenantGenerators
+        .computeIfAbsent(TenantContextHolder.checkedGetIdentifier(), tenant -> {
+          final TableGenerator tableGenerator = new TableGenerator();
+          tableGenerator.configure(this.type, this.params, this.serviceRegistry);
+          tableGenerator.registerExportables(this.database);
+          return tableGenerator;
+        })
+        .generate(session, object);
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.service;
+
+import org.apache.fineract.cn.accounting.api.v1.domain.AccountType;
+import org.apache.fineract.cn.accounting.service.internal.booking.BookingExecutor;
+import org.apache.fineract.cn.accounting.service.internal.repository.AccountBalanceSnapshotEntity;
+import org.apache.fineract.cn.accounting.service.internal.repository.AccountBalanceSnapshotRepository;
+import org.apache.fineract.cn.accounting.service.internal.repository.AccountDescriptor;
+import org.apache.fineract.cn.accounting.service.internal.repository.AccountEntity;
+import org.apache.fineract.cn.accounting.service.internal.repository.AccountEntryRepository;
+import org.apache.fineract.cn.accounting.service.internal.repository.AccountRepository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Balances of accounts at the end of a day. A balance is read from the closest snapshot before the day and the
+ * entries booked since, or if there is none, walked back from the current balance.
+ *
+ * <p>Snapshots are written once a day for every account booked on since the latest snapshot day, see
+ * {@link AccountBalanceSnapshotWriter}, and are kept up to date by every later booking for their day or before.
+ * Balances are correct whether a snapshot exists or not, snapshots only bound the number of entries read.</p>
+ */
+@Service
+public class AccountBalanceService {
+
+  private final AccountRepository accountRepository;
+  private final AccountEntryRepository accountEntryRepository;
+  private final AccountBalanceSnapshotRepository accountBalanceSnapshotRepository;
+  private final BookingExecutor bookingExecutor;
+
+  @Autowired
+  public AccountBalanceService(final AccountRepository accountRepository,
+                               final AccountEntryRepository accountEntryRepository,
+                               final AccountBalanceSnapshotRepository accountBalanceSnapshotRepository,
+                               final BookingExecutor bookingExecutor) {
+    super();
+    this.accountRepository = accountRepository;
+    this.accountEntryRepository = accountEntryRepository;
+    this.accountBalanceSnapshotRepository = accountBalanceSnapshotRepository;
+    this.bookingExecutor = bookingExecutor;
+  }
+
+  /**
+   * Applies a booked amount to the snapshots of its transaction date and later, must run in the booking's
+   * transaction. Snapshots are only written for days already over, so only back-dated postings find one to update,
+   * all others cost a lookup of the account's latest snapshot.
+   *
+   * @param amount the change of the account's balance
+   */
+  public void applyPosting(final AccountDescriptor accountDescriptor, final LocalDateTime transactionDate,
+                           final long amount) {
+    final AccountBalanceSnapshotEntity latestSnapshot =
+        this.accountBalanceSnapshotRepository.findTopByAccountIdOrderBySnapshotDateDesc(accountDescriptor.getId());
+    if (latestSnapshot == null || transactionDate.toLocalDate().isAfter(latestSnapshot.getSnapshotDate())) {
+      return;
+    }
+    this.accountBalanceSnapshotRepository.addToBalances(
+        accountDescriptor.getId(), transactionDate.toLocalDate(), amount);
+  }
+
+  /**
+   * @return the balance of the account at the end of the day in minor units
+   */
+  @Transactional(readOnly = true)
+  public long balanceAsOf(final String identifier, final LocalDate day) {
+    return this.balanceAsOf(this.accountRepository.findByIdentifier(identifier), day);
+  }
+
+  /**
+   * @return the balances at the end of the day before the first day and at the end of the last day in minor units
+   */
+  @Transactional(readOnly = true)
+  public long[] openingAndClosingBalance(final String identifier, final LocalDate firstDay, final LocalDate lastDay) {
+    final AccountEntity accountEntity = this.accountRepository.findByIdentifier(identifier);
+    return new long[]{
+        this.balanceAsOf(accountEntity, firstDay.minusDays(1L)),
+        this.balanceAsOf(accountEntity, lastDay)
+    };
+  }
+
+  /**
+   * Finds the accounts of the current tenant with entries after the latest snapshot day up to the given day. Entries
+   * for earlier days are already part of the existing snapshots, see {@link #applyPosting}.
+   *
+   * @return the identifiers of the accounts whose balance at the end of the day may have to be snapshot
+   */
+  @Transactional(readOnly = true)
+  public List<String> findAccountsToSnapshot(final LocalDate day) {
+    final AccountBalanceSnapshotEntity latestSnapshot =
+        this.accountBalanceSnapshotRepository.findTopByOrderBySnapshotDateDesc();
+    final LocalDate firstDay = latestSnapshot != null && latestSnapshot.getSnapshotDate().isBefore(day)
+        ? latestSnapshot.getSnapshotDate().plusDays(1L)
+        : day;
+    return this.accountEntryRepository.findAccountIdentifiersBookedBetween(
+        firstDay.atStartOfDay(), day.plusDays(1L).atStartOfDay());
+  }
+
+  /**
+   * Writes the snapshot of the day unless there already is one. Runs on the account's booking partition, so no
+   * booking of the account can slip in between computing and saving the balance.
+   */
+  public void writeSnapshot(final String identifier, final LocalDate day) {
+    this.bookingExecutor.execute(Collections.singleton(identifier), () -> {
+      final AccountEntity accountEntity = this.accountRepository.findByIdentifier(identifier);
+      if (accountEntity == null
+          || this.accountBalanceSnapshotRepository.findByAccountAndSnapshotDate(accountEntity, day) != null) {
+        return null;
+      }
+      final AccountBalanceSnapshotEntity accountBalanceSnapshotEntity = new AccountBalanceSnapshotEntity();
+      accountBalanceSnapshotEntity.setAccount(accountEntity);
+      accountBalanceSnapshotEntity.setSnapshotDate(day);
+      accountBalanceSnapshotEntity.setBalance(this.balanceAsOf(accountEntity, day));
+      return this.accountBalanceSnapshotRepository.save(accountBalanceSnapshotEntity);
+    });
+  }
+
+  private long balanceAsOf(final AccountEntity accountEntity, final LocalDate day) {
+    final LocalDateTime endOfDay = day.plusDays(1L).atStartOfDay();
+    final AccountBalanceSnapshotEntity accountBalanceSnapshotEntity = this.accountBalanceSnapshotRepository
+        .findTopByAccountAndSnapshotDateLessThanEqualOrderBySnapshotDateDesc(accountEntity, day);
+    if (accountBalanceSnapshotEntity != null) {
+      final long sinceSnapshot = this.accountEntryRepository.sumDebitsMinusCreditsBetween(accountEntity,
+          accountBalanceSnapshotEntity.getSnapshotDate().plusDays(1L).atStartOfDay(), endOfDay);
+      return Math.addExact(accountBalanceSnapshotEntity.getBalance(), this.signed(accountEntity, sinceSnapshot));
+    }
+    final long afterDay = this.accountEntryRepository.sumDebitsMinusCreditsFrom(accountEntity, endOfDay);
+    return Math.subtractExact(accountEntity.getBalance(), this.signed(accountEntity, afterDay));
+  }
+
+  private long signed(final AccountEntity accountEntity, final long debitsMinusCredits) {
+    switch (AccountType.valueOf(accountEntity.getType())) {
+      case ASSET:
+      case EXPENSE:
+        return debitsMinusCredits;
+      case LIABILITY:
+      case EQUITY:
+      case REVENUE:
+        return -debitsMinusCredits;
+      default:
+        return 0L;
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.service;
+
+import org.apache.fineract.cn.accounting.service.ServiceConstants;
+import org.apache.fineract.cn.accounting.service.internal.repository.ProvisionedTenants;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AccountBalanceSnapshotWriter {
+
+  private final Logger logger;
+  private final ProvisionedTenants provisionedTenants;
+  private final AccountBalanceService accountBalanceService;
+
+  @Autowired
+  public AccountBalanceSnapshotWriter(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
+                                      final ProvisionedTenants provisionedTenants,
+                                      final AccountBalanceService accountBalanceService) {
+    super();
+    this.logger = logger;
+    this.provisionedTenants = provisionedTenants;
+    this.accountBalanceService = accountBalanceService;
+  }
+
+  /**
+   * Snapshots the closing balance of the previous day for every account of every provisioned tenant booked on since
+   * the latest snapshot day.
+   */
+  @Scheduled(cron = "${account.balanceSnapshots.cron:0 5 0 * * *}", zone = "UTC")
+  public void writeSnapshots() {
+    final LocalDate closedDay = LocalDate.now(Clock.systemUTC()).minusDays(1L);
+    this.provisionedTenants.findAll().forEach(tenantIdentifier -> {
+      TenantContextHolder.clear();
+      TenantContextHolder.setIdentifier(tenantIdentifier);
+      try {
+        final List<String> accountsToSnapshot;
+        try {
+          accountsToSnapshot = this.accountBalanceService.findAccountsToSnapshot(closedDay);
+        } catch (final RuntimeException ex) {
+          this.logger.warn("Could not find accounts to snapshot of tenant {}.", tenantIdentifier, ex);
+          return;
+        }
+        int writtenSnapshots = 0;
+        for (final String identifier : accountsToSnapshot) {
+          try {
+            this.accountBalanceService.writeSnapshot(identifier, closedDay);
+            writtenSnapshots++;
+          } catch (final RuntimeException ex) {
+            this.logger.warn("Could not snapshot balance of account {} of tenant {}.", identifier, tenantIdentifier, ex);
+          }
+        }
+        this.logger.debug("Snapshot {} account balances of tenant {} for {}.", writtenSnapshots, tenantIdentifier, closedDay);
+      } finally {
+        TenantContextHolder.clear();
+      }
+    });
+  }
+}
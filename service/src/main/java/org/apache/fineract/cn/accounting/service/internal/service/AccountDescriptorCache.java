@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.service;
+
+import org.apache.fineract.cn.accounting.service.internal.repository.AccountDescriptor;
+import org.apache.fineract.cn.accounting.service.internal.repository.AccountRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Per tenant LRU cache of {@link AccountDescriptor}s. Entries are evicted whenever an account changes, see
+ * {@link org.apache.fineract.cn.accounting.service.internal.listener.AccountEventListener}.
+ */
+@Component
+@ManagedResource(objectName = "org.apache.fineract.cn.accounting:type=AccountDescriptorCache")
+public class AccountDescriptorCache {
+
+  private final AccountRepository accountRepository;
+  private final int maximumSize;
+  private final Map<String, Map<String, AccountDescriptor>> descriptorsByTenant = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final AtomicLong evictions = new AtomicLong();
+
+  @Autowired
+  public AccountDescriptorCache(final AccountRepository accountRepository,
+                                @Value("${account.descriptorCache.maximumSize:10000}") final int maximumSize) {
+    super();
+    this.accountRepository = accountRepository;
+    this.maximumSize = maximumSize;
+  }
+
+  /**
+   * @return the descriptors of all known accounts among the given identifiers, unknown accounts are left out
+   */
+  public Map<String, AccountDescriptor> find(final Collection<String> identifiers) {
+    final Map<String, AccountDescriptor> descriptors = this.descriptorsOf(TenantContextHolder.checkedGetIdentifier());
+
+    final Map<String, AccountDescriptor> result = new HashMap<>(identifiers.size());
+    final List<String> missing = new ArrayList<>();
+    identifiers.forEach(identifier -> {
+      final AccountDescriptor accountDescriptor = descriptors.get(identifier);
+      if (accountDescriptor != null) {
+        result.put(identifier, accountDescriptor);
+      } else {
+        missing.add(identifier);
+      }
+    });
+    this.hits.add(result.size());
+    this.misses.add(missing.size());
+
+    if (!missing.isEmpty()) {
+      // an eviction racing with the load could leave a stale descriptor behind, only cache if there was none
+      final long evictionsBeforeLoad = this.evictions.get();
+      final List<AccountDescriptor> loadedDescriptors = this.accountRepository.findDescriptorsByIdentifierIn(missing);
+      final boolean cacheable = this.evictions.get() == evictionsBeforeLoad;
+      loadedDescriptors.forEach(accountDescriptor -> {
+        if (cacheable) {
+          descriptors.put(accountDescriptor.getIdentifier(), accountDescriptor);
+        }
+        result.put(accountDescriptor.getIdentifier(), accountDescriptor);
+      });
+    }
+    return result;
+  }
+
+  public void evict(final String tenantIdentifier, final String identifier) {
+    this.evictions.incrementAndGet();
+    final Map<String, AccountDescriptor> descriptors = this.descriptorsByTenant.get(tenantIdentifier);
+    if (descriptors != null) {
+      descriptors.remove(identifier);
+    }
+  }
+
+  /**
+   * Evicts the account once the surrounding transaction is committed, or right away if there is none.
+   */
+  public void evictAfterCommit(final String identifier) {
+    final String tenantIdentifier = TenantContextHolder.checkedGetIdentifier();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+        @Override
+        public void afterCommit() {
+          evict(tenantIdentifier, identifier);
+        }
+      });
+    } else {
+      this.evict(tenantIdentifier, identifier);
+    }
+  }
+
+  @ManagedAttribute(description = "Number of account lookups answered from the cache.")
+  public long getHits() {
+    return this.hits.sum();
+  }
+
+  @ManagedAttribute(description = "Number of account lookups that had to go to the database.")
+  public long getMisses() {
+    return this.misses.sum();
+  }
+
+  @ManagedAttribute(description = "Number of cached accounts over all tenants.")
+  public int getSize() {
+    return this.descriptorsByTenant.values().stream().mapToInt(Map::size).sum();
+  }
+
+  private Map<String, AccountDescriptor> descriptorsOf(final String tenantIdentifier) {
+    return this.descriptorsByTenant.computeIfAbsent(tenantIdentifier, key ->
+        Collections.synchronizedMap(new LinkedHashMap<String, AccountDescriptor>(16, 0.75F, true) {
+          @Override
+          protected boolean removeEldestEntry(final Map.Entry<String, AccountDescriptor> eldest) {
+            return this.size() > maximumSize;
+          }
+        }));
+  }
+}
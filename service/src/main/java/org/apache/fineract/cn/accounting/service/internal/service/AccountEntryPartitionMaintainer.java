@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.service;
+
+import org.apache.fineract.cn.accounting.service.ServiceConstants;
+import org.apache.fineract.cn.accounting.service.internal.repository.AccountEntryPartitions;
+import org.apache.fineract.cn.accounting.service.internal.repository.ProvisionedTenants;
+import java.time.Clock;
+import java.time.YearMonth;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedOperationParameter;
+import org.springframework.jmx.export.annotation.ManagedOperationParameters;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the monthly partitions of the account entries ahead of the calendar and, if a retention is configured,
+ * moves months older than {@code account.entries.partitions.retentionMonths} out of the table. Archived months are
+ * kept in tables of their own, purged months are dropped.
+ *
+ * <p>Entries of months moved out are no longer listed, and balances as of days before them are only correct if a
+ * snapshot of the account exists after the moved months, see {@link AccountBalanceService}.</p>
+ */
+@Component
+@ManagedResource(objectName = "org.apache.fineract.cn.accounting:type=AccountEntryPartitionMaintainer")
+public class AccountEntryPartitionMaintainer {
+
+  private final Logger logger;
+  private final AccountEntryPartitions accountEntryPartitions;
+  private final ProvisionedTenants provisionedTenants;
+  private final int monthsAhead;
+  private final int retentionMonths;
+  private final boolean archive;
+
+  @Autowired
+  public AccountEntryPartitionMaintainer(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
+                                         final AccountEntryPartitions accountEntryPartitions,
+                                         final ProvisionedTenants provisionedTenants,
+                                         @Value("${account.entries.partitions.monthsAhead:2}") final int monthsAhead,
+                                         @Value("${account.entries.partitions.retentionMonths:0}") final int retentionMonths,
+                                         @Value("${account.entries.partitions.archive:true}") final boolean archive) {
+    super();
+    this.logger = logger;
+    this.accountEntryPartitions = accountEntryPartitions;
+    this.provisionedTenants = provisionedTenants;
+    this.monthsAhead = monthsAhead;
+    this.retentionMonths = retentionMonths;
+    this.archive = archive;
+  }
+
+  /**
+   * Maintains the partitions of every provisioned tenant, booked for or not, so no tenant's months run out while it
+   * is idle or the service is down.
+   */
+  @Scheduled(cron = "${account.entries.partitions.cron:0 30 0 * * *}", zone = "UTC")
+  public void maintainPartitions() {
+    this.provisionedTenants.findAll().forEach(tenantIdentifier -> {
+      try {
+        this.maintain(tenantIdentifier);
+      } catch (final RuntimeException ex) {
+        this.logger.warn("Could not maintain account entry partitions of tenant {}.", tenantIdentifier, ex);
+      }
+    });
+  }
+
+  /**
+   * @return the number of months added and moved out
+   */
+  @ManagedOperation(description = "Adds upcoming months to the account entry partitions and moves out expired ones.")
+  @ManagedOperationParameters({
+      @ManagedOperationParameter(name = "tenantIdentifier", description = "Tenant owning the account entries.")
+  })
+  public int maintain(final String tenantIdentifier) {
+    TenantContextHolder.clear();
+    TenantContextHolder.setIdentifier(tenantIdentifier);
+    try {
+      if (!this.accountEntryPartitions.isPartitioned()) {
+        this.logger.warn("Account entries of tenant {} are not partitioned.", tenantIdentifier);
+        return 0;
+      }
+
+      final YearMonth currentMonth = YearMonth.now(Clock.systemUTC());
+      final SortedSet<YearMonth> existingMonths = this.accountEntryPartitions.findMonths();
+
+      // months skipped while the service was down are added as well, so none of them stays in the future partition
+      final SortedSet<YearMonth> upcomingMonths = new TreeSet<>();
+      final YearMonth lastMonth = currentMonth.plusMonths(this.monthsAhead);
+      for (YearMonth month = existingMonths.isEmpty() ? currentMonth : existingMonths.last().plusMonths(1L);
+           !month.isAfter(lastMonth);
+           month = month.plusMonths(1L)) {
+        upcomingMonths.add(month);
+      }
+      this.accountEntryPartitions.addMonths(upcomingMonths);
+
+      int expiredMonths = 0;
+      if (this.retentionMonths > 0) {
+        final YearMonth firstRetainedMonth = currentMonth.minusMonths(this.retentionMonths);
+        for (final YearMonth month : existingMonths.headSet(firstRetainedMonth)) {
+          if (this.archive) {
+            final String archiveTable = this.accountEntryPartitions.archiveMonth(month);
+            if (archiveTable == null) {
+              this.logger.warn("Archive of account entries of tenant {} for {} already exists, month skipped.",
+                  tenantIdentifier, month);
+              continue;
+            }
+            this.logger.info("Archived account entries of tenant {} for {} into {}.", tenantIdentifier, month,
+                archiveTable);
+          } else {
+            this.accountEntryPartitions.dropMonth(month);
+            this.logger.info("Purged account entries of tenant {} for {}.", tenantIdentifier, month);
+          }
+          expiredMonths++;
+        }
+      }
+      return upcomingMonths.size() + expiredMonths;
+    } finally {
+      TenantContextHolder.clear();
+    }
+  }
+}
@@ -22,10 +22,12 @@ import org.apache.fineract.cn.accounting.api.v1.domain.Account;
 import org.apache.fineract.cn.accounting.api.v1.domain.AccountCommand;
 import org.apache.fineract.cn.accounting.api.v1.domain.AccountEntry;
 import org.apache.fineract.cn.accounting.api.v1.domain.AccountEntryPage;
+import org.apache.fineract.cn.accounting.api.v1.domain.AccountEntrySlice;
 import org.apache.fineract.cn.accounting.api.v1.domain.AccountPage;
 import org.apache.fineract.cn.accounting.service.internal.mapper.AccountCommandMapper;
 import org.apache.fineract.cn.accounting.service.internal.mapper.AccountEntryMapper;
 import org.apache.fineract.cn.accounting.service.internal.mapper.AccountMapper;
+import org.apache.fineract.cn.accounting.service.internal.repository.AccountDescriptor;
 import org.apache.fineract.cn.accounting.service.internal.repository.AccountEntity;
 import org.apache.fineract.cn.accounting.service.internal.repository.AccountEntryEntity;
 import org.apache.fineract.cn.accounting.service.internal.repository.AccountEntryRepository;
@@ -33,33 +35,52 @@ import org.apache.fineract.cn.accounting.service.internal.repository.AccountRepo
 import org.apache.fineract.cn.accounting.service.internal.repository.CommandEntity;
 import org.apache.fineract.cn.accounting.service.internal.repository.CommandRepository;
 import org.apache.fineract.cn.accounting.service.internal.repository.specification.AccountSpecification;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.apache.fineract.cn.lang.DateConverter;
 import org.apache.fineract.cn.lang.DateRange;
+import org.apache.fineract.cn.lang.ServiceException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 @Service
 public class AccountService {
 
+  private static final String CURSOR_SEPARATOR = ":";
+  private static final int STREAM_SLICE_SIZE = 1000;
+
   private final AccountRepository accountRepository;
   private final AccountEntryRepository accountEntryRepository;
   private final CommandRepository commandRepository;
+  private final AccountDescriptorCache accountDescriptorCache;
+  @PersistenceContext
+  private EntityManager entityManager;
 
   @Autowired
   public AccountService(final AccountRepository accountRepository,
                         final AccountEntryRepository accountEntryRepository,
-                        final CommandRepository commandRepository) {
+                        final CommandRepository commandRepository,
+                        final AccountDescriptorCache accountDescriptorCache) {
     super();
     this.accountRepository = accountRepository;
     this.accountEntryRepository = accountEntryRepository;
     this.commandRepository = commandRepository;
+    this.accountDescriptorCache = accountDescriptorCache;
   }
 
   public Optional<Account> findAccount(final String identifier) {
@@ -71,6 +92,13 @@ public class AccountService {
     }
   }
 
+  public Map<String, AccountDescriptor> findAccountDescriptors(final Collection<String> identifiers) {
+    if (identifiers.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    return this.accountDescriptorCache.find(identifiers);
+  }
+
   public AccountPage fetchAccounts(
       final boolean includeClosed, final String term, final String type,
       final boolean includeCustomerAccounts, final Pageable pageable) {
@@ -123,6 +151,71 @@ public class AccountService {
     return accountEntryPage;
   }
 
+  /**
+   * Hands the account's entries to the consumer in ascending order. Entries are read in keyset slices, every one in
+   * a short read of its own, so no database connection is held while the consumer, e.g. a slow client, catches up.
+   */
+  public void streamAccountEntries(final String identifier,
+                                   final DateRange range,
+                                   final @Nullable String message,
+                                   final Consumer<AccountEntry> consumer) {
+    String cursor = null;
+    do {
+      final AccountEntrySlice accountEntrySlice =
+          this.fetchAccountEntrySlice(identifier, range, message, cursor, STREAM_SLICE_SIZE, Sort.Direction.ASC);
+      // an entity manager bound to the request would otherwise keep every entry read
+      this.entityManager.clear();
+      accountEntrySlice.getAccountEntries().forEach(consumer);
+      cursor = accountEntrySlice.getNextCursor();
+    } while (cursor != null);
+  }
+
+  /**
+   * Reads a slice of the account's entries after the cursor, without counting all entries of the range.
+   *
+   * @param cursor the position of the last entry read, null to start with the first entry of the range
+   */
+  public AccountEntrySlice fetchAccountEntrySlice(final String identifier,
+                                                  final DateRange range,
+                                                  final @Nullable String message,
+                                                  final @Nullable String cursor,
+                                                  final int size,
+                                                  final Sort.Direction direction) {
+    final AccountEntity accountEntity = this.accountRepository.findByIdentifier(identifier);
+    final boolean ascending = direction == Sort.Direction.ASC;
+
+    // a cursor just outside the range starts with the first entry
+    LocalDateTime cursorDate = ascending ? range.getStartDateTime() : range.getEndDateTime();
+    long cursorId = ascending ? Long.MIN_VALUE : Long.MAX_VALUE;
+    if (cursor != null) {
+      final int separator = cursor.indexOf(CURSOR_SEPARATOR);
+      try {
+        cursorDate = DateConverter.fromEpochMillis(Long.parseLong(cursor.substring(0, separator)));
+        cursorId = Long.parseLong(cursor.substring(separator + 1));
+      } catch (final NumberFormatException | IndexOutOfBoundsException ex) {
+        throw ServiceException.badRequest("Cursor {0} is not valid.", cursor);
+      }
+    }
+
+    final Pageable pageable = new PageRequest(0, size);
+    final Slice<AccountEntryEntity> accountEntryEntities = ascending
+        ? this.accountEntryRepository.findSliceAfter(accountEntity, range.getStartDateTime(), range.getEndDateTime(),
+            message, cursorDate, cursorId, pageable)
+        : this.accountEntryRepository.findSliceBefore(accountEntity, range.getStartDateTime(), range.getEndDateTime(),
+            message, cursorDate, cursorId, pageable);
+
+    final AccountEntrySlice accountEntrySlice = new AccountEntrySlice();
+    final List<AccountEntry> accountEntries = new ArrayList<>(accountEntryEntities.getNumberOfElements());
+    accountEntryEntities.forEach(accountEntryEntity -> accountEntries.add(AccountEntryMapper.map(accountEntryEntity)));
+    accountEntrySlice.setAccountEntries(accountEntries);
+    if (accountEntryEntities.hasNext()) {
+      final AccountEntryEntity last = accountEntryEntities.getContent().get(accountEntryEntities.getNumberOfElements() - 1);
+      accountEntrySlice.setNextCursor(
+          DateConverter.toEpochMillis(last.getTransactionDate()) + CURSOR_SEPARATOR + last.getId());
+    }
+    return accountEntrySlice;
+  }
+
   public final List<AccountCommand> fetchCommandsByAccount(final String identifier) {
     final AccountEntity accountEntity = this.accountRepository.findByIdentifier(identifier);
     final List<CommandEntity> commands = this.commandRepository.findByAccount(accountEntity);
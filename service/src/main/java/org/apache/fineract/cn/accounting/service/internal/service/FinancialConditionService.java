@@ -27,28 +27,35 @@ import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.EnumSet;
+import java.util.Map;
 import org.apache.fineract.cn.lang.DateConverter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class FinancialConditionService {
 
   private final LedgerRepository ledgerRepository;
+  private final LedgerTotalService ledgerTotalService;
 
   @Autowired
-  public FinancialConditionService(final LedgerRepository ledgerRepository) {
+  public FinancialConditionService(final LedgerRepository ledgerRepository,
+                                   final LedgerTotalService ledgerTotalService) {
     super();
     this.ledgerRepository = ledgerRepository;
+    this.ledgerTotalService = ledgerTotalService;
   }
 
+  @Transactional(readOnly = true)
   public FinancialCondition getFinancialCondition() {
     final FinancialCondition financialCondition = new FinancialCondition();
+    final Map<String, Long> unfoldedTotals = this.ledgerTotalService.fetchUnfoldedTotals();
     financialCondition.setDate(DateConverter.toIsoString(LocalDateTime.now(Clock.systemUTC())));
 
-    this.createFinancialConditionSection(financialCondition, AccountType.ASSET, FinancialConditionSection.Type.ASSET);
-    this.createFinancialConditionSection(financialCondition, AccountType.EQUITY, FinancialConditionSection.Type.EQUITY);
-    this.createFinancialConditionSection(financialCondition, AccountType.LIABILITY, FinancialConditionSection.Type.LIABILITY);
+    this.createFinancialConditionSection(financialCondition, unfoldedTotals, AccountType.ASSET, FinancialConditionSection.Type.ASSET);
+    this.createFinancialConditionSection(financialCondition, unfoldedTotals, AccountType.EQUITY, FinancialConditionSection.Type.EQUITY);
+    this.createFinancialConditionSection(financialCondition, unfoldedTotals, AccountType.LIABILITY, FinancialConditionSection.Type.LIABILITY);
 
     financialCondition.setTotalAssets(
         this.calculateTotal(financialCondition,
@@ -62,7 +69,8 @@ public class FinancialConditionService {
     return financialCondition;
   }
 
-  private void createFinancialConditionSection(final FinancialCondition financialCondition, final AccountType accountType,
+  private void createFinancialConditionSection(final FinancialCondition financialCondition, final Map<String, Long> unfoldedTotals,
+                                               final AccountType accountType,
                                                final FinancialConditionSection.Type financialConditionType) {
     this.ledgerRepository.findByParentLedgerIsNullAndType(accountType.name()).forEach(ledgerEntity -> {
       final FinancialConditionSection financialConditionSection = new FinancialConditionSection();
@@ -73,7 +81,7 @@ public class FinancialConditionService {
       this.ledgerRepository.findByParentLedgerOrderByIdentifier(ledgerEntity).forEach(subLedgerEntity -> {
         final FinancialConditionEntry financialConditionEntry = new FinancialConditionEntry();
         financialConditionEntry.setDescription(subLedgerEntity.getName());
-        final BigDecimal totalValue = subLedgerEntity.getTotalValue() != null ? subLedgerEntity.getTotalValue() : BigDecimal.ZERO;
+        final BigDecimal totalValue = this.ledgerTotalService.totalValueOf(subLedgerEntity, unfoldedTotals);
         financialConditionEntry.setValue(totalValue);
         financialConditionSection.add(financialConditionEntry);
       });
@@ -26,27 +26,34 @@ import org.apache.fineract.cn.accounting.service.internal.repository.LedgerRepos
 import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.Map;
 import org.apache.fineract.cn.lang.DateConverter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class IncomeStatementService {
 
   private final LedgerRepository ledgerRepository;
+  private final LedgerTotalService ledgerTotalService;
 
   @Autowired
-  public IncomeStatementService(final LedgerRepository ledgerRepository) {
+  public IncomeStatementService(final LedgerRepository ledgerRepository,
+                                final LedgerTotalService ledgerTotalService) {
     super();
     this.ledgerRepository = ledgerRepository;
+    this.ledgerTotalService = ledgerTotalService;
   }
 
+  @Transactional(readOnly = true)
   public IncomeStatement getIncomeStatement() {
     final IncomeStatement incomeStatement = new IncomeStatement();
+    final Map<String, Long> unfoldedTotals = this.ledgerTotalService.fetchUnfoldedTotals();
     incomeStatement.setDate(DateConverter.toIsoString(LocalDateTime.now(Clock.systemUTC())));
 
-    this.createIncomeStatementSection(incomeStatement, AccountType.REVENUE, IncomeStatementSection.Type.INCOME);
-    this.createIncomeStatementSection(incomeStatement, AccountType.EXPENSE, IncomeStatementSection.Type.EXPENSES);
+    this.createIncomeStatementSection(incomeStatement, unfoldedTotals, AccountType.REVENUE, IncomeStatementSection.Type.INCOME);
+    this.createIncomeStatementSection(incomeStatement, unfoldedTotals, AccountType.EXPENSE, IncomeStatementSection.Type.EXPENSES);
 
     incomeStatement.setGrossProfit(this.calculateTotal(incomeStatement, IncomeStatementSection.Type.INCOME));
     incomeStatement.setTotalExpenses(this.calculateTotal(incomeStatement, IncomeStatementSection.Type.EXPENSES));
@@ -55,7 +62,8 @@ public class IncomeStatementService {
     return incomeStatement;
   }
 
-  private void createIncomeStatementSection(final IncomeStatement incomeStatement, final AccountType accountType,
+  private void createIncomeStatementSection(final IncomeStatement incomeStatement, final Map<String, Long> unfoldedTotals,
+                                            final AccountType accountType,
                                             final IncomeStatementSection.Type incomeStatementType) {
     this.ledgerRepository.findByParentLedgerIsNullAndType(accountType.name()).forEach(ledgerEntity -> {
       final IncomeStatementSection incomeStatementSection = new IncomeStatementSection();
@@ -66,7 +74,7 @@ public class IncomeStatementService {
       this.ledgerRepository.findByParentLedgerOrderByIdentifier(ledgerEntity).forEach(subLedgerEntity -> {
         final IncomeStatementEntry incomeStatementEntry = new IncomeStatementEntry();
         incomeStatementEntry.setDescription(subLedgerEntity.getName());
-        final BigDecimal totalValue = subLedgerEntity.getTotalValue() != null ? subLedgerEntity.getTotalValue() : BigDecimal.ZERO;
+        final BigDecimal totalValue = this.ledgerTotalService.totalValueOf(subLedgerEntity, unfoldedTotals);
         incomeStatementEntry.setValue(totalValue);
         incomeStatementSection.add(incomeStatementEntry);
       });
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.service;
+
+import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntry;
+import org.apache.fineract.cn.accounting.service.ServiceConstants;
+import org.apache.fineract.cn.accounting.service.internal.repository.JournalArchive;
+import org.apache.fineract.cn.accounting.service.internal.repository.JournalEntryEntity;
+import org.apache.fineract.cn.accounting.service.internal.repository.JournalEntryRepository;
+import org.apache.fineract.cn.accounting.service.internal.repository.JournalSegment;
+import org.apache.fineract.cn.accounting.service.internal.repository.ProvisionedTenants;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.apache.fineract.cn.lang.DateConverter;
+import org.apache.fineract.cn.lang.DateRange;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedOperationParameter;
+import org.springframework.jmx.export.annotation.ManagedOperationParameters;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves closed journal days out of Cassandra into the {@link JournalArchive}. A day is closed once it is older than
+ * {@code journal.archive.minimumAge} days and all of its entries have been processed.
+ *
+ * <p>A day can be archived again, entries booked into it after it has been archived are then added to its
+ * segment. The daily pass does so for the last {@code journal.archive.catchUpDays} days old enough, days missed
+ * while no instance was running are picked up as long as they are within that window.</p>
+ */
+@Component
+@ManagedResource(objectName = "org.apache.fineract.cn.accounting:type=JournalArchiver")
+public class JournalArchiver {
+
+  private final Logger logger;
+  private final JournalEntryRepository journalEntryRepository;
+  private final JournalArchive journalArchive;
+  private final ProvisionedTenants provisionedTenants;
+  private final int minimumAge;
+  private final int catchUpDays;
+
+  @Autowired
+  public JournalArchiver(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
+                         final JournalEntryRepository journalEntryRepository,
+                         final JournalArchive journalArchive,
+                         final ProvisionedTenants provisionedTenants,
+                         @Value("${journal.archive.minimumAge:90}") final int minimumAge,
+                         @Value("${journal.archive.catchUpDays:7}") final int catchUpDays) {
+    super();
+    this.logger = logger;
+    this.journalEntryRepository = journalEntryRepository;
+    this.journalArchive = journalArchive;
+    this.provisionedTenants = provisionedTenants;
+    this.minimumAge = minimumAge;
+    this.catchUpDays = catchUpDays;
+  }
+
+  /**
+   * Archives the days of every provisioned tenant that are old enough, does nothing if the archive is not enabled.
+   */
+  @Scheduled(cron = "${journal.archive.cron:0 30 0 * * *}", zone = "UTC")
+  public void archiveClosedDays() {
+    if (!this.journalArchive.isEnabled()) {
+      return;
+    }
+    final LocalDate lastDay = LocalDate.now(Clock.systemUTC()).minusDays(this.minimumAge);
+    final LocalDate firstDay = lastDay.minusDays(this.catchUpDays - 1L);
+    this.provisionedTenants.findAll().forEach(tenantIdentifier -> {
+      int archivedEntries = 0;
+      for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1L)) {
+        try {
+          archivedEntries += this.archive(tenantIdentifier, day);
+        } catch (final RuntimeException ex) {
+          this.logger.warn("Could not archive journal of tenant {} for {}.", tenantIdentifier, day, ex);
+        }
+      }
+      this.logger.debug("Archived {} journal entries of tenant {} from {} to {}.",
+          archivedEntries, tenantIdentifier, firstDay, lastDay);
+    });
+  }
+
+  /**
+   * @return the number of journal entries moved into the archive
+   */
+  @ManagedOperation(description = "Moves the journal entries of a day into the archive.")
+  @ManagedOperationParameters({
+      @ManagedOperationParameter(name = "tenantIdentifier", description = "Tenant owning the journal."),
+      @ManagedOperationParameter(name = "day", description = "Day to archive, e.g. 2017-06-24.")
+  })
+  public int archive(final String tenantIdentifier, final String day) {
+    return this.archive(tenantIdentifier, DateConverter.dateFromIsoString(day));
+  }
+
+  /**
+   * @return the number of journal entries moved into the archive
+   */
+  @ManagedOperation(description = "Moves the journal entries of all days between two days into the archive.")
+  @ManagedOperationParameters({
+      @ManagedOperationParameter(name = "tenantIdentifier", description = "Tenant owning the journal."),
+      @ManagedOperationParameter(name = "from", description = "First day to archive, e.g. 2017-06-01."),
+      @ManagedOperationParameter(name = "to", description = "Last day to archive, e.g. 2017-06-30.")
+  })
+  public int archiveRange(final String tenantIdentifier, final String from, final String to) {
+    int archivedEntries = 0;
+    for (LocalDate day = DateConverter.dateFromIsoString(from);
+         !day.isAfter(DateConverter.dateFromIsoString(to));
+         day = day.plusDays(1L)) {
+      archivedEntries += this.archive(tenantIdentifier, day);
+    }
+    return archivedEntries;
+  }
+
+  private int archive(final String tenantIdentifier, final LocalDate day) {
+    if (!this.journalArchive.isEnabled()) {
+      throw new IllegalStateException("Journal archive is not enabled.");
+    }
+    if (day.isAfter(LocalDate.now(Clock.systemUTC()).minusDays(this.minimumAge))) {
+      throw new IllegalArgumentException("Only days older than " + this.minimumAge + " days can be archived.");
+    }
+
+    TenantContextHolder.clear();
+    TenantContextHolder.setIdentifier(tenantIdentifier);
+    try {
+      // reads the live entries together with the ones already archived, so the segment is rewritten as a whole
+      final List<JournalEntryEntity> journalEntryEntities =
+          this.journalEntryRepository.fetchJournalEntries(new DateRange(day, day));
+      final Optional<JournalSegment> optionalJournalSegment = this.journalArchive.findSegment(tenantIdentifier, day);
+      final List<JournalEntryEntity> liveJournalEntryEntities = journalEntryEntities
+          .stream()
+          .filter(journalEntryEntity -> !optionalJournalSegment
+              .map(journalSegment -> journalSegment.contains(journalEntryEntity.getTransactionIdentifier()))
+              .orElse(false))
+          .collect(Collectors.toList());
+      if (liveJournalEntryEntities.isEmpty()) {
+        return 0;
+      }
+      if (liveJournalEntryEntities.stream().anyMatch(journalEntryEntity ->
+          !JournalEntry.State.PROCESSED.name().equals(journalEntryEntity.getState()))) {
+        this.logger.info("Journal of tenant {} for {} has unprocessed entries, not archived.", tenantIdentifier, day);
+        return 0;
+      }
+
+      // the segment has to be in place before anything is removed from Cassandra
+      this.journalArchive.writeSegment(tenantIdentifier, day, journalEntryEntities);
+      this.journalEntryRepository.deleteJournalEntries(liveJournalEntryEntities).join();
+      this.logger.info("Archived {} journal entries of tenant {} for {}.",
+          liveJournalEntryEntities.size(), tenantIdentifier, day);
+      return liveJournalEntryEntities.size();
+    } finally {
+      TenantContextHolder.clear();
+    }
+  }
+}
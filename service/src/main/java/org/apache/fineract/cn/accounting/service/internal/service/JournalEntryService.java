@@ -18,22 +18,33 @@
  */
 package org.apache.fineract.cn.accounting.service.internal.service;
 
+import com.datastax.driver.core.exceptions.PagingStateException;
 import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntry;
+import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntryAggregate;
+import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntryPage;
+import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntrySummary;
 import org.apache.fineract.cn.accounting.service.ServiceConstants;
 import org.apache.fineract.cn.accounting.service.internal.mapper.JournalEntryMapper;
-import org.apache.fineract.cn.accounting.service.internal.repository.DebtorType;
+import org.apache.fineract.cn.accounting.service.internal.money.Money;
+import org.apache.fineract.cn.accounting.service.internal.repository.JournalBuckets;
 import org.apache.fineract.cn.accounting.service.internal.repository.JournalEntryEntity;
+import org.apache.fineract.cn.accounting.service.internal.repository.JournalEntryEntityPage;
 import org.apache.fineract.cn.accounting.service.internal.repository.JournalEntryRepository;
-import org.apache.fineract.cn.accounting.service.internal.repository.TransactionTypeEntity;
-import org.apache.fineract.cn.accounting.service.internal.repository.TransactionTypeRepository;
+import org.apache.fineract.cn.accounting.service.internal.repository.JournalPageToken;
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import org.apache.fineract.cn.lang.DateConverter;
 import org.apache.fineract.cn.lang.DateRange;
+import org.apache.fineract.cn.lang.ServiceException;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -42,23 +53,36 @@ import org.springframework.stereotype.Service;
 @Service
 public class JournalEntryService {
 
+  private static final int STREAM_PAGE_SIZE = 500;
+
   private Logger logger;
   private final JournalEntryRepository journalEntryRepository;
-  private final TransactionTypeRepository transactionTypeRepository;
+  private final TransactionTypeDictionary transactionTypeDictionary;
+  private final JournalBuckets journalBuckets;
 
   @Autowired
   public JournalEntryService(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
                              final JournalEntryRepository journalEntryRepository,
-                             final TransactionTypeRepository transactionTypeRepository) {
+                             final TransactionTypeDictionary transactionTypeDictionary,
+                             final JournalBuckets journalBuckets) {
     super();
     this.logger = logger;
     this.journalEntryRepository = journalEntryRepository;
-    this.transactionTypeRepository = transactionTypeRepository;
+    this.transactionTypeDictionary = transactionTypeDictionary;
+    this.journalBuckets = journalBuckets;
   }
 
   public List<JournalEntry> fetchJournalEntries(final DateRange range, final String accountNumber, final BigDecimal amount) {
-    final List<JournalEntryEntity> journalEntryEntities =
-        this.journalEntryRepository.fetchJournalEntries(range);
+    final Long totalAmount = amount != null ? Money.valueOf(amount) : null;
+    // the indexes only hold matching entries, the amount still needs to be checked if both are given
+    final List<JournalEntryEntity> journalEntryEntities;
+    if (accountNumber != null) {
+      journalEntryEntities = this.journalEntryRepository.fetchJournalEntries(range, accountNumber);
+    } else if (totalAmount != null) {
+      journalEntryEntities = this.journalEntryRepository.fetchJournalEntries(range, totalAmount.longValue());
+    } else {
+      journalEntryEntities = this.journalEntryRepository.fetchJournalEntries(range);
+    }
 
     if (journalEntryEntities != null) {
 
@@ -66,28 +90,12 @@ public class JournalEntryService {
           journalEntryEntities
               .stream()
               .filter(journalEntryEntity ->
-                  accountNumber == null
-                      || journalEntryEntity.getDebtors().stream()
-                          .anyMatch(debtorType -> debtorType.getAccountNumber().equals(accountNumber))
-                      || journalEntryEntity.getCreditors().stream()
-                          .anyMatch(creditorType -> creditorType.getAccountNumber().equals(accountNumber))
-              )
-              .filter(journalEntryEntity ->
-                  amount == null
-                      || amount.compareTo(
-                          BigDecimal.valueOf(
-                              journalEntryEntity.getDebtors().stream().mapToDouble(DebtorType::getAmount).sum()
-                          )
-                  ) == 0
+                  totalAmount == null || journalEntryEntity.totalAmountMinorUnits() == totalAmount
               )
               .sorted(Comparator.comparing(JournalEntryEntity::getTransactionDate))
               .collect(Collectors.toList());
 
-      final List<TransactionTypeEntity> transactionTypes = this.transactionTypeRepository.findAll();
-      final HashMap<String, String> mappedTransactionTypes = new HashMap<>(transactionTypes.size());
-      transactionTypes.forEach(transactionTypeEntity ->
-          mappedTransactionTypes.put(transactionTypeEntity.getIdentifier(), transactionTypeEntity.getName())
-      );
+      final Map<String, String> mappedTransactionTypes = this.transactionTypeDictionary.names();
 
       return filteredList
           .stream()
@@ -102,9 +110,119 @@ public class JournalEntryService {
     }
   }
 
+  public List<JournalEntrySummary> fetchJournalEntrySummaries(final DateRange range, final String accountNumber) {
+    final Map<String, String> mappedTransactionTypes = this.transactionTypeDictionary.names();
+    return this.journalEntryRepository.fetchJournalEntrySummaries(range, accountNumber)
+        .stream()
+        .map(journalEntrySummaryEntity -> {
+          final JournalEntrySummary journalEntrySummary = JournalEntryMapper.map(journalEntrySummaryEntity);
+          journalEntrySummary.setTransactionType(mappedTransactionTypes.get(journalEntrySummary.getTransactionType()));
+          return journalEntrySummary;
+        })
+        .collect(Collectors.toList());
+  }
+
+  public List<JournalEntryAggregate> fetchJournalEntryAggregates(final DateRange range, final String accountNumber) {
+    final Map<String, String> mappedTransactionTypes = this.transactionTypeDictionary.names();
+    return this.journalEntryRepository.fetchJournalEntryAggregates(range, accountNumber)
+        .stream()
+        .map(journalEntryAggregateEntity -> {
+          final JournalEntryAggregate journalEntryAggregate = JournalEntryMapper.map(journalEntryAggregateEntity);
+          journalEntryAggregate.setTransactionType(mappedTransactionTypes.getOrDefault(
+              journalEntryAggregate.getTransactionType(), journalEntryAggregate.getTransactionType()));
+          return journalEntryAggregate;
+        })
+        .collect(Collectors.toList());
+  }
+
+  public JournalEntryPage fetchJournalEntryPage(final DateRange range, final String accountNumber,
+                                                final String pageToken, final int pageSize) {
+    return this.fetchJournalEntryPage(range, accountNumber, pageToken, pageSize, this.transactionTypeDictionary.names());
+  }
+
+  /**
+   * Hands every journal entry of the range to the consumer, holding no more than one page in memory.
+   */
+  public void streamJournalEntries(final DateRange range, final String accountNumber,
+                                   final Consumer<JournalEntry> consumer) {
+    final Map<String, String> mappedTransactionTypes = this.transactionTypeDictionary.names();
+    String pageToken = null;
+    do {
+      final JournalEntryPage journalEntryPage =
+          this.fetchJournalEntryPage(range, accountNumber, pageToken, STREAM_PAGE_SIZE, mappedTransactionTypes);
+      journalEntryPage.getJournalEntries().forEach(consumer);
+      pageToken = journalEntryPage.getNextPageToken();
+    } while (pageToken != null);
+  }
+
+  /**
+   * @return true if the transaction identifier of the journal entry has been claimed, false if it is already taken
+   */
+  public boolean claimTransactionIdentifier(final JournalEntry journalEntry) {
+    return this.journalEntryRepository.claimTransactionIdentifier(
+        journalEntry.getTransactionIdentifier(), this.dateBucketOf(journalEntry)).join();
+  }
+
+  /**
+   * @return the claimed transaction identifiers, the ones missing were already taken
+   */
+  public Set<String> claimTransactionIdentifiers(final List<JournalEntry> journalEntries) {
+    final Map<String, String> dateBuckets = new HashMap<>(journalEntries.size());
+    journalEntries.forEach(journalEntry ->
+        dateBuckets.put(journalEntry.getTransactionIdentifier(), this.dateBucketOf(journalEntry)));
+    return this.journalEntryRepository.claimTransactionIdentifiers(dateBuckets).join();
+  }
+
+  public void releaseTransactionIdentifiers(final Collection<String> transactionIdentifiers) {
+    this.journalEntryRepository.releaseTransactionIdentifiers(transactionIdentifiers).join();
+  }
+
   public Optional<JournalEntry> findJournalEntry(final String transactionIdentifier) {
-    final Optional<JournalEntryEntity> optionalJournalEntryEntity = this.journalEntryRepository.findJournalEntry(transactionIdentifier);
+    final Optional<JournalEntryEntity> optionalJournalEntryEntity = this.journalEntryRepository.findJournalEntry(transactionIdentifier).join();
 
     return optionalJournalEntryEntity.map(JournalEntryMapper::map);
   }
+
+  private JournalPageToken parsePageToken(final String pageToken) {
+    try {
+      return JournalPageToken.parse(pageToken);
+    } catch (final IllegalArgumentException ex) {
+      throw ServiceException.badRequest("Invalid page token.");
+    }
+  }
+
+  private JournalEntryPage fetchJournalEntryPage(final DateRange range, final String accountNumber,
+                                                 final String pageToken, final int pageSize,
+                                                 final Map<String, String> mappedTransactionTypes) {
+    final JournalPageToken journalPageToken = pageToken != null ? this.parsePageToken(pageToken) : null;
+    final JournalEntryEntityPage journalEntryEntityPage;
+    try {
+      journalEntryEntityPage =
+          this.journalEntryRepository.fetchJournalEntryPage(range, accountNumber, journalPageToken, pageSize);
+    } catch (final PagingStateException ex) {
+      // the paging state is well formed, but was handed out for a different range or account
+      throw ServiceException.badRequest("Invalid page token.");
+    }
+
+    final JournalEntryPage journalEntryPage = new JournalEntryPage();
+    journalEntryPage.setJournalEntries(
+        journalEntryEntityPage.getJournalEntryEntities()
+            .stream()
+            .sorted(Comparator.comparing(JournalEntryEntity::getTransactionDate))
+            .map(journalEntryEntity -> {
+              final JournalEntry journalEntry = JournalEntryMapper.map(journalEntryEntity);
+              journalEntry.setTransactionType(mappedTransactionTypes.get(journalEntry.getTransactionType()));
+              return journalEntry;
+            })
+            .collect(Collectors.toList())
+    );
+    journalEntryPage.setNextPageToken(journalEntryEntityPage.getPagingState());
+    return journalEntryPage;
+  }
+
+  private String dateBucketOf(final JournalEntry journalEntry) {
+    return this.journalBuckets.bucketOf(
+        DateConverter.toLocalDate(DateConverter.fromIsoString(journalEntry.getTransactionDate())),
+        journalEntry.getTransactionIdentifier());
+  }
 }
@@ -33,9 +33,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -43,15 +46,19 @@ public class LedgerService {
 
   private final LedgerRepository ledgerRepository;
   private final AccountRepository accountRepository;
+  private final LedgerTotalService ledgerTotalService;
 
   @Autowired
   public LedgerService(final LedgerRepository ledgerRepository,
-                       final AccountRepository accountRepository) {
+                       final AccountRepository accountRepository,
+                       final LedgerTotalService ledgerTotalService) {
     super();
     this.ledgerRepository = ledgerRepository;
     this.accountRepository = accountRepository;
+    this.ledgerTotalService = ledgerTotalService;
   }
 
+  @Transactional(readOnly = true)
   public LedgerPage fetchLedgers(final boolean includeSubLedgers,
                                  final String term,
                                  final String type,
@@ -65,18 +72,18 @@ public class LedgerService {
     ledgerPage.setTotalPages(ledgerEntities.getTotalPages());
     ledgerPage.setTotalElements(ledgerEntities.getTotalElements());
 
-    ledgerPage.setLedgers(this.mapToLedger(ledgerEntities.getContent()));
+    ledgerPage.setLedgers(this.mapToLedger(ledgerEntities.getContent(), this.ledgerTotalService.fetchUnfoldedTotals()));
 
     return ledgerPage;
   }
 
-  private List<Ledger> mapToLedger(List<LedgerEntity> ledgerEntities) {
+  private List<Ledger> mapToLedger(List<LedgerEntity> ledgerEntities, final Map<String, Long> unfoldedTotals) {
     final List<Ledger> result = new ArrayList<>(ledgerEntities.size());
 
     if(!ledgerEntities.isEmpty()) {
       ledgerEntities.forEach(ledgerEntity -> {
-        final Ledger ledger = LedgerMapper.map(ledgerEntity);
-        this.addSubLedgers(ledger, this.ledgerRepository.findByParentLedgerOrderByIdentifier(ledgerEntity));
+        final Ledger ledger = this.map(ledgerEntity, unfoldedTotals);
+        this.addSubLedgers(ledger, this.ledgerRepository.findByParentLedgerOrderByIdentifier(ledgerEntity), unfoldedTotals);
         result.add(ledger);
       });
     }
@@ -84,11 +91,13 @@ public class LedgerService {
     return result;
   }
 
+  @Transactional(readOnly = true)
   public Optional<Ledger> findLedger(final String identifier) {
     final LedgerEntity ledgerEntity = this.ledgerRepository.findByIdentifier(identifier);
     if (ledgerEntity != null) {
-      final Ledger ledger = LedgerMapper.map(ledgerEntity);
-      this.addSubLedgers(ledger, this.ledgerRepository.findByParentLedgerOrderByIdentifier(ledgerEntity));
+      final Map<String, Long> unfoldedTotals = this.ledgerTotalService.fetchUnfoldedTotals();
+      final Ledger ledger = this.map(ledgerEntity, unfoldedTotals);
+      this.addSubLedgers(ledger, this.ledgerRepository.findByParentLedgerOrderByIdentifier(ledgerEntity), unfoldedTotals);
       return Optional.of(ledger);
     } else {
       return Optional.empty();
@@ -119,11 +128,18 @@ public class LedgerService {
   }
 
   private void addSubLedgers(final Ledger parentLedger,
-                             final List<LedgerEntity> subLedgerEntities) {
+                             final List<LedgerEntity> subLedgerEntities,
+                             final Map<String, Long> unfoldedTotals) {
     if (subLedgerEntities != null) {
       final List<Ledger> subLedgers = new ArrayList<>(subLedgerEntities.size());
-      subLedgerEntities.forEach(subLedgerEntity -> subLedgers.add(LedgerMapper.map(subLedgerEntity)));
+      subLedgerEntities.forEach(subLedgerEntity -> subLedgers.add(this.map(subLedgerEntity, unfoldedTotals)));
       parentLedger.setSubLedgers(subLedgers);
     }
   }
+
+  private Ledger map(final LedgerEntity ledgerEntity, final Map<String, Long> unfoldedTotals) {
+    final Ledger ledger = LedgerMapper.map(ledgerEntity);
+    ledger.setTotalValue(this.ledgerTotalService.totalValueOf(ledgerEntity, unfoldedTotals));
+    return ledger;
+  }
 }
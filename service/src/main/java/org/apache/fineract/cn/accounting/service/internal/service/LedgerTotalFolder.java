@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.service;
+
+import org.apache.fineract.cn.accounting.service.ServiceConstants;
+import org.apache.fineract.cn.accounting.service.internal.repository.ProvisionedTenants;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LedgerTotalFolder {
+
+  private final Logger logger;
+  private final LedgerTotalService ledgerTotalService;
+  private final ProvisionedTenants provisionedTenants;
+
+  @Autowired
+  public LedgerTotalFolder(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
+                           final LedgerTotalService ledgerTotalService,
+                           final ProvisionedTenants provisionedTenants) {
+    super();
+    this.logger = logger;
+    this.ledgerTotalService = ledgerTotalService;
+    this.provisionedTenants = provisionedTenants;
+  }
+
+  @Scheduled(fixedDelayString = "${ledger.totals.foldInterval:5000}")
+  public void foldLedgerDeltas() {
+    this.provisionedTenants.findAll().forEach(tenantIdentifier -> {
+      TenantContextHolder.clear();
+      TenantContextHolder.setIdentifier(tenantIdentifier);
+      try {
+        int foldedDeltas = 0;
+        int folded;
+        do {
+          folded = this.ledgerTotalService.foldLedgerDeltas();
+          foldedDeltas += folded;
+        } while (folded > 0);
+        if (foldedDeltas > 0) {
+          this.logger.debug("Folded {} ledger deltas of tenant {}.", foldedDeltas, tenantIdentifier);
+        }
+      } catch (final RuntimeException ex) {
+        this.logger.warn("Could not fold ledger deltas of tenant {}.", tenantIdentifier, ex);
+      } finally {
+        TenantContextHolder.clear();
+      }
+    });
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.service;
+
+import org.apache.fineract.cn.accounting.service.internal.money.Money;
+import org.apache.fineract.cn.accounting.service.internal.repository.LedgerDeltaEntity;
+import org.apache.fineract.cn.accounting.service.internal.repository.LedgerDeltaRepository;
+import org.apache.fineract.cn.accounting.service.internal.repository.LedgerEntity;
+import org.apache.fineract.cn.accounting.service.internal.repository.LedgerRepository;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Ledger totals are maintained in two steps. Bookings only append the deltas of the ledgers their accounts belong
+ * to, and {@link #foldLedgerDeltas()} later rolls these deltas up the ledger tree into
+ * {@link LedgerEntity#getTotalValue()}. Readers add the not yet folded deltas to the folded total.
+ */
+@Service
+public class LedgerTotalService {
+
+  private final LedgerRepository ledgerRepository;
+  private final LedgerDeltaRepository ledgerDeltaRepository;
+
+  @Autowired
+  public LedgerTotalService(final LedgerRepository ledgerRepository,
+                            final LedgerDeltaRepository ledgerDeltaRepository) {
+    super();
+    this.ledgerRepository = ledgerRepository;
+    this.ledgerDeltaRepository = ledgerDeltaRepository;
+  }
+
+  @Transactional
+  public void appendLedgerDeltas(final Map<String, Long> ledgerDeltas) {
+    final LocalDateTime now = LocalDateTime.now(Clock.systemUTC());
+    final List<LedgerDeltaEntity> ledgerDeltaEntities = ledgerDeltas.entrySet()
+        .stream()
+        .filter(ledgerDelta -> ledgerDelta.getValue() != 0L)
+        .map(ledgerDelta -> {
+          final LedgerDeltaEntity ledgerDeltaEntity = new LedgerDeltaEntity();
+          ledgerDeltaEntity.setLedgerIdentifier(ledgerDelta.getKey());
+          ledgerDeltaEntity.setAmount(ledgerDelta.getValue());
+          ledgerDeltaEntity.setCreatedOn(now);
+          return ledgerDeltaEntity;
+        })
+        .collect(Collectors.toList());
+    if (!ledgerDeltaEntities.isEmpty()) {
+      this.ledgerDeltaRepository.save(ledgerDeltaEntities);
+    }
+  }
+
+  /**
+   * Folds the oldest pending deltas of the current tenant into the ledger totals. The deltas are read without
+   * locks, only the fold lease is held, so concurrent bookings keep appending while a fold runs.
+   *
+   * @return the number of folded deltas, zero if nothing was pending
+   */
+  @Transactional
+  public int foldLedgerDeltas() {
+    this.ledgerDeltaRepository.acquireFoldLease();
+    final List<LedgerDeltaEntity> ledgerDeltaEntities = this.ledgerDeltaRepository.findTop1000ByOrderByIdAsc();
+    if (ledgerDeltaEntities.isEmpty()) {
+      return 0;
+    }
+
+    final Map<String, Long> ledgerDeltas = new HashMap<>();
+    ledgerDeltaEntities.forEach(ledgerDeltaEntity ->
+        ledgerDeltas.merge(ledgerDeltaEntity.getLedgerIdentifier(), ledgerDeltaEntity.getAmount(), Long::sum));
+    this.applyLedgerDeltas(this.rollUp(ledgerDeltas));
+
+    // ids are handed out in pooled blocks and do not follow commit order, so a range up to the highest id read
+    // could take in deltas committed after the read; deleting by primary key only locks the rows read
+    this.ledgerDeltaRepository.deleteInBatch(ledgerDeltaEntities);
+    return ledgerDeltaEntities.size();
+  }
+
+  /**
+   * @return the sum of all not yet folded deltas per ledger, including the ones of its sub ledgers
+   */
+  public Map<String, Long> fetchUnfoldedTotals() {
+    final Map<String, Long> ledgerDeltas = new HashMap<>();
+    this.ledgerDeltaRepository.sumAmountByLedgerIdentifier().forEach(row ->
+        ledgerDeltas.put((String) row[0], (Long) row[1]));
+    return this.rollUp(ledgerDeltas);
+  }
+
+  public BigDecimal totalValueOf(final LedgerEntity ledgerEntity, final Map<String, Long> unfoldedTotals) {
+    final long totalValue = ledgerEntity.getTotalValue() != null ? ledgerEntity.getTotalValue() : 0L;
+    return Money.toBigDecimal(totalValue + unfoldedTotals.getOrDefault(ledgerEntity.getIdentifier(), 0L));
+  }
+
+  public void collectLedgerDeltas(final LedgerEntity ledger, final long amount,
+                                  final Map<String, Long> ledgerDeltas) {
+    LedgerEntity currentLedger = ledger;
+    while (currentLedger != null) {
+      ledgerDeltas.merge(currentLedger.getIdentifier(), amount, Long::sum);
+      currentLedger = currentLedger.getParentLedger();
+    }
+  }
+
+  @Transactional
+  public void applyLedgerDeltas(final Map<String, Long> ledgerDeltas) {
+    // callers pass a sorted map, so concurrent writers lock shared ledger rows in the same order
+    ledgerDeltas.forEach((ledgerIdentifier, amount) -> {
+      if (amount != 0L) {
+        this.ledgerRepository.addToTotalValue(ledgerIdentifier, amount);
+      }
+    });
+  }
+
+  private Map<String, Long> rollUp(final Map<String, Long> ledgerDeltas) {
+    final Map<String, Long> rolledUpDeltas = new TreeMap<>();
+    ledgerDeltas.forEach((ledgerIdentifier, amount) ->
+        this.collectLedgerDeltas(this.ledgerRepository.findByIdentifier(ledgerIdentifier), amount, rolledUpDeltas));
+    return rolledUpDeltas;
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.service;
+
+import org.apache.fineract.cn.accounting.service.internal.repository.TransactionTypeEntity;
+import org.apache.fineract.cn.accounting.service.internal.repository.TransactionTypeRepository;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Per tenant map of transaction type codes to names, loaded on first use. A tenant's dictionary is dropped whenever
+ * a transaction type is created or changed, see
+ * {@link org.apache.fineract.cn.accounting.service.internal.listener.TransactionTypeEventListener}.
+ */
+@Component
+public class TransactionTypeDictionary {
+
+  private final TransactionTypeRepository transactionTypeRepository;
+  private final Map<String, Map<String, String>> namesByTenant = new ConcurrentHashMap<>();
+  private final AtomicLong refreshes = new AtomicLong();
+
+  @Autowired
+  public TransactionTypeDictionary(final TransactionTypeRepository transactionTypeRepository) {
+    super();
+    this.transactionTypeRepository = transactionTypeRepository;
+  }
+
+  /**
+   * @return the names of all transaction types of the current tenant, keyed by code
+   */
+  public Map<String, String> names() {
+    final String tenantIdentifier = TenantContextHolder.checkedGetIdentifier();
+    final Map<String, String> names = this.namesByTenant.get(tenantIdentifier);
+    if (names != null) {
+      return names;
+    }
+    // a refresh racing with the load could leave stale names behind, only keep them if there was none
+    final long refreshesBeforeLoad = this.refreshes.get();
+    final Map<String, String> loadedNames = this.load();
+    if (this.refreshes.get() == refreshesBeforeLoad) {
+      this.namesByTenant.putIfAbsent(tenantIdentifier, loadedNames);
+    }
+    return loadedNames;
+  }
+
+  public boolean contains(final String code) {
+    return this.names().containsKey(code);
+  }
+
+  public void refresh(final String tenantIdentifier) {
+    this.refreshes.incrementAndGet();
+    this.namesByTenant.remove(tenantIdentifier);
+  }
+
+  /**
+   * Refreshes the current tenant's dictionary once the surrounding transaction is committed, or right away if there
+   * is none.
+   */
+  public void refreshAfterCommit() {
+    final String tenantIdentifier = TenantContextHolder.checkedGetIdentifier();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+        @Override
+        public void afterCommit() {
+          refresh(tenantIdentifier);
+        }
+      });
+    } else {
+      this.refresh(tenantIdentifier);
+    }
+  }
+
+  private Map<String, String> load() {
+    final List<TransactionTypeEntity> transactionTypes = this.transactionTypeRepository.findAll();
+    final HashMap<String, String> names = new HashMap<>(transactionTypes.size());
+    transactionTypes.forEach(transactionTypeEntity ->
+        names.put(transactionTypeEntity.getIdentifier(), transactionTypeEntity.getName()));
+    return Collections.unmodifiableMap(names);
+  }
+}
@@ -25,31 +25,39 @@ import org.apache.fineract.cn.accounting.service.internal.mapper.LedgerMapper;
 import org.apache.fineract.cn.accounting.service.internal.repository.LedgerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.Comparator;
+import java.util.Map;
 
 @Service
 public class TrialBalanceService {
 
   private final LedgerRepository ledgerRepository;
+  private final LedgerTotalService ledgerTotalService;
 
   @Autowired
-  public TrialBalanceService(final LedgerRepository ledgerRepository) {
+  public TrialBalanceService(final LedgerRepository ledgerRepository,
+                             final LedgerTotalService ledgerTotalService) {
     super();
     this.ledgerRepository = ledgerRepository;
+    this.ledgerTotalService = ledgerTotalService;
   }
 
+  @Transactional(readOnly = true)
   public TrialBalance getTrialBalance(final boolean includeEmptyEntries) {
     final TrialBalance trialBalance = new TrialBalance();
+    final Map<String, Long> unfoldedTotals = this.ledgerTotalService.fetchUnfoldedTotals();
     this.ledgerRepository.findByParentLedgerIsNull().forEach(ledgerEntity ->
       this.ledgerRepository.findByParentLedgerOrderByIdentifier(ledgerEntity).forEach(subLedger -> {
-        final BigDecimal totalValue = subLedger.getTotalValue() != null ? subLedger.getTotalValue() : BigDecimal.ZERO;
+        final BigDecimal totalValue = this.ledgerTotalService.totalValueOf(subLedger, unfoldedTotals);
         if (!includeEmptyEntries && totalValue.compareTo(BigDecimal.ZERO) == 0) {
           return;
         }
         final TrialBalanceEntry trialBalanceEntry = new TrialBalanceEntry();
         trialBalanceEntry.setLedger(LedgerMapper.map(subLedger));
+        trialBalanceEntry.getLedger().setTotalValue(totalValue);
         switch (AccountType.valueOf(subLedger.getType())) {
           case ASSET:
           case EXPENSE:
@@ -21,9 +21,13 @@ package org.apache.fineract.cn.accounting.service.rest;
 import org.apache.fineract.cn.accounting.api.v1.PermittableGroupIds;
 import org.apache.fineract.cn.accounting.api.v1.client.AccountNotFoundException;
 import org.apache.fineract.cn.accounting.api.v1.domain.Account;
+import org.apache.fineract.cn.accounting.api.v1.domain.AccountBalance;
 import org.apache.fineract.cn.accounting.api.v1.domain.AccountCommand;
 import org.apache.fineract.cn.accounting.api.v1.domain.AccountEntryPage;
+import org.apache.fineract.cn.accounting.api.v1.domain.AccountEntrySlice;
+import org.apache.fineract.cn.accounting.api.v1.domain.AccountEntry;
 import org.apache.fineract.cn.accounting.api.v1.domain.AccountPage;
+import org.apache.fineract.cn.accounting.api.v1.domain.AccountStatementBalance;
 import org.apache.fineract.cn.accounting.api.v1.domain.Ledger;
 import org.apache.fineract.cn.accounting.service.internal.command.CloseAccountCommand;
 import org.apache.fineract.cn.accounting.service.internal.command.CreateAccountCommand;
@@ -32,20 +36,37 @@ import org.apache.fineract.cn.accounting.service.internal.command.LockAccountCom
 import org.apache.fineract.cn.accounting.service.internal.command.ModifyAccountCommand;
 import org.apache.fineract.cn.accounting.service.internal.command.ReopenAccountCommand;
 import org.apache.fineract.cn.accounting.service.internal.command.UnlockAccountCommand;
+import org.apache.fineract.cn.accounting.service.internal.money.Money;
+import org.apache.fineract.cn.accounting.service.internal.service.AccountBalanceService;
 import org.apache.fineract.cn.accounting.service.internal.service.AccountService;
 import org.apache.fineract.cn.accounting.service.internal.service.LedgerService;
 import org.apache.fineract.cn.accounting.service.rest.paging.PageableBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import javax.validation.Valid;
 import org.apache.fineract.cn.anubis.annotation.AcceptedTokenType;
 import org.apache.fineract.cn.anubis.annotation.Permittable;
 import org.apache.fineract.cn.api.annotation.ThrowsException;
 import org.apache.fineract.cn.command.gateway.CommandGateway;
+import org.apache.fineract.cn.lang.DateConverter;
 import org.apache.fineract.cn.lang.DateRange;
 import org.apache.fineract.cn.lang.ServiceException;
+import org.apache.fineract.cn.lang.TenantContextHolder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -56,24 +77,36 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @SuppressWarnings({"unused"})
 @RestController
 @RequestMapping("/accounts")
 public class AccountRestController {
 
+  private static final int DEFAULT_SLICE_SIZE = 20;
+  private static final int MAX_SLICE_SIZE = 1000;
+  private static final String NDJSON_VALUE = "application/x-ndjson";
+  private static final String CSV_VALUE = "text/csv";
+
   private final CommandGateway commandGateway;
   private final AccountService accountService;
   private final LedgerService ledgerService;
+  private final AccountBalanceService accountBalanceService;
+  private final ObjectMapper objectMapper;
 
   @Autowired
   public AccountRestController(final CommandGateway commandGateway,
                                final AccountService accountService,
-                               final LedgerService ledgerService) {
+                               final LedgerService ledgerService,
+                               final AccountBalanceService accountBalanceService,
+                               final ObjectMapper objectMapper) {
     super();
     this.commandGateway = commandGateway;
     this.accountService = accountService;
     this.ledgerService = ledgerService;
+    this.accountBalanceService = accountBalanceService;
+    this.objectMapper = objectMapper;
   }
 
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.THOTH_ACCOUNT)
@@ -199,6 +232,158 @@ public class AccountRestController {
         PageableBuilder.create(pageIndex, size, sortColumn == null ? "transactionDate" : sortColumn, sortDirection)));
   }
 
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.THOTH_ACCOUNT)
+  @RequestMapping(
+      value = "/{identifier}/entries/slice",
+      method = RequestMethod.GET,
+      produces = {MediaType.APPLICATION_JSON_VALUE},
+      consumes = {MediaType.ALL_VALUE}
+  )
+  @ResponseBody
+  ResponseEntity<AccountEntrySlice> fetchAccountEntrySlice(
+      @PathVariable("identifier") final String identifier,
+      @RequestParam(value = "dateRange", required = false) @Nullable final String dateRange,
+      @RequestParam(value = "message", required = false) @Nullable final String message,
+      @RequestParam(value = "cursor", required = false) @Nullable final String cursor,
+      @RequestParam(value = "size", required = false) @Nullable final Integer size,
+      @RequestParam(value = "sortDirection", required = false) @Nullable final String sortDirection
+  ) {
+    if (!this.accountService.findAccount(identifier).isPresent()) {
+      throw ServiceException.notFound("Account {0} not found.", identifier);
+    }
+    final int sliceSize = size != null ? size : DEFAULT_SLICE_SIZE;
+    if (sliceSize < 1 || sliceSize > MAX_SLICE_SIZE) {
+      throw ServiceException.badRequest("Slice size must be between 1 and {0}.", MAX_SLICE_SIZE);
+    }
+    final Sort.Direction direction;
+    try {
+      direction = sortDirection != null ? Sort.Direction.fromString(sortDirection) : Sort.Direction.ASC;
+    } catch (final IllegalArgumentException ex) {
+      throw ServiceException.badRequest("Sort direction {0} is not valid.", sortDirection);
+    }
+    final DateRange range = DateRange.fromIsoString(dateRange);
+
+    return ResponseEntity.ok(
+        this.accountService.fetchAccountEntrySlice(identifier, range, message, cursor, sliceSize, direction));
+  }
+
+  /**
+   * Writes all entries of the range straight to the response, as CSV or one JSON document per line, so exports of
+   * any size take a single request and constant memory. The format is chosen by the format parameter only, the
+   * Accept header is not taken into account.
+   */
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.THOTH_ACCOUNT)
+  @RequestMapping(
+      value = "/{identifier}/entries/export",
+      method = RequestMethod.GET,
+      consumes = {MediaType.ALL_VALUE}
+  )
+  @ResponseBody
+  ResponseEntity<StreamingResponseBody> exportAccountEntries(
+      @PathVariable("identifier") final String identifier,
+      @RequestParam(value = "dateRange", required = false) @Nullable final String dateRange,
+      @RequestParam(value = "message", required = false) @Nullable final String message,
+      @RequestParam(value = "format", required = false) @Nullable final String format
+  ) {
+    if (!this.accountService.findAccount(identifier).isPresent()) {
+      throw ServiceException.notFound("Account {0} not found.", identifier);
+    }
+    final boolean csv;
+    if (format == null || format.equalsIgnoreCase("ndjson")) {
+      csv = false;
+    } else if (format.equalsIgnoreCase("csv")) {
+      csv = true;
+    } else {
+      throw ServiceException.badRequest("Format {0} is not supported.", format);
+    }
+    final DateRange range = DateRange.fromIsoString(dateRange);
+    // the body is written on an async thread, which does not inherit the tenant of the request
+    final String tenantIdentifier = TenantContextHolder.checkedGetIdentifier();
+
+    final StreamingResponseBody body = outputStream -> {
+      TenantContextHolder.clear();
+      TenantContextHolder.setIdentifier(tenantIdentifier);
+      final Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+      try {
+        if (csv) {
+          writer.write("transactionDate,type,amount,balance,message\n");
+        }
+        this.accountService.streamAccountEntries(identifier, range, message, accountEntry -> {
+          try {
+            writer.write(csv ? toCsvLine(accountEntry) : this.objectMapper.writeValueAsString(accountEntry));
+            writer.write('\n');
+          } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+          }
+        });
+        writer.flush();
+      } catch (final UncheckedIOException ex) {
+        throw ex.getCause();
+      } finally {
+        TenantContextHolder.clear();
+      }
+    };
+    return ResponseEntity.ok().contentType(MediaType.parseMediaType(csv ? CSV_VALUE : NDJSON_VALUE)).body(body);
+  }
+
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.THOTH_ACCOUNT)
+  @RequestMapping(
+      value = "/{identifier}/balance",
+      method = RequestMethod.GET,
+      produces = {MediaType.APPLICATION_JSON_VALUE},
+      consumes = {MediaType.ALL_VALUE}
+  )
+  @ResponseBody
+  ResponseEntity<AccountBalance> fetchAccountBalance(
+      @PathVariable("identifier") final String identifier,
+      @RequestParam(value = "date", required = false) @Nullable final String date
+  ) {
+    if (!this.accountService.findAccount(identifier).isPresent()) {
+      throw ServiceException.notFound("Account {0} not found.", identifier);
+    }
+    final LocalDate day;
+    try {
+      day = date != null ? DateConverter.dateFromIsoString(date) : LocalDate.now(Clock.systemUTC());
+    } catch (final DateTimeParseException ex) {
+      throw ServiceException.badRequest("Date {0} is not valid.", date);
+    }
+
+    final AccountBalance accountBalance = new AccountBalance();
+    accountBalance.setDate(DateConverter.toIsoString(day));
+    accountBalance.setBalance(Money.toDouble(this.accountBalanceService.balanceAsOf(identifier, day)));
+    return ResponseEntity.ok(accountBalance);
+  }
+
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.THOTH_ACCOUNT)
+  @RequestMapping(
+      value = "/{identifier}/statement",
+      method = RequestMethod.GET,
+      produces = {MediaType.APPLICATION_JSON_VALUE},
+      consumes = {MediaType.ALL_VALUE}
+  )
+  @ResponseBody
+  ResponseEntity<AccountStatementBalance> fetchAccountStatementBalance(
+      @PathVariable("identifier") final String identifier,
+      @RequestParam(value = "dateRange", required = false) @Nullable final String dateRange
+  ) {
+    if (!this.accountService.findAccount(identifier).isPresent()) {
+      throw ServiceException.notFound("Account {0} not found.", identifier);
+    }
+    final DateRange range = DateRange.fromIsoString(dateRange);
+    final List<LocalDate> days = range.stream().collect(Collectors.toList());
+    if (days.isEmpty()) {
+      throw ServiceException.badRequest("Date range {0} is empty.", dateRange);
+    }
+
+    final long[] openingAndClosingBalance = this.accountBalanceService.openingAndClosingBalance(
+        identifier, days.get(0), days.get(days.size() - 1));
+    final AccountStatementBalance accountStatementBalance = new AccountStatementBalance();
+    accountStatementBalance.setDateRange(range.toString());
+    accountStatementBalance.setOpeningBalance(Money.toDouble(openingAndClosingBalance[0]));
+    accountStatementBalance.setClosingBalance(Money.toDouble(openingAndClosingBalance[1]));
+    return ResponseEntity.ok(accountStatementBalance);
+  }
+
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.THOTH_ACCOUNT)
   @RequestMapping(
           value = "/{identifier}/commands",
@@ -320,4 +505,22 @@ public class AccountRestController {
       }
     }
   }
+
+  private static String toCsvLine(final AccountEntry accountEntry) {
+    return accountEntry.getTransactionDate()
+        + "," + accountEntry.getType()
+        + "," + BigDecimal.valueOf(accountEntry.getAmount()).toPlainString()
+        + "," + BigDecimal.valueOf(accountEntry.getBalance()).toPlainString()
+        + "," + toCsvField(accountEntry.getMessage());
+  }
+
+  private static String toCsvField(final String value) {
+    if (value == null) {
+      return "";
+    }
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+      return value;
+    }
+    return "\"" + value.replace("\"", "\"\"") + "\"";
+  }
 }
@@ -18,22 +18,49 @@
  */
 package org.apache.fineract.cn.accounting.service.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.fineract.cn.accounting.api.v1.PermittableGroupIds;
 import org.apache.fineract.cn.accounting.api.v1.domain.Account;
 import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntry;
+import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntryAggregate;
+import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntryPage;
+import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntryResult;
+import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntrySummary;
+import org.apache.fineract.cn.accounting.service.internal.booking.BookingExecutor;
+import org.apache.fineract.cn.accounting.service.internal.command.CreateJournalEntriesCommand;
 import org.apache.fineract.cn.accounting.service.internal.command.CreateJournalEntryCommand;
+import org.apache.fineract.cn.accounting.service.internal.money.Money;
+import org.apache.fineract.cn.accounting.service.internal.repository.AccountDescriptor;
 import org.apache.fineract.cn.accounting.service.internal.service.AccountService;
 import org.apache.fineract.cn.accounting.service.internal.service.JournalEntryService;
+import org.apache.fineract.cn.accounting.service.internal.service.TransactionTypeDictionary;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
+import javax.validation.Validation;
+import javax.validation.Validator;
 import org.apache.fineract.cn.anubis.annotation.AcceptedTokenType;
 import org.apache.fineract.cn.anubis.annotation.Permittable;
 import org.apache.fineract.cn.command.gateway.CommandGateway;
 import org.apache.fineract.cn.lang.DateRange;
 import org.apache.fineract.cn.lang.ServiceException;
+import org.apache.fineract.cn.lang.TenantContextHolder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -43,24 +70,47 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @SuppressWarnings({"unused"})
 @RestController
 @RequestMapping("/journal")
 public class JournalRestController {
 
+  private static final int MAX_BATCH_SIZE = 1000;
+  private static final int DEFAULT_PAGE_SIZE = 100;
+  private static final int MAX_PAGE_SIZE = 1000;
+  private static final String NDJSON_VALUE = "application/x-ndjson";
+
   private final CommandGateway commandGateway;
   private final JournalEntryService journalEntryService;
   private final AccountService accountService;
+  private final BookingExecutor bookingExecutor;
+  private final int retryAfterSeconds;
+  private final ObjectMapper objectMapper;
+  private final TransactionTypeDictionary transactionTypeDictionary;
+  private final boolean validateTransactionTypes;
+  private final Validator validator;
 
   @Autowired
   public JournalRestController(final CommandGateway commandGateway,
                                final JournalEntryService journalEntryService,
-                               final AccountService accountService) {
+                               final AccountService accountService,
+                               final BookingExecutor bookingExecutor,
+                               @Value("${booking.retryAfter:1}") final int retryAfterSeconds,
+                               final ObjectMapper objectMapper,
+                               final TransactionTypeDictionary transactionTypeDictionary,
+                               @Value("${journal.validateTransactionTypes:false}") final boolean validateTransactionTypes) {
     super();
     this.commandGateway = commandGateway;
     this.journalEntryService = journalEntryService;
     this.accountService = accountService;
+    this.bookingExecutor = bookingExecutor;
+    this.retryAfterSeconds = retryAfterSeconds;
+    this.objectMapper = objectMapper;
+    this.transactionTypeDictionary = transactionTypeDictionary;
+    this.validateTransactionTypes = validateTransactionTypes;
+    this.validator = Validation.buildDefaultValidatorFactory().getValidator();
   }
 
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.THOTH_JOURNAL)
@@ -71,52 +121,120 @@ public class JournalRestController {
   )
   @ResponseBody
   ResponseEntity<Void> createJournalEntry(@RequestBody @Valid final JournalEntry journalEntry) {
-    if (this.journalEntryService.findJournalEntry(journalEntry.getTransactionIdentifier()).isPresent()) {
-      throw ServiceException.conflict("Journal entry {0} already exists.", journalEntry.getTransactionIdentifier());
+    this.validateJournalEntry(journalEntry,
+        this.accountService.findAccountDescriptors(this.collectAccountNumbers(Collections.singletonList(journalEntry))));
+
+    // validate and admit first, so a rejected entry does not leave its transaction identifier claimed
+    if (!this.bookingExecutor.tryAdmit()) {
+      return this.tooManyRequests();
+    }
+    boolean claimed = false;
+    try {
+      if (!this.journalEntryService.claimTransactionIdentifier(journalEntry)) {
+        throw ServiceException.conflict("Journal entry {0} already exists.", journalEntry.getTransactionIdentifier());
+      }
+      claimed = true;
+      this.commandGateway.process(new CreateJournalEntryCommand(journalEntry));
+    } catch (final RuntimeException ex) {
+      this.bookingExecutor.release();
+      if (claimed) {
+        this.journalEntryService.releaseTransactionIdentifiers(
+            Collections.singleton(journalEntry.getTransactionIdentifier()));
+      }
+      throw ex;
     }
+    return ResponseEntity.accepted().build();
+  }
 
-    if (journalEntry.getDebtors().size() == 0) {
-      throw ServiceException.badRequest("Debtors must be given.");
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.THOTH_JOURNAL)
+  @RequestMapping(
+      value = "/batch",
+      method = RequestMethod.POST,
+      produces = {MediaType.APPLICATION_JSON_VALUE},
+      consumes = {MediaType.APPLICATION_JSON_VALUE}
+  )
+  @ResponseBody
+  ResponseEntity<List<JournalEntryResult>> createJournalEntries(@RequestBody final List<JournalEntry> journalEntries) {
+    if (journalEntries == null || journalEntries.isEmpty()) {
+      throw ServiceException.badRequest("Journal entries must be given.");
     }
-    if (journalEntry.getCreditors().size() == 0) {
-      throw ServiceException.badRequest("Creditors must be given.");
+    if (journalEntries.size() > MAX_BATCH_SIZE) {
+      throw ServiceException.badRequest("At most {0} journal entries can be posted at once.", MAX_BATCH_SIZE);
+    }
+    // a null entry has no transaction identifier to report a result for
+    if (journalEntries.contains(null)) {
+      throw ServiceException.badRequest("Journal entries must not be null.");
     }
 
-    final Double debtorAmountSum = journalEntry.getDebtors()
-        .stream()
-        .peek(debtor -> {
-          final Optional<Account> accountOptional = this.accountService.findAccount(debtor.getAccountNumber());
-          if (!accountOptional.isPresent()) {
-            throw ServiceException.badRequest("Unknown debtor account{0}.", debtor.getAccountNumber());
-          }
-          if (!accountOptional.get().getState().equals(Account.State.OPEN.name())) {
-            throw ServiceException.conflict("Debtor account{0} must be in state open.", debtor.getAccountNumber());
-          }
-        })
-        .map(debtor -> Double.valueOf(debtor.getAmount()))
-        .reduce(0.0D, (x, y) -> x + y);
+    final Map<String, AccountDescriptor> accountDescriptors =
+        this.accountService.findAccountDescriptors(this.collectAccountNumbers(journalEntries));
 
-    final Double creditorAmountSum = journalEntry.getCreditors()
-        .stream()
-        .peek(creditor -> {
-          final Optional<Account> accountOptional = this.accountService.findAccount(creditor.getAccountNumber());
-          if (!accountOptional.isPresent()) {
-            throw ServiceException.badRequest("Unknown creditor account{0}.", creditor.getAccountNumber());
-          }
-          if (!accountOptional.get().getState().equals(Account.State.OPEN.name())) {
-            throw ServiceException.conflict("Creditor account{0} must be in state open.", creditor.getAccountNumber());
-          }
-        })
-        .map(creditor -> Double.valueOf(creditor.getAmount()))
-        .reduce(0.0D, (x, y) -> x + y);
+    final Set<String> seenTransactionIdentifiers = new HashSet<>();
+    final List<JournalEntry> validJournalEntries = new ArrayList<>(journalEntries.size());
+    final List<JournalEntryResult> results = new ArrayList<>(journalEntries.size());
+    journalEntries.forEach(journalEntry -> {
+      final String transactionIdentifier = journalEntry.getTransactionIdentifier();
+      try {
+        final Set<ConstraintViolation<JournalEntry>> violations = this.validator.validate(journalEntry);
+        if (!violations.isEmpty()) {
+          throw ServiceException.badRequest("Journal entry is not valid: {0}.", violations
+              .stream()
+              .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+              .collect(Collectors.joining(", ")));
+        }
+        if (!seenTransactionIdentifiers.add(transactionIdentifier)) {
+          throw ServiceException.conflict("Journal entry {0} already exists.", transactionIdentifier);
+        }
+        this.validateJournalEntry(journalEntry, accountDescriptors);
+        validJournalEntries.add(journalEntry);
+        results.add(new JournalEntryResult(transactionIdentifier, JournalEntryResult.State.ACCEPTED, null));
+      } catch (final ServiceException ex) {
+        results.add(new JournalEntryResult(transactionIdentifier, JournalEntryResult.State.REJECTED, ex.getMessage()));
+      }
+    });
 
-    if (!debtorAmountSum.equals(creditorAmountSum)) {
-      throw ServiceException.conflict(
-          "Sum of debtor and sum of creditor amounts must be equals.");
+    if (validJournalEntries.isEmpty()) {
+      return ResponseEntity.accepted().body(results);
+    }
+    // the whole batch is booked at once and takes a single slot
+    if (!this.bookingExecutor.tryAdmit()) {
+      return this.tooManyRequests();
     }
 
-    this.commandGateway.process(new CreateJournalEntryCommand(journalEntry));
-    return ResponseEntity.accepted().build();
+    final Set<String> claimedTransactionIdentifiers;
+    try {
+      claimedTransactionIdentifiers = this.journalEntryService.claimTransactionIdentifiers(validJournalEntries);
+    } catch (final RuntimeException ex) {
+      this.bookingExecutor.release();
+      throw ex;
+    }
+    final List<JournalEntry> acceptedJournalEntries = validJournalEntries
+        .stream()
+        .filter(journalEntry -> claimedTransactionIdentifiers.contains(journalEntry.getTransactionIdentifier()))
+        .collect(Collectors.toList());
+    if (acceptedJournalEntries.size() < validJournalEntries.size()) {
+      results.replaceAll(result -> {
+        if (result.getState().equals(JournalEntryResult.State.ACCEPTED.name())
+            && !claimedTransactionIdentifiers.contains(result.getTransactionIdentifier())) {
+          return new JournalEntryResult(result.getTransactionIdentifier(), JournalEntryResult.State.REJECTED,
+              MessageFormat.format("Journal entry {0} already exists.", result.getTransactionIdentifier()));
+        }
+        return result;
+      });
+    }
+
+    if (acceptedJournalEntries.isEmpty()) {
+      this.bookingExecutor.release();
+    } else {
+      try {
+        this.commandGateway.process(new CreateJournalEntriesCommand(acceptedJournalEntries));
+      } catch (final RuntimeException ex) {
+        this.bookingExecutor.release();
+        this.journalEntryService.releaseTransactionIdentifiers(claimedTransactionIdentifiers);
+        throw ex;
+      }
+    }
+    return ResponseEntity.accepted().body(results);
   }
 
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.THOTH_JOURNAL)
@@ -136,6 +254,101 @@ public class JournalRestController {
     return ResponseEntity.ok(this.journalEntryService.fetchJournalEntries(range, accountNumber, amount));
   }
 
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.THOTH_JOURNAL)
+  @RequestMapping(
+      value = "/summaries",
+      method = RequestMethod.GET,
+      produces = {MediaType.APPLICATION_JSON_VALUE},
+      consumes = {MediaType.ALL_VALUE}
+  )
+  @ResponseBody
+  ResponseEntity<List<JournalEntrySummary>> fetchJournalEntrySummaries(
+      @RequestParam(value = "dateRange", required = false) final String dateRange,
+      @RequestParam(value = "account", required = false) final String accountNumber
+  ) {
+    final DateRange range = DateRange.fromIsoString(dateRange);
+
+    return ResponseEntity.ok(this.journalEntryService.fetchJournalEntrySummaries(range, accountNumber));
+  }
+
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.THOTH_JOURNAL)
+  @RequestMapping(
+      value = "/aggregates",
+      method = RequestMethod.GET,
+      produces = {MediaType.APPLICATION_JSON_VALUE},
+      consumes = {MediaType.ALL_VALUE}
+  )
+  @ResponseBody
+  ResponseEntity<List<JournalEntryAggregate>> fetchJournalEntryAggregates(
+      @RequestParam(value = "dateRange", required = false) final String dateRange,
+      @RequestParam(value = "account", required = false) final String accountNumber
+  ) {
+    final DateRange range = DateRange.fromIsoString(dateRange);
+
+    return ResponseEntity.ok(this.journalEntryService.fetchJournalEntryAggregates(range, accountNumber));
+  }
+
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.THOTH_JOURNAL)
+  @RequestMapping(
+      value = "/pages",
+      method = RequestMethod.GET,
+      produces = {MediaType.APPLICATION_JSON_VALUE},
+      consumes = {MediaType.ALL_VALUE}
+  )
+  @ResponseBody
+  ResponseEntity<JournalEntryPage> fetchJournalEntryPage(
+      @RequestParam(value = "dateRange", required = false) final String dateRange,
+      @RequestParam(value = "account", required = false) final String accountNumber,
+      @RequestParam(value = "pageToken", required = false) final String pageToken,
+      @RequestParam(value = "size", required = false) final Integer size
+  ) {
+    final int pageSize = size != null ? size : DEFAULT_PAGE_SIZE;
+    if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+      throw ServiceException.badRequest("Page size must be between 1 and {0}.", MAX_PAGE_SIZE);
+    }
+    final DateRange range = DateRange.fromIsoString(dateRange);
+
+    return ResponseEntity.ok(this.journalEntryService.fetchJournalEntryPage(range, accountNumber, pageToken, pageSize));
+  }
+
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.THOTH_JOURNAL)
+  @RequestMapping(
+      value = "/stream",
+      method = RequestMethod.GET,
+      produces = {NDJSON_VALUE},
+      consumes = {MediaType.ALL_VALUE}
+  )
+  @ResponseBody
+  ResponseEntity<StreamingResponseBody> streamJournalEntries(
+      @RequestParam(value = "dateRange", required = false) final String dateRange,
+      @RequestParam(value = "account", required = false) final String accountNumber
+  ) {
+    final DateRange range = DateRange.fromIsoString(dateRange);
+    // the body is written on an async thread, which does not inherit the tenant of the request
+    final String tenantIdentifier = TenantContextHolder.checkedGetIdentifier();
+
+    final StreamingResponseBody body = outputStream -> {
+      TenantContextHolder.clear();
+      TenantContextHolder.setIdentifier(tenantIdentifier);
+      try {
+        this.journalEntryService.streamJournalEntries(range, accountNumber, journalEntry -> {
+          try {
+            outputStream.write(this.objectMapper.writeValueAsBytes(journalEntry));
+            outputStream.write('\n');
+          } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+          }
+        });
+        outputStream.flush();
+      } catch (final UncheckedIOException ex) {
+        throw ex.getCause();
+      } finally {
+        TenantContextHolder.clear();
+      }
+    };
+    return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON_VALUE)).body(body);
+  }
+
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.THOTH_JOURNAL)
   @RequestMapping(
       value = "/{transactionIdentifier}",
@@ -156,4 +369,96 @@ public class JournalRestController {
       throw ServiceException.notFound("Journal entry {0} not found.", transactionIdentifier);
     }
   }
+
+  private <T> ResponseEntity<T> tooManyRequests() {
+    return ResponseEntity
+        .status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, Integer.toString(this.retryAfterSeconds))
+        .body(null);
+  }
+
+  private Set<String> collectAccountNumbers(final List<JournalEntry> journalEntries) {
+    final Set<String> accountNumbers = new HashSet<>();
+    journalEntries.forEach(journalEntry -> {
+      if (journalEntry.getDebtors() != null) {
+        journalEntry.getDebtors()
+            .stream()
+            .filter(Objects::nonNull)
+            .forEach(debtor -> accountNumbers.add(debtor.getAccountNumber()));
+      }
+      if (journalEntry.getCreditors() != null) {
+        journalEntry.getCreditors()
+            .stream()
+            .filter(Objects::nonNull)
+            .forEach(creditor -> accountNumbers.add(creditor.getAccountNumber()));
+      }
+    });
+    return accountNumbers;
+  }
+
+  private void validateJournalEntry(final JournalEntry journalEntry, final Map<String, AccountDescriptor> accountDescriptors) {
+    if (this.validateTransactionTypes && !this.transactionTypeDictionary.contains(journalEntry.getTransactionType())) {
+      throw ServiceException.badRequest("Unknown transaction type {0}.", journalEntry.getTransactionType());
+    }
+    if (journalEntry.getDebtors().size() == 0) {
+      throw ServiceException.badRequest("Debtors must be given.");
+    }
+    if (journalEntry.getCreditors().size() == 0) {
+      throw ServiceException.badRequest("Creditors must be given.");
+    }
+    if (journalEntry.getDebtors().contains(null) || journalEntry.getCreditors().contains(null)) {
+      throw ServiceException.badRequest("Debtors and creditors must not be null.");
+    }
+
+    final long debtorAmountSum = journalEntry.getDebtors()
+        .stream()
+        .peek(debtor -> {
+          final AccountDescriptor accountDescriptor = accountDescriptors.get(debtor.getAccountNumber());
+          if (accountDescriptor == null) {
+            throw ServiceException.badRequest("Unknown debtor account{0}.", debtor.getAccountNumber());
+          }
+          if (!accountDescriptor.getState().equals(Account.State.OPEN.name())) {
+            throw ServiceException.conflict("Debtor account{0} must be in state open.", debtor.getAccountNumber());
+          }
+        })
+        .mapToLong(debtor -> this.parseAmount(debtor.getAmount()))
+        .reduce(0L, this::addAmounts);
+
+    final long creditorAmountSum = journalEntry.getCreditors()
+        .stream()
+        .peek(creditor -> {
+          final AccountDescriptor accountDescriptor = accountDescriptors.get(creditor.getAccountNumber());
+          if (accountDescriptor == null) {
+            throw ServiceException.badRequest("Unknown creditor account{0}.", creditor.getAccountNumber());
+          }
+          if (!accountDescriptor.getState().equals(Account.State.OPEN.name())) {
+            throw ServiceException.conflict("Creditor account{0} must be in state open.", creditor.getAccountNumber());
+          }
+        })
+        .mapToLong(creditor -> this.parseAmount(creditor.getAmount()))
+        .reduce(0L, this::addAmounts);
+
+    if (debtorAmountSum != creditorAmountSum) {
+      throw ServiceException.conflict(
+          "Sum of debtor and sum of creditor amounts must be equals.");
+    }
+  }
+
+  private long parseAmount(final String amount) {
+    try {
+      return Money.parse(amount);
+    } catch (final NumberFormatException | ArithmeticException ex) {
+      // amounts beyond the scale of minor units are rejected, rounding them would book something else than asked for
+      throw ServiceException.badRequest("Amount {0} is not valid, at most {1} fraction digits are supported.",
+          amount, Money.SCALE);
+    }
+  }
+
+  private long addAmounts(final long x, final long y) {
+    try {
+      return Math.addExact(x, y);
+    } catch (final ArithmeticException ex) {
+      throw ServiceException.badRequest("Sum of amounts is out of range.");
+    }
+  }
 }
@@ -0,0 +1,38 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements.  See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership.  The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License.  You may obtain a copy of the License at
+--
+--   http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied.  See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+-- amounts are stored as a count of minor units with a fixed scale of 5,
+-- columns are widened first so multiplying existing values cannot overflow
+ALTER TABLE thoth_accounts MODIFY balance NUMERIC(20, 5) NOT NULL;
+UPDATE thoth_accounts SET balance = balance * 100000;
+ALTER TABLE thoth_accounts MODIFY balance BIGINT NOT NULL;
+
+ALTER TABLE thoth_account_entries MODIFY amount NUMERIC(20, 5) NOT NULL;
+ALTER TABLE thoth_account_entries MODIFY balance NUMERIC(20, 5) NOT NULL;
+UPDATE thoth_account_entries SET amount = amount * 100000, balance = balance * 100000;
+ALTER TABLE thoth_account_entries MODIFY amount BIGINT NOT NULL;
+ALTER TABLE thoth_account_entries MODIFY balance BIGINT NOT NULL;
+
+ALTER TABLE thoth_ledgers MODIFY total_value NUMERIC(20, 5) NULL;
+UPDATE thoth_ledgers SET total_value = total_value * 100000 WHERE total_value IS NOT NULL;
+ALTER TABLE thoth_ledgers MODIFY total_value BIGINT NULL;
+
+ALTER TABLE thoth_ledger_deltas MODIFY amount NUMERIC(20, 5) NOT NULL;
+UPDATE thoth_ledger_deltas SET amount = amount * 100000;
+ALTER TABLE thoth_ledger_deltas MODIFY amount BIGINT NOT NULL;
@@ -0,0 +1,31 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements.  See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership.  The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License.  You may obtain a copy of the License at
+--
+--   http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied.  See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+CREATE TABLE thoth_id_generators (
+  sequence_name VARCHAR(64) NOT NULL,
+  next_val      BIGINT      NOT NULL,
+  CONSTRAINT thoth_id_generators_pk PRIMARY KEY (sequence_name)
+);
+
+-- the pooled optimizer hands out the 50 ids up to the stored value, so start one block above the existing ids
+INSERT INTO thoth_id_generators (sequence_name, next_val) SELECT 'thoth_accounts', COALESCE(MAX(id), 0) + 51 FROM thoth_accounts;
+INSERT INTO thoth_id_generators (sequence_name, next_val) SELECT 'thoth_account_entries', COALESCE(MAX(id), 0) + 51 FROM thoth_account_entries;
+INSERT INTO thoth_id_generators (sequence_name, next_val) SELECT 'thoth_commands', COALESCE(MAX(id), 0) + 51 FROM thoth_commands;
+INSERT INTO thoth_id_generators (sequence_name, next_val) SELECT 'thoth_ledgers', COALESCE(MAX(id), 0) + 51 FROM thoth_ledgers;
+INSERT INTO thoth_id_generators (sequence_name, next_val) SELECT 'thoth_ledger_deltas', COALESCE(MAX(id), 0) + 51 FROM thoth_ledger_deltas;
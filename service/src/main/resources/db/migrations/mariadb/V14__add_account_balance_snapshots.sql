@@ -0,0 +1,30 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements.  See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership.  The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License.  You may obtain a copy of the License at
+--
+--   http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied.  See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+CREATE TABLE thoth_account_balance_snapshots (
+  id            BIGINT NOT NULL,
+  account_id    BIGINT NOT NULL,
+  snapshot_date DATE   NOT NULL,
+  balance       BIGINT NOT NULL,
+  CONSTRAINT thoth_account_balance_snapshots_pk PRIMARY KEY (id),
+  CONSTRAINT thoth_account_balance_snapshots_uq UNIQUE (account_id, snapshot_date),
+  CONSTRAINT thoth_account_balance_snapshots_accounts_fk FOREIGN KEY (account_id) REFERENCES thoth_accounts (id)
+);
+
+INSERT INTO thoth_id_generators (sequence_name, next_val) VALUES ('thoth_account_balance_snapshots', 51);
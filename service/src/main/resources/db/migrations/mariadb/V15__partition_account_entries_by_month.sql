@@ -0,0 +1,52 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements.  See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership.  The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License.  You may obtain a copy of the License at
+--
+--   http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied.  See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+-- partitioned InnoDB tables support no foreign keys and need the partitioning column in every unique key,
+-- range columns partitioning needs a DATETIME instead of a TIMESTAMP
+-- without the foreign key, orphan entries are prevented by the service: a booking fails unless the balance update
+-- found the account row, and deleting an account locks its row and refuses if entries exist
+ALTER TABLE thoth_account_entries DROP FOREIGN KEY thoth_account_entries_accounts_fk;
+
+-- transaction dates are UTC, pin the session time zone so converting the TIMESTAMP keeps them as they are
+SET time_zone = '+00:00';
+ALTER TABLE thoth_account_entries MODIFY transaction_date DATETIME(3) NOT NULL;
+ALTER TABLE thoth_account_entries DROP PRIMARY KEY, ADD CONSTRAINT thoth_account_entries_pk PRIMARY KEY (id, transaction_date);
+
+-- one partition per month holding entries, plus the current and the next month; later months are added ahead of
+-- time by the partition maintenance, anything past them lands in p_future
+SET SESSION group_concat_max_len = 1048576;
+
+SELECT GROUP_CONCAT(
+         CONCAT('PARTITION p', DATE_FORMAT(month_start, '%Y%m'),
+                ' VALUES LESS THAN (''', month_start + INTERVAL 1 MONTH, ''')')
+         ORDER BY month_start SEPARATOR ', ')
+  INTO @account_entries_partitions
+  FROM (
+    SELECT DISTINCT CAST(DATE_FORMAT(transaction_date, '%Y-%m-01') AS DATE) AS month_start FROM thoth_account_entries
+    UNION SELECT CAST(DATE_FORMAT(UTC_DATE(), '%Y-%m-01') AS DATE)
+    UNION SELECT CAST(DATE_FORMAT(UTC_DATE(), '%Y-%m-01') AS DATE) + INTERVAL 1 MONTH
+  ) months;
+
+SET @partition_account_entries = CONCAT(
+  'ALTER TABLE thoth_account_entries PARTITION BY RANGE COLUMNS (transaction_date) (',
+  @account_entries_partitions, ', PARTITION p_future VALUES LESS THAN (MAXVALUE))');
+
+PREPARE partition_account_entries FROM @partition_account_entries;
+EXECUTE partition_account_entries;
+DEALLOCATE PREPARE partition_account_entries;
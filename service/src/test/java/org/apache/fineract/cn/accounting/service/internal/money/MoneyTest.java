@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.accounting.service.internal.money;
+
+import java.math.BigDecimal;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MoneyTest {
+
+  @Test
+  public void shouldParseOnFastPath() {
+    Assert.assertEquals(5000000L, Money.parse("50.00"));
+    Assert.assertEquals(5000000L, Money.parse("50"));
+    Assert.assertEquals(-150000L, Money.parse("-1.5"));
+    Assert.assertEquals(300000L, Money.parse("+3"));
+    Assert.assertEquals(1L, Money.parse("0.00001"));
+    Assert.assertEquals(50000L, Money.parse(".5"));
+    Assert.assertEquals(12345678901212345L, Money.parse("123456789012.12345"));
+  }
+
+  @Test
+  public void shouldParseOnSlowPath() {
+    Assert.assertEquals(10000000L, Money.parse("1e2"));
+    Assert.assertEquals(10000000L, Money.parse("1E+2"));
+    Assert.assertEquals(Long.MAX_VALUE, Money.parse("92233720368547.75807"));
+    Assert.assertEquals(Long.MIN_VALUE, Money.parse("-92233720368547.75808"));
+  }
+
+  @Test
+  public void shouldParseTrailingZerosBeyondScaleFive() {
+    Assert.assertEquals(123456L, Money.parse("1.2345600"));
+    Assert.assertEquals(-100000L, Money.parse("-1.000000000"));
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void shouldNotRoundBeyondScaleFive() {
+    Money.parse("0.000005");
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void shouldNotRoundBeyondScaleFiveOnSlowPath() {
+    Money.parse("1.2345649999e0");
+  }
+
+  @Test
+  public void shouldConvertValuesToMinorUnits() {
+    Assert.assertEquals(1250000L, Money.valueOf(12.5D));
+    Assert.assertEquals(10L, Money.valueOf(0.0001D));
+    Assert.assertEquals(-1L, Money.valueOf(-0.00001D));
+    Assert.assertEquals(12346L, Money.valueOf(new BigDecimal("0.123456")));
+    Assert.assertEquals(100000L, Money.valueOf(BigDecimal.ONE));
+  }
+
+  @Test
+  public void shouldConvertMinorUnits() {
+    Assert.assertEquals(1.5D, Money.toDouble(150000L), 0.0D);
+    Assert.assertEquals(new BigDecimal("0.00001"), Money.toBigDecimal(1L));
+    Assert.assertEquals("50.0", Money.toString(5000000L));
+    Assert.assertEquals("-0.00001", Money.toString(-1L));
+    Assert.assertEquals(Money.parse(Money.toString(12345678901212345L)), 12345678901212345L);
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void shouldFailOnOverflowOnFastPath() {
+    Money.parse("999999999999999999");
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void shouldFailOnOverflowOnSlowPath() {
+    Money.parse("92233720368547.75808");
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void shouldFailOnOverflowOfValue() {
+    Money.valueOf(1.0E15D);
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void shouldNotParseEmptyAmount() {
+    Money.parse("");
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void shouldNotParseAmountWithoutDigits() {
+    Money.parse("-.");
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void shouldNotParseText() {
+    Money.parse("12a");
+  }
+}